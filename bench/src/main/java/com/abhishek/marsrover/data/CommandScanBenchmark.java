@@ -0,0 +1,83 @@
+package com.abhishek.marsrover.data;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.parser.ByteSequence;
+
+/*
+ * Benchmark of packing a command line read from a buffer into a tape:
+ * one char at a time through CharSequence, with the scalar scanner,
+ * and with the Vector API scanner, which the fork enables with
+ * --add-modules. Also packs from a direct buffer, as the parsers do
+ * for memory mapped files.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CommandScanBenchmark {
+
+    @Param({"64", "1024", "65536"})
+    public int length;
+
+    private byte[] bytes;
+
+    private ByteBuffer direct;
+
+    private long[] words;
+
+    private CommandScanner scalar;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) "LRMMM".charAt(random.nextInt(5));
+        }
+        direct = ByteBuffer.allocateDirect(length).put(bytes);
+        words = new long[(length + CommandTape.COMMANDS_PER_WORD - 1) / CommandTape.COMMANDS_PER_WORD];
+        scalar = new ScalarCommandScanner();
+        if (!(CommandTape.getScanner() instanceof VectorCommandScanner)) {
+            throw new IllegalStateException("Vector API is not available.");
+        }
+    }
+
+    @Benchmark
+    public CommandTape charByChar() {
+        return CommandTape.of(new ByteSequence(ByteBuffer.wrap(bytes), 0, length));
+    }
+
+    @Benchmark
+    public long[] scalarScanner() {
+        scalar.pack(bytes, 0, length, words, 0);
+        return words;
+    }
+
+    @Benchmark
+    public long[] vectorScanner() {
+        CommandTape.getScanner().pack(bytes, 0, length, words, 0);
+        return words;
+    }
+
+    @Benchmark
+    public CommandTape directBuffer() {
+        return CommandTape.of(direct, 0, length);
+    }
+}
@@ -0,0 +1,122 @@
+package com.abhishek.marsrover.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Benchmark of the row-major and Morton layouts of an occupancy bitmap,
+ * for rovers walking on a plateau of 2^28 cells, 32 MB of bits, which
+ * does not fit in the caches. Rovers execute one after the other, each
+ * a walk of steps, mostly north and south or mostly east and west. A
+ * step checks the cell ahead, and with neighbours set the 8 cells
+ * around it, then moves the rover on the index. Cells are checked one
+ * by one on the index, as a Plateau places and updates rovers, while
+ * a Plateau checks runs of moves through its LineOccupancyIndex.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class OccupancyLayoutBenchmark {
+
+    private static final int SIDE = 1 << 14;
+
+    private static final int ROVERS = 10_000;
+
+    private static final int STEPS = 200;
+
+    @Param({"rowMajor", "morton"})
+    public String layout;
+
+    @Param({"northSouth", "eastWest"})
+    public String mix;
+
+    @Param({"false", "true"})
+    public boolean neighbours;
+
+    private OccupancyIndex index;
+    private int[] xs;
+    private int[] ys;
+
+    /*
+     * Direction of every step of every rover.
+     */
+    private Direction[] steps;
+
+    @Setup
+    public void createRovers() {
+        index = layout.equals("morton") ? new MortonOccupancyIndex(0, 0, SIDE - 1, SIDE - 1)
+                                        : new BitSetOccupancyIndex(0, 0, SIDE - 1, SIDE - 1);
+        Random random = new Random(42);
+        xs = new int[ROVERS];
+        ys = new int[ROVERS];
+        for (int i = 0; i < ROVERS; i++) {
+            xs[i] = random.nextInt(SIDE);
+            ys[i] = random.nextInt(SIDE);
+            index.occupy(xs[i], ys[i]);
+        }
+        // nine steps out of ten along the main axis, out for half of the walk and back.
+        Direction[] main = mix.equals("northSouth") ? new Direction[] {Direction.N, Direction.S}
+                                                    : new Direction[] {Direction.E, Direction.W};
+        Direction[] other = mix.equals("northSouth") ? new Direction[] {Direction.E, Direction.W}
+                                                     : new Direction[] {Direction.N, Direction.S};
+        steps = new Direction[ROVERS * STEPS];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = random.nextInt(10) == 0 ? other[random.nextInt(2)] : main[i % STEPS < STEPS / 2 ? 0 : 1];
+        }
+    }
+
+    @Benchmark
+    public int walk() {
+        int moved = 0;
+        for (int rover = 0; rover < ROVERS; rover++) {
+            int x = xs[rover];
+            int y = ys[rover];
+            for (int i = rover * STEPS; i < (rover + 1) * STEPS; i++) {
+                Direction direction = steps[i];
+                int nextX = x + (direction == Direction.E ? 1 : direction == Direction.W ? -1 : 0);
+                int nextY = y + (direction == Direction.N ? 1 : direction == Direction.S ? -1 : 0);
+                if (nextX < 0 || nextY < 0 || nextX >= SIDE || nextY >= SIDE || index.isOccupied(nextX, nextY)) {
+                    continue;
+                }
+                if (neighbours) {
+                    moved += countNeighbours(nextX, nextY);
+                }
+                index.release(x, y);
+                index.occupy(nextX, nextY);
+                x = nextX;
+                y = nextY;
+                moved++;
+            }
+            xs[rover] = x;
+            ys[rover] = y;
+        }
+        return moved;
+    }
+
+    private int countNeighbours(int x, int y) {
+        int count = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                count += index.isOccupied(x + dx, y + dy) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+}
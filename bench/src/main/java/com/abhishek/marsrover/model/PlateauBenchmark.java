@@ -0,0 +1,115 @@
+package com.abhishek.marsrover.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.data.Position;
+
+/*
+ * Benchmark of the availability checks and updates of a plateau holding
+ * a fleet of rovers, one rover for four cells. Every fleet size is far
+ * below the dense bitset limit of Plateau.MAX_DENSE_CELLS, which only a
+ * fleet of 2^26 rovers would reach, so the hash index used past that
+ * limit is given to the plateau explicitly, as a second parameter.
+ * Checks and moves are spread over the whole plateau, so that larger
+ * fleets also measure cache misses. Run with -prof gc: updates should
+ * not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlateauBenchmark {
+
+    /*
+     * Number of checked positions and of moving rovers, a power of two.
+     */
+    private static final int SAMPLES = 1 << 12;
+
+    @Param({"1000", "100000", "10000000"})
+    public int fleetSize;
+
+    /*
+     * Index of unavailable positions: the default bitset, or a hash index.
+     */
+    @Param({"bitset", "hash"})
+    public String index;
+
+    private Plateau plateau;
+
+    /*
+     * Positions checked for availability.
+     */
+    private long[] probes;
+
+    /*
+     * Rovers which move back and forth, and the free cell next to each.
+     */
+    private long[] starts;
+    private long[] targets;
+
+    private int next;
+
+    @Setup
+    public void createPlateau() {
+        int side = (int) Math.sqrt(fleetSize * 4L);
+        OccupancyIndex occupancy = index.equals("hash") ? new HashOccupancyIndex(fleetSize) : null;
+        plateau = new Plateau(new Position(0, 0), new Position(side - 1, side - 1), occupancy);
+        Random random = new Random(42);
+        long[] rovers = new long[fleetSize];
+        int count = 0;
+        while (count < fleetSize) {
+            long position = Position.pack(random.nextInt(side), random.nextInt(side));
+            if (plateau.isPositionAvailable(position)) {
+                plateau.addUnavailablePosition(position);
+                rovers[count++] = position;
+            }
+        }
+        probes = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            probes[i] = Position.pack(random.nextInt(side), random.nextInt(side));
+        }
+        starts = new long[SAMPLES];
+        targets = new long[SAMPLES];
+        int moving = 0;
+        while (moving < SAMPLES) {
+            long start = rovers[random.nextInt(fleetSize)];
+            long target = Position.pack(Position.x(start), Position.y(start) + 1);
+            if (plateau.isPositionReachable(target) && plateau.isPositionAvailable(target)) {
+                starts[moving] = start;
+                targets[moving] = target;
+                moving++;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isPositionAvailable() {
+        return plateau.isPositionAvailable(probes[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public Plateau updateUnavailablePosition() {
+        // a rover moves one step north and back, so the plateau is unchanged.
+        int rover = next++ & (SAMPLES - 1);
+        plateau.updateUnavailablePosition(starts[rover], targets[rover]);
+        plateau.updateUnavailablePosition(targets[rover], starts[rover]);
+        return plateau;
+    }
+}
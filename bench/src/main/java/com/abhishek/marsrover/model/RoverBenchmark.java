@@ -0,0 +1,73 @@
+package com.abhishek.marsrover.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+
+/*
+ * Benchmark of Rover#execute, reported per command, and of the turns
+ * of a direction. The rover drives a closed square, so every
+ * invocation starts from the same state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoverBenchmark {
+
+    /*
+     * One lap around a 4 x 4 square, ending at the start heading north.
+     */
+    private static final String LAP = "MMMMRMMMMRMMMMRMMMMR";
+
+    private static final int LAP_LENGTH = 20;
+
+    private Rover rover;
+
+    private char[] commands;
+
+    private Direction direction;
+
+    @Setup
+    public void setup() {
+        rover = new Rover(new Position(10, 10), Direction.N);
+        commands = LAP.toCharArray();
+        direction = Direction.N;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LAP_LENGTH)
+    public Rover execute() throws Exception {
+        for (char command : commands) {
+            rover.execute(command);
+        }
+        return rover;
+    }
+
+    @Benchmark
+    public Direction turnLeft() {
+        direction = direction.turnLeft();
+        return direction;
+    }
+
+    @Benchmark
+    public Direction turnRight() {
+        direction = direction.turnRight();
+        return direction;
+    }
+}
@@ -0,0 +1,104 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.simulator.MarsRoverSimulator;
+
+/*
+ * Benchmark of parsing a mission file into the simulator, comparing
+ * the BufferedReader and String.split path of initialize with the
+ * memory mapped byte parser, sequential and parallel, and with
+ * loading the same mission converted to the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"100000"})
+    public int rovers;
+
+    private File file;
+
+    private File binaryFile;
+
+    private PrintStream output;
+
+    @Setup
+    public void setup() throws Exception {
+        file = File.createTempFile("mission", ".dat");
+        Random random = new Random(42);
+        int side = (int) Math.sqrt(rovers) * 4;
+        try (PrintWriter writer = new PrintWriter(file, "US-ASCII")) {
+            writer.println(side + " " + side);
+            for (int i = 0; i < rovers; i++) {
+                // rovers fill every fourth row, so no two start at the same position.
+                writer.println((i % side) + " " + (i / side * 4) + " " + "NESW".charAt(random.nextInt(4)));
+                writer.println("LMRMLMRM");
+            }
+        }
+        binaryFile = File.createTempFile("mission", ".bin");
+        MissionConverter.toBinary(file.toPath(), binaryFile.toPath());
+        output = new PrintStream(new ByteArrayOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+        binaryFile.delete();
+    }
+
+    @Benchmark
+    public MarsRoverSimulator readerAndSplit() throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)))) {
+            MarsRoverSimulator simulator = new MarsRoverSimulator(reader, output);
+            simulator.initialize();
+            return simulator;
+        }
+    }
+
+    @Benchmark
+    public MarsRoverSimulator mappedBytes() throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, output);
+        new MappedMissionParser(file.toPath()).parse(simulator);
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator parallelMappedBytes() throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, output);
+        new ParallelMissionParser(file.toPath()).parse(simulator);
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator binaryTapes() throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, output);
+        new BinaryMissionReader(binaryFile.toPath()).parse(simulator);
+        return simulator;
+    }
+}
@@ -0,0 +1,90 @@
+package com.abhishek.marsrover.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.model.Fleet;
+import com.abhishek.marsrover.parser.MappedMissionParser;
+
+/*
+ * Benchmark of loading and executing a large fleet, kept as Rover
+ * objects in the map of the simulator, or as columns of a Fleet on
+ * the heap and off the heap. Every rover walks a square around its
+ * start, so rovers never meet. Run with -prof gc to compare the
+ * allocations and collections of each layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class FleetBenchmark {
+
+    @Param({"1000000"})
+    public int rovers;
+
+    private ByteBuffer mission;
+
+    @Setup
+    public void createMission() {
+        Random random = new Random(42);
+        int perRow = (int) Math.sqrt(rovers) + 1;
+        int side = perRow * 4;
+        StringBuilder text = new StringBuilder(side + " " + side + "\n");
+        for (int i = 0; i < rovers; i++) {
+            // a rover at the corner of its 4x4 block walks a square inside it.
+            text.append((i % perRow) * 4).append(' ').append((i / perRow) * 4).append(" N\n");
+            int laps = 1 + random.nextInt(4);
+            for (int j = 0; j < laps; j++) {
+                text.append("MMRMMRMMRMMR");
+            }
+            text.append('\n');
+        }
+        mission = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public MarsRoverSimulator roverObjects() throws Exception {
+        MarsRoverSimulator simulator = createSimulator(null);
+        simulator.processRoverCommands();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator heapFleet() throws Exception {
+        MarsRoverSimulator simulator = createSimulator(new Fleet(rovers, false));
+        simulator.processFleetCommands();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator offHeapFleet() throws Exception {
+        MarsRoverSimulator simulator = createSimulator(new Fleet(rovers, true));
+        simulator.processFleetCommands();
+        return simulator;
+    }
+
+    private MarsRoverSimulator createSimulator(Fleet fleet) throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, new PrintStream(new ByteArrayOutputStream()));
+        simulator.setFleet(fleet);
+        MappedMissionParser.parse(mission.duplicate(), simulator);
+        return simulator;
+    }
+}
@@ -0,0 +1,76 @@
+package com.abhishek.marsrover.simulator;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.generator.MissionGenerator;
+import com.abhishek.marsrover.parser.TextMissionWriter;
+
+/*
+ * Benchmark of a whole mission read from text: parsing in initialize
+ * alone, and initialize followed by processRoverCommands. The cost of
+ * execution is the difference of the two. Missions are made by the
+ * MissionGenerator, with a rover for 16 positions walking inside its own
+ * block, so that rovers never meet and never fall.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MissionBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rovers;
+
+    @Param({"24"})
+    public int commands;
+
+    private String mission;
+
+    private PrintStream output;
+
+    @Setup
+    public void createMission() throws Exception {
+        int side = (int) Math.sqrt(rovers) * 4;
+        MissionGenerator generator = new MissionGenerator.Builder().plateau(side - 1, side - 1).rovers(rovers)
+            .commandLength(commands, commands).build();
+        StringWriter text = new StringWriter();
+        try (TextMissionWriter writer = new TextMissionWriter(text)) {
+            generator.generate(writer);
+        }
+        mission = text.toString();
+        output = new PrintStream(new ByteArrayOutputStream());
+    }
+
+    @Benchmark
+    public MarsRoverSimulator initialize() throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)), output);
+        simulator.initialize();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator processRoverCommands() throws Exception {
+        MarsRoverSimulator simulator = initialize();
+        simulator.processRoverCommands();
+        return simulator;
+    }
+}
@@ -0,0 +1,67 @@
+package com.abhishek.marsrover.simulator;
+
+import java.io.BufferedReader;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Benchmark of the per-command move path of the simulator.
+ * The rover drives a closed square, so every invocation starts from
+ * the same state. Run with "-prof gc": gc.alloc.rate.norm is reported
+ * per command and should stay at 0 bytes in steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveAllocationBenchmark {
+
+    /*
+     * One lap around a 4 x 4 square, ending at the start heading north.
+     */
+    private static final String LAP = "MMMMRMMMMRMMMMRMMMMR";
+
+    private static final int LAP_LENGTH = 20;
+
+    private static final int LAPS = 50;
+
+    private static final int COMMANDS = LAP_LENGTH * LAPS;
+
+    private MarsRoverSimulator simulator;
+
+    @Setup
+    public void setup() throws Exception {
+        StringBuilder commands = new StringBuilder(COMMANDS);
+        for (int i = 0; i < LAPS; i++) {
+            commands.append(LAP);
+        }
+        String mission = "100 100\n" +
+                         "10 10 N\n" + commands + "\n" +
+                         "50 50 E\n" + "LR\n";
+        simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)),
+                                           new PrintStream(System.out));
+        simulator.initialize();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public MarsRoverSimulator processRoverCommands() throws Exception {
+        simulator.processRoverCommands();
+        return simulator;
+    }
+}
@@ -0,0 +1,121 @@
+package com.abhishek.marsrover.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhishek.marsrover.parser.MappedMissionParser;
+
+/*
+ * Benchmark of executing a sparse fleet, sequentially, with rovers
+ * which do not interact executing at the same time in waves,
+ * speculatively, in lockstep ticks, and free running on a thread per
+ * rover. Rovers start on a coarse grid and wander inside their own
+ * block of it, so they never meet.
+ * Compare runs with different numbers of cores, e.g. with taskset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelExecutionBenchmark {
+
+    @Param({"100000"})
+    public int rovers;
+
+    @Param({"200"})
+    public int commands;
+
+    private ByteBuffer mission;
+
+    private MarsRoverSimulator simulator;
+
+    @Setup(Level.Trial)
+    public void createMission() {
+        Random random = new Random(42);
+        int spacing = 16;
+        int perRow = (int) Math.sqrt(rovers) + 1;
+        int side = perRow * spacing;
+        StringBuilder text = new StringBuilder(side + " " + side + "\n");
+        for (int i = 0; i < rovers; i++) {
+            text.append((i % perRow) * spacing + spacing / 2).append(' ')
+                .append((i / perRow) * spacing + spacing / 2).append(' ');
+            // random walk which turns instead of leaving the block of the rover.
+            int x = 0;
+            int y = 0;
+            int direction = random.nextInt(4);
+            text.append("NESW".charAt(direction)).append('\n');
+            for (int j = 0; j < commands; j++) {
+                char command = "LRMM".charAt(random.nextInt(4));
+                int nextX = x + (direction == 1 ? 1 : direction == 3 ? -1 : 0);
+                int nextY = y + (direction == 0 ? 1 : direction == 2 ? -1 : 0);
+                if (command == 'M' && Math.max(Math.abs(nextX), Math.abs(nextY)) > spacing / 2 - 2) {
+                    command = 'R';
+                }
+                if (command == 'M') {
+                    x = nextX;
+                    y = nextY;
+                } else {
+                    direction = (direction + (command == 'R' ? 1 : 3)) % 4;
+                }
+                text.append(command);
+            }
+            text.append('\n');
+        }
+        mission = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Setup(Level.Invocation)
+    public void placeRovers() throws Exception {
+        simulator = new MarsRoverSimulator(null, new PrintStream(new ByteArrayOutputStream()));
+        MappedMissionParser.parse(mission, simulator);
+    }
+
+    @Benchmark
+    public MarsRoverSimulator sequential() throws Exception {
+        simulator.processRoverCommands();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator parallelWaves() throws Exception {
+        simulator.processRoverCommandsInParallel();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator speculative() throws Exception {
+        simulator.processRoverCommandsSpeculatively();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator lockstep() throws Exception {
+        simulator.processRoverCommandsInLockstep();
+        return simulator;
+    }
+
+    @Benchmark
+    public MarsRoverSimulator freeRunning() throws Exception {
+        simulator.processRoverCommandsFreeRunning();
+        return simulator;
+    }
+}
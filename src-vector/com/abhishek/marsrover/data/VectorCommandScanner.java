@@ -0,0 +1,99 @@
+package com.abhishek.marsrover.data;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Command scanner classifying 32 bytes at a time with the Vector API,
+ * one lane per command. Lanes are compared with L, R and M, and a lane
+ * matching none of them stops the scan. Codes are then blended into
+ * the lanes and squeezed, within each long of the vector, from 8 bits
+ * to 2 bits per command; the four longs of 16 bits are joined into the
+ * word by shifting and or-ing them together. Masks are never turned
+ * into bits with toLong, which is not compiled to vector instructions
+ * on every JDK. Bytes after the last whole word are left to the scalar
+ * scanner.
+ *
+ * The Vector API is an incubator module, which must be added at compile
+ * and at run time with --add-modules jdk.incubator.vector. The class is
+ * therefore kept out of src, in the optional source root src-vector which
+ * only the benchmarks or an opt-in build compile, and is only loaded by
+ * name, see CommandTape#getScanner. Vectors of
+ * 256 bits are run in software, far slower than the scalar scanner, on
+ * hardware whose vectors are smaller, e.g. NEON or SSE only, so the
+ * scanner cannot be created there.
+ */
+final class VectorCommandScanner implements CommandScanner {
+
+    /*
+     * 256 bits are 32 byte lanes, the commands of one word.
+     */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_256;
+
+    /*
+     * Shifts placing the 16 bits of each long lane in the word.
+     */
+    private static final LongVector LANE_SHIFTS =
+        LongVector.fromArray(LongVector.SPECIES_256, new long[] {0, 16, 32, 48}, 0);
+
+    private final CommandScanner tailScanner = new ScalarCommandScanner();
+
+    /*
+     * Package private constructor, throws UnsupportedOperationException
+     * when the hardware has no vectors of 256 bits.
+     */
+    VectorCommandScanner() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Preferred vectors have " +
+                                                    ByteVector.SPECIES_PREFERRED.vectorBitSize() +
+                                                    " bits, the scanner needs " + SPECIES.vectorBitSize() + ".");
+        }
+    }
+
+    /*
+     * Static function to check if the hardware has vectors of 256 bits,
+     * which the Vector API then compiles to vector instructions.
+     */
+    static boolean isSupported() {
+        return ByteVector.SPECIES_PREFERRED.vectorBitSize() >= SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public int pack(byte[] bytes, int offset, int length, long[] words, int wordOffset) {
+        int i = 0;
+        for (; i + CommandTape.COMMANDS_PER_WORD <= length; i += CommandTape.COMMANDS_PER_WORD) {
+            ByteVector commands = ByteVector.fromArray(SPECIES, bytes, offset + i);
+            VectorMask<Byte> lefts = commands.eq((byte) 'L');
+            VectorMask<Byte> rights = commands.eq((byte) 'R');
+            VectorMask<Byte> invalid = lefts.or(rights).or(commands.eq((byte) 'M')).not();
+            long word = packCodes(ByteVector.zero(SPECIES)
+                                            .blend((byte) CommandTape.CODE_RIGHT, rights)
+                                            .blend((byte) CommandTape.CODE_LEFT, lefts));
+            int wordIndex = wordOffset + i / CommandTape.COMMANDS_PER_WORD;
+            if (invalid.anyTrue()) {
+                int index = invalid.firstTrue();
+                words[wordIndex] = word & ((1L << (2 * index)) - 1);
+                return i + index;
+            }
+            words[wordIndex] = word;
+        }
+        int index = tailScanner.pack(bytes, offset + i, length - i, words,
+                                     wordOffset + i / CommandTape.COMMANDS_PER_WORD);
+        return index < 0 ? -1 : i + index;
+    }
+
+    /*
+     * Private function to pack 32 lanes of 2 bit codes into a word,
+     * lane i to bits 2i and 2i + 1.
+     */
+    private static long packCodes(ByteVector codes) {
+        LongVector bits = codes.reinterpretAsLongs();
+        bits = bits.or(bits.lanewise(VectorOperators.LSHR, 6)).and(0x000F000F000F000FL);
+        bits = bits.or(bits.lanewise(VectorOperators.LSHR, 12)).and(0x000000FF000000FFL);
+        bits = bits.or(bits.lanewise(VectorOperators.LSHR, 24)).and(0xFFFFL);
+        return bits.lanewise(VectorOperators.LSHL, LANE_SHIFTS).reduceLanes(VectorOperators.OR);
+    }
+}
@@ -0,0 +1,17 @@
+package com.abhishek.marsrover.data;
+
+/*
+ * Interface to represent a scanner packing command bytes into the words
+ * of a CommandTape, checking that every byte is L, R or M on the way.
+ */
+public interface CommandScanner {
+
+    /*
+     * Function to pack a range of ASCII command bytes, 32 commands per
+     * word, into words starting at wordOffset. Words are overwritten,
+     * and bits after the last packed command are zero.
+     * Packing stops at the first byte which is not a command, and its
+     * index in the range is returned, or -1 when every byte is a command.
+     */
+    int pack(byte[] bytes, int offset, int length, long[] words, int wordOffset);
+}
@@ -0,0 +1,309 @@
+package com.abhishek.marsrover.data;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Class to hold a command line packed two bits per command,
+ * thirty two commands in each long word.
+ * The code of a command is the number of quarter turns to the right
+ * it makes: M is 0, R is 1 and L is 3. So a run of moves is a run of
+ * zero bits, and a word can be decoded with bit operations instead
+ * of one character at a time.
+ *
+ * Only the commands before the first invalid command are packed.
+ * The invalid command is kept aside as the last character of the tape,
+ * since execution stops there and the commands after it are never read.
+ */
+public final class CommandTape implements CharSequence {
+
+    /*
+     * Codes of the commands.
+     */
+    public static final int CODE_MOVE = 0;
+    public static final int CODE_RIGHT = 1;
+    public static final int CODE_LEFT = 3;
+
+    /*
+     * Number of commands in a word.
+     */
+    public static final int COMMANDS_PER_WORD = 32;
+
+    private static final CommandTape EMPTY = new CommandTape(new long[0], 0, false, '\0');
+
+    /*
+     * Number of bytes copied at a time from buffers without an array,
+     * a whole number of words.
+     */
+    private static final int CHUNK_BYTES = 128 * COMMANDS_PER_WORD;
+
+    /*
+     * Scanner packing command bytes, and a chunk of bytes per thread.
+     */
+    private static final CommandScanner SCANNER = loadScanner();
+    private static final ThreadLocal<byte[]> CHUNKS = ThreadLocal.withInitial(() -> new byte[CHUNK_BYTES]);
+
+    /*
+     * Packed commands, first command in the lowest bits of the first word.
+     */
+    private final long[] words;
+
+    /*
+     * Number of valid commands packed in words.
+     */
+    private final int commandCount;
+
+    /*
+     * Whether the command line has an invalid command, and the first one.
+     */
+    private final boolean error;
+    private final char errorCommand;
+
+    /*
+     * Hash of the command line, computed on first use.
+     */
+    private int hash;
+
+    /*
+     * Private constructor, tapes are created by of.
+     */
+    private CommandTape(long[] words, int commandCount, boolean error, char errorCommand) {
+        this.words = words;
+        this.commandCount = commandCount;
+        this.error = error;
+        this.errorCommand = errorCommand;
+    }
+
+    /*
+     * Static function to pack a command line into a tape.
+     */
+    public static CommandTape of(CharSequence commands) {
+        if (commands instanceof CommandTape) {
+            return (CommandTape) commands;
+        }
+        int length = commands.length();
+        if (length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(length + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD];
+        for (int i = 0; i < length; i++) {
+            char command = commands.charAt(i);
+            int code;
+            switch (command) {
+            case 'M':
+                continue;
+            case 'R':
+                code = CODE_RIGHT;
+                break;
+            case 'L':
+                code = CODE_LEFT;
+                break;
+            default:
+                // words after the invalid command are never used.
+                words = Arrays.copyOf(words, (i + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD);
+                return new CommandTape(words, i, true, command);
+            }
+            words[i / COMMANDS_PER_WORD] |= (long) code << (2 * (i % COMMANDS_PER_WORD));
+        }
+        return new CommandTape(words, length, false, '\0');
+    }
+
+    /*
+     * Static function to pack a range of ASCII command bytes into a tape,
+     * as of(CharSequence), but many bytes at a time with the scanner
+     * returned by getScanner. The buffer position is not changed.
+     */
+    public static CommandTape of(ByteBuffer buffer, int offset, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(length + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD];
+        int errorIndex = -1;
+        if (buffer.hasArray()) {
+            errorIndex = SCANNER.pack(buffer.array(), buffer.arrayOffset() + offset, length, words, 0);
+        } else {
+            byte[] chunk = CHUNKS.get();
+            for (int start = 0; start < length && errorIndex < 0; start += CHUNK_BYTES) {
+                int count = Math.min(CHUNK_BYTES, length - start);
+                buffer.get(offset + start, chunk, 0, count);
+                int index = SCANNER.pack(chunk, 0, count, words, start / COMMANDS_PER_WORD);
+                errorIndex = index < 0 ? -1 : start + index;
+            }
+        }
+        if (errorIndex >= 0) {
+            // words after the invalid command are never used.
+            words = Arrays.copyOf(words, (errorIndex + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD);
+            return new CommandTape(words, errorIndex, true, (char) (buffer.get(offset + errorIndex) & 0xFF));
+        }
+        return new CommandTape(words, length, false, '\0');
+    }
+
+    /*
+     * Static function to get the scanner packing command bytes: the one
+     * using the Vector API when it was compiled from src-vector, its module
+     * was added to the JVM with --add-modules jdk.incubator.vector and the
+     * hardware has vectors of 256 bits, otherwise a scalar one.
+     */
+    public static CommandScanner getScanner() {
+        return SCANNER;
+    }
+
+    /*
+     * Static function to create a tape from packed words, as returned
+     * by getWord. Words are not copied. Bits after the last command
+     * must be zero, and code 2 is not a command.
+     */
+    public static CommandTape fromWords(long[] words, int commandCount, boolean error, char errorCommand) {
+        if (commandCount < 0 || words.length < (commandCount + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD) {
+            throw new IllegalArgumentException("Not enough words for " + commandCount + " commands.");
+        }
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            int used = Math.max(0, Math.min(COMMANDS_PER_WORD, commandCount - i * COMMANDS_PER_WORD));
+            if (used < COMMANDS_PER_WORD && word >>> (2 * used) != 0) {
+                throw new IllegalArgumentException("Bits set after the last command in word " + i + ".");
+            }
+            // code 2 has its high bit set and its low bit clear.
+            if (((word >>> 1) & ~word & 0x5555555555555555L) != 0) {
+                throw new IllegalArgumentException("Invalid command code in word " + i + ".");
+            }
+        }
+        return new CommandTape(words, commandCount, error, error ? errorCommand : '\0');
+    }
+
+    /*
+     * Function to get number of valid commands.
+     */
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    /*
+     * Function to get number of words holding the valid commands.
+     */
+    public int getWordCount() {
+        return (commandCount + COMMANDS_PER_WORD - 1) / COMMANDS_PER_WORD;
+    }
+
+    /*
+     * Function to get a word of packed commands. Bits after the
+     * last valid command are zero.
+     */
+    public long getWord(int index) {
+        if (index >= getWordCount()) {
+            throw new IndexOutOfBoundsException("Word index: " + index + ", count: " + getWordCount());
+        }
+        return words[index];
+    }
+
+    /*
+     * Function to get code of a valid command.
+     */
+    public int getCode(int index) {
+        if (index < 0 || index >= commandCount) {
+            throw new IndexOutOfBoundsException("index: " + index + ", count: " + commandCount);
+        }
+        return (int) (words[index / COMMANDS_PER_WORD] >>> (2 * (index % COMMANDS_PER_WORD))) & 3;
+    }
+
+    /*
+     * Function to check if the command line contains an invalid command.
+     */
+    public boolean hasError() {
+        return error;
+    }
+
+    /*
+     * Function to get the first invalid command.
+     */
+    public char getErrorCommand() {
+        return errorCommand;
+    }
+
+    /*
+     * Function to get length, counting the invalid command.
+     */
+    @Override
+    public int length() {
+        return hasError() ? commandCount + 1 : commandCount;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index == commandCount && hasError()) {
+            return errorCommand;
+        }
+        switch (getCode(index)) {
+        case CODE_MOVE:
+            return 'M';
+        case CODE_RIGHT:
+            return 'R';
+        default:
+            return 'L';
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length()) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length());
+        }
+        return of(toString().substring(start, end));
+    }
+
+    /*
+     * Function to get hash, which is the same as the hash
+     * of the command line as a String.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            int length = length();
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + charAt(i);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CommandTape)) {
+            return false;
+        }
+        CommandTape other = (CommandTape) o;
+        if (commandCount != other.commandCount || error != other.error || errorCommand != other.errorCommand) {
+            return false;
+        }
+        int wordCount = getWordCount();
+        return Arrays.equals(words, 0, wordCount, other.words, 0, wordCount);
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(this).toString();
+    }
+
+    /*
+     * Private function to load the scanner using the Vector API, which
+     * fails when it was not compiled, when its module is missing or when
+     * the hardware has no vectors of 256 bits, or else the scalar scanner.
+     */
+    private static CommandScanner loadScanner() {
+        try {
+            Class<?> type = Class.forName("com.abhishek.marsrover.data.VectorCommandScanner");
+            CommandScanner scanner = (CommandScanner) type.getDeclaredConstructor().newInstance();
+            // vector classes are only resolved once used.
+            scanner.pack(new byte[COMMANDS_PER_WORD], 0, COMMANDS_PER_WORD, new long[1], 0);
+            return scanner;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // a constructor which throws is reported as InvocationTargetException.
+            return new ScalarCommandScanner();
+        }
+    }
+}
@@ -48,10 +48,12 @@ public class Coordinate implements Comparable<Coordinate> {
     /*
      * Function to compare this object with another Coordinate.
      * See java.lang.Comparable#compareTo(java.lang.Object)
+     * Values are compared rather than subtracted, which would overflow
+     * for coordinates far apart.
      */
     @Override
     public int compareTo(Coordinate o) {
-        return this.value - o.getValue();
+        return Integer.compare(this.value, o.getValue());
     }
 
     /*
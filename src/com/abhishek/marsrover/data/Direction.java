@@ -14,6 +14,12 @@ public enum Direction {
     S(2),
     W(3);
 
+    /*
+     * Directions in clockwise order. values() clones its array on
+     * every call, so turns look up this shared copy instead.
+     */
+    private static final Direction[] CLOCKWISE = values();
+
     /*
      * Represent the numeric value of a direction.
      * NORTH: 0, EAST: 1, SOUTH: 2, WEST: 3
@@ -28,14 +34,29 @@ public enum Direction {
      * Function to turn left from the current direction.
      */
     public Direction turnLeft() {
-        return values()[(this.value + 3) % 4];
+        return CLOCKWISE[(this.value + 3) % 4];
     }
 
     /*
      * Function to turn right from the current direction.
      */
     public Direction turnRight() {
-        return values()[(this.value + 1) % 4];
+        return CLOCKWISE[(this.value + 1) % 4];
+    }
+
+    /*
+     * Function to turn right a number of quarter turns.
+     * Negative values turn left.
+     */
+    public Direction rotate(int quarterTurns) {
+        return CLOCKWISE[(this.value + quarterTurns) & 3];
+    }
+
+    /*
+     * A static function to return direction from its numeric value.
+     */
+    public static Direction getDirectionFromValue(int value) {
+        return CLOCKWISE[value];
     }
 
     /*
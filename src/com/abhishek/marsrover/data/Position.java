@@ -4,71 +4,144 @@ import com.abhishek.marsrover.exceptions.InvalidInputException;
 
 /*
  * Class to represent one position (square) on the plateau.
+ * Position is an immutable value. X and y values are packed into
+ * a single long, x in the high 32 bits and y in the low 32 bits,
+ * so that hot paths can work on the packed value directly
+ * without allocating Position or Coordinate objects.
  */
-public class Position {
+public final class Position {
 
     /*
-     * X Coordinate.
+     * X and Y values packed into one long.
      */
-    private Coordinate x;
+    private final long value;
 
     /*
-     * Y Coordinate.
+     * Constructor.
      */
-    private Coordinate y;
+    public Position(Coordinate x, Coordinate y) {
+        this(x.getValue(), y.getValue());
+    }
 
     /*
-     * Constructor.
+     * Constructor from integer values of coordinates.
      */
-    public Position(Coordinate x, Coordinate y) {
-        this.x = x;
-        this.y = y;
+    public Position(int x, int y) {
+        this.value = pack(x, y);
     }
 
     /*
-     * Function to get integer value of X Coordinate.
+     * Constructor from packed value.
+     */
+    public Position(long value) {
+        this.value = value;
+    }
+
+    /*
+     * Function to get X Coordinate.
      */
     public Coordinate getXCoordinate() {
-        return x;
+        return new Coordinate(getX());
     }
 
     /*
-     * Function to get integer value of Y Coordinate.
+     * Function to get Y Coordinate.
      */
     public Coordinate getYCoordinate() {
-        return y;
+        return new Coordinate(getY());
+    }
+
+    /*
+     * Function to get integer value of X Coordinate.
+     */
+    public int getX() {
+        return x(value);
+    }
+
+    /*
+     * Function to get integer value of Y Coordinate.
+     */
+    public int getY() {
+        return y(value);
+    }
+
+    /*
+     * Function to get packed value of this position.
+     */
+    public long getValue() {
+        return value;
     }
 
     /*
-     * Function to move in a given direction.
+     * Function to get the position after moving in a given direction.
      * Depending upon the direction, x or y coordinate changes.
      */
-    public void move(Direction direction) throws InvalidInputException {
+    public Position move(Direction direction) throws InvalidInputException {
+        return new Position(move(value, direction));
+    }
+
+    /*
+     * Static function to pack x and y values into one long.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /*
+     * Static function to get x value from a packed position.
+     */
+    public static int x(long position) {
+        return (int) (position >> 32);
+    }
+
+    /*
+     * Static function to get y value from a packed position.
+     */
+    public static int y(long position) {
+        return (int) position;
+    }
+
+    /*
+     * Static function to move a packed position in a given direction.
+     */
+    public static long move(long position, Direction direction) throws InvalidInputException {
+        return move(position, direction, 1);
+    }
+
+    /*
+     * Static function to move a packed position a number of steps
+     * in a given direction.
+     */
+    public static long move(long position, Direction direction, int steps)
+        throws InvalidInputException
+    {
         if (direction == null) {
             throw new InvalidInputException("direction of rover is invalid.");
         }
-    	switch(direction) {
+        int x = x(position);
+        int y = y(position);
+        switch(direction) {
         case N:
-            y.up();
+            y += steps;
             break;
         case E:
-            x.up();
+            x += steps;
             break;
         case S:
-        	y.down();
+            y -= steps;
             break;
         case W:
-        	x.down();
+            x -= steps;
             break;
         }
+        return pack(x, y);
     }
 
     /*
-     * Function to clone a new Position from this object.
+     * Static function to stringify a packed position.
      */
-    public Position clone() {
-        // deep copy
-    	return new Position(x.clone(), y.clone());
+    public static String toString(long position) {
+        return x(position) + " " + y(position);
     }
 
     /*
@@ -80,14 +153,22 @@ public class Position {
     @Override
     public boolean equals(Object o) {
         if (o instanceof Position) {
-            return x.equals(((Position) o).getXCoordinate()) && 
-                   y.equals(((Position) o).getYCoordinate());
+            return value == ((Position) o).value;
         }
         return false;
     }
 
+    /*
+     * Function to get hash code consistent with equals.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * getX() + getY();
+    }
+
     @Override
     public String toString() {
-        return x + " " + y;
+        return toString(value);
     }
 }
@@ -0,0 +1,40 @@
+package com.abhishek.marsrover.data;
+
+import java.util.Arrays;
+
+/*
+ * Command scanner reading one byte at a time, through a table of the
+ * codes of every byte value instead of a switch on the command.
+ */
+public class ScalarCommandScanner implements CommandScanner {
+
+    /*
+     * Code of each byte value, or -1 for bytes which are not commands.
+     */
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['M'] = CommandTape.CODE_MOVE;
+        CODES['R'] = CommandTape.CODE_RIGHT;
+        CODES['L'] = CommandTape.CODE_LEFT;
+    }
+
+    @Override
+    public int pack(byte[] bytes, int offset, int length, long[] words, int wordOffset) {
+        for (int i = 0; i < length; i += CommandTape.COMMANDS_PER_WORD) {
+            int count = Math.min(CommandTape.COMMANDS_PER_WORD, length - i);
+            long word = 0;
+            for (int j = 0; j < count; j++) {
+                int code = CODES[bytes[offset + i + j] & 0xFF];
+                if (code < 0) {
+                    words[wordOffset + i / CommandTape.COMMANDS_PER_WORD] = word;
+                    return i + j;
+                }
+                word |= (long) code << (2 * j);
+            }
+            words[wordOffset + i / CommandTape.COMMANDS_PER_WORD] = word;
+        }
+        return -1;
+    }
+}
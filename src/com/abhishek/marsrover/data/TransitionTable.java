@@ -0,0 +1,106 @@
+package com.abhishek.marsrover.data;
+
+import java.util.Arrays;
+
+/*
+ * Class to hold the state machine of a rover as precomputed tables.
+ * A transition is looked up by heading and command, and gives in one
+ * int the heading after the command and the step it makes along x and
+ * y, so that a rover is driven without switching on the command and
+ * then on the direction. Headings are the ordinals of Direction.
+ *
+ * Commands are looked up either as bytes of a command line, where
+ * every byte other than L, R and M leads to the ERROR transition, or
+ * as the codes of a CommandTape.
+ *
+ * A transition packs the heading in bits 0-1, and the steps along x
+ * and y plus one in bits 2-3 and 4-5.
+ */
+public final class TransitionTable {
+
+    /*
+     * Transition of an invalid command.
+     */
+    public static final int ERROR = -1;
+
+    /*
+     * Transitions by heading and command byte, and by heading and code.
+     */
+    private static final int[] BY_BYTE = new int[4 * 256];
+    private static final int[] BY_CODE = new int[4 * 4];
+
+    static {
+        Arrays.fill(BY_BYTE, ERROR);
+        Arrays.fill(BY_CODE, ERROR);
+        int[] stepsX = {0, 1, 0, -1};
+        int[] stepsY = {1, 0, -1, 0};
+        for (int heading = 0; heading < 4; heading++) {
+            int move = createTransition(heading, stepsX[heading], stepsY[heading]);
+            int right = createTransition((heading + 1) & 3, 0, 0);
+            int left = createTransition((heading + 3) & 3, 0, 0);
+            BY_BYTE[heading << 8 | 'M'] = move;
+            BY_BYTE[heading << 8 | 'R'] = right;
+            BY_BYTE[heading << 8 | 'L'] = left;
+            BY_CODE[heading << 2 | CommandTape.CODE_MOVE] = move;
+            BY_CODE[heading << 2 | CommandTape.CODE_RIGHT] = right;
+            BY_CODE[heading << 2 | CommandTape.CODE_LEFT] = left;
+        }
+    }
+
+    /*
+     * Private constructor, the class only has static functions.
+     */
+    private TransitionTable() {
+    }
+
+    /*
+     * Static function to get the transition of a command, or ERROR.
+     */
+    public static int forCommand(int heading, char command) {
+        if (command > 0xFF) {
+            return ERROR;
+        }
+        return BY_BYTE[heading << 8 | command];
+    }
+
+    /*
+     * Static function to get the transition of a command given by its
+     * code in a CommandTape, or ERROR for code 2.
+     */
+    public static int forCode(int heading, int code) {
+        return BY_CODE[heading << 2 | code];
+    }
+
+    /*
+     * Static function to check if a transition is the error state.
+     */
+    public static boolean isError(int transition) {
+        return transition < 0;
+    }
+
+    /*
+     * Static functions to read a transition which is not an error.
+     */
+    public static int getHeading(int transition) {
+        return transition & 3;
+    }
+
+    public static int getStepX(int transition) {
+        return ((transition >>> 2) & 3) - 1;
+    }
+
+    public static int getStepY(int transition) {
+        return ((transition >>> 4) & 3) - 1;
+    }
+
+    /*
+     * Static function to check if a transition moves the rover.
+     */
+    public static boolean isMove(int transition) {
+        return (transition & 0x3C) != 0x14;
+    }
+
+    private static int createTransition(int heading, int stepX, int stepY) {
+        return heading | (stepX + 1) << 2 | (stepY + 1) << 4;
+    }
+}
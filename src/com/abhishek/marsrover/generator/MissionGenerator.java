@@ -0,0 +1,470 @@
+package com.abhishek.marsrover.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.parser.BinaryMissionWriter;
+import com.abhishek.marsrover.parser.MissionHandler;
+import com.abhishek.marsrover.parser.TextMissionWriter;
+
+/*
+ * Class to generate synthetic missions, for tests and benchmarks at scale.
+ * A mission is reported to a MissionHandler rover by rover, as a parser
+ * does, so it can be written to a file with TextMissionWriter or
+ * BinaryMissionWriter, or fed straight into the simulator. Only the
+ * command line of the current rover and a pool of repeated programs are
+ * held in memory, so missions of many GB can be streamed.
+ *
+ * The same settings and seed always give the same mission.
+ *
+ * The plateau is split into square blocks, and each rover starts in its
+ * own block, so that no two rovers start at the same position. Unless
+ * collisions and falls are both allowed, a rover only walks inside its
+ * block: a move which would leave the block is replaced by a turn. Rovers
+ * then never meet and never fall. A guaranteed collision is made by one
+ * rover driving to the start of the next rover after its walk, and a
+ * guaranteed fall by a rover of the bottom row of blocks driving south
+ * off the plateau. The simulator stops at the first failure, so
+ * collisions and falls cannot both be guaranteed.
+ */
+public class MissionGenerator {
+
+    /*
+     * Whether collisions, or falls, may happen in a mission.
+     * ALLOWED leaves it to chance, FORBIDDEN makes sure none happens,
+     * and GUARANTEED makes sure the mission fails with one.
+     */
+    public enum Occurrence {
+        ALLOWED, FORBIDDEN, GUARANTEED
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /*
+     * Step of a move for each heading, as the ordinal of its direction.
+     */
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {1, 0, -1, 0};
+
+    private final long seed;
+    private final int maxX;
+    private final int maxY;
+    private final int roverCount;
+    private final int minLength;
+    private final int maxLength;
+    private final int moveWeight;
+    private final int leftWeight;
+    private final int rightWeight;
+    private final double repeatedShare;
+    private final int programPoolSize;
+    private final Occurrence collisions;
+    private final Occurrence falls;
+
+    /*
+     * Side of the block of each rover, and number of blocks in a row.
+     */
+    private final int blockSide;
+    private final long blocksPerRow;
+
+    /*
+     * Private constructor, generators are created by a Builder.
+     */
+    private MissionGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.maxX = builder.maxX;
+        this.maxY = builder.maxY;
+        this.minLength = builder.minLength;
+        this.maxLength = builder.maxLength;
+        this.moveWeight = builder.moveWeight;
+        this.leftWeight = builder.leftWeight;
+        this.rightWeight = builder.rightWeight;
+        this.repeatedShare = builder.repeatedShare;
+        this.programPoolSize = builder.programPoolSize;
+        this.collisions = builder.collisions;
+        this.falls = builder.falls;
+
+        long width = (long) maxX + 1;
+        long height = (long) maxY + 1;
+        long rovers = builder.density >= 0 ? Math.max(1, Math.round(width * height * builder.density))
+                                           : builder.roverCount;
+        if (rovers > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many rovers for the density: " + rovers);
+        }
+        this.roverCount = (int) rovers;
+        // largest blocks which give every rover its own block.
+        long side = Math.min((long) Math.sqrt((double) width * height / roverCount), Math.min(width, height));
+        while (side > 0 && (width / side) * (height / side) < roverCount) {
+            side--;
+        }
+        if (side == 0) {
+            throw new IllegalArgumentException("More rovers than positions on the plateau: " + roverCount);
+        }
+        this.blockSide = (int) Math.min(side, Integer.MAX_VALUE);
+        this.blocksPerRow = width / blockSide;
+        if (collisions == Occurrence.GUARANTEED && roverCount < 2) {
+            throw new IllegalArgumentException("A collision needs at least two rovers.");
+        }
+    }
+
+    /*
+     * Public function to generate the mission and report it to a handler.
+     */
+    public void generate(MissionHandler handler) throws InvalidInputException,
+        RoverCollisionException, RoverFallAndCrashException
+    {
+        SplittableRandom random = new SplittableRandom(seed);
+        // placements are drawn one rover ahead, so that a rover can drive to the next one.
+        SplittableRandom placementRandom = random.split();
+        SplittableRandom commandRandom = random.split();
+        boolean confined = collisions != Occurrence.ALLOWED || falls != Occurrence.ALLOWED;
+        String[] pool = new String[programPoolSize];
+        int[][] poolStarts = new int[programPoolSize][];
+        for (int i = 0; i < programPoolSize; i++) {
+            poolStarts[i] = new int[] {random.nextInt(blockSide), random.nextInt(blockSide), random.nextInt(4)};
+            StringBuilder program = new StringBuilder();
+            walk(random, poolStarts[i].clone(), confined, program);
+            pool[i] = program.toString();
+        }
+        int collider = collisions == Occurrence.GUARANTEED ? random.nextInt(roverCount - 1) : -1;
+        int faller = falls == Occurrence.GUARANTEED ? random.nextInt((int) Math.min(roverCount, blocksPerRow)) : -1;
+
+        handler.onPlateau(maxX, maxY);
+        StringBuilder line = new StringBuilder();
+        int[] next = place(placementRandom, poolStarts);
+        for (int rover = 0; rover < roverCount; rover++) {
+            // placement is x and y in the block, heading, and index of program in pool or -1.
+            int[] placement = next;
+            next = rover + 1 < roverCount ? place(placementRandom, poolStarts) : null;
+            int[] walker = {placement[0], placement[1], placement[2]};
+            line.setLength(0);
+            if (placement[3] >= 0) {
+                line.append(pool[placement[3]]);
+                walkAlong(walker, pool[placement[3]]);
+            } else {
+                walk(commandRandom, walker, confined, line);
+            }
+
+            long originX = (rover % blocksPerRow) * blockSide;
+            long originY = (rover / blocksPerRow) * blockSide;
+            if (rover == collider) {
+                long nextOriginX = ((rover + 1) % blocksPerRow) * blockSide;
+                long nextOriginY = ((rover + 1) / blocksPerRow) * blockSide;
+                driveTo(walker, nextOriginX + next[0] - originX, nextOriginY + next[1] - originY, line);
+            } else if (rover == faller) {
+                // the block is in the bottom row, nothing is between the rover and the edge.
+                driveTo(walker, walker[0], -1, line);
+            }
+            handler.onRover(rover + 1, (int) (originX + placement[0]), (int) (originY + placement[1]),
+                            DIRECTIONS[placement[2]], line);
+        }
+    }
+
+    /*
+     * Function to get number of rovers of the mission.
+     */
+    public int getRoverCount() {
+        return roverCount;
+    }
+
+    /*
+     * Function to get side of the block in which each rover starts.
+     */
+    public int getBlockSide() {
+        return blockSide;
+    }
+
+    /*
+     * Private function to draw the placement of a rover in its block:
+     * x, y, heading, and the index of its program in the pool, or -1
+     * when it gets its own program.
+     */
+    private int[] place(SplittableRandom random, int[][] poolStarts) {
+        if (programPoolSize > 0 && random.nextDouble() < repeatedShare) {
+            int program = random.nextInt(programPoolSize);
+            int[] start = poolStarts[program];
+            return new int[] {start[0], start[1], start[2], program};
+        }
+        return new int[] {random.nextInt(blockSide), random.nextInt(blockSide), random.nextInt(4), -1};
+    }
+
+    /*
+     * Private function to append a random program to a line, drawn from
+     * the command mix. The walker holds x and y in the block and heading,
+     * and is moved along. When confined, the walker never leaves its block.
+     */
+    private void walk(SplittableRandom random, int[] walker, boolean confined, StringBuilder line) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        int totalWeight = moveWeight + leftWeight + rightWeight;
+        for (int i = 0; i < length; i++) {
+            int draw = random.nextInt(totalWeight);
+            char command = draw < moveWeight ? 'M' : draw < moveWeight + leftWeight ? 'L' : 'R';
+            if (command == 'M' && confined) {
+                long x = (long) walker[0] + STEP_X[walker[2]];
+                long y = (long) walker[1] + STEP_Y[walker[2]];
+                if (x < 0 || y < 0 || x >= blockSide || y >= blockSide) {
+                    command = random.nextBoolean() ? 'L' : 'R';
+                }
+            }
+            line.append(command);
+            step(walker, command);
+        }
+    }
+
+    /*
+     * Private function to append commands which drive a walker to a
+     * position relative to its block, along x first and then along y.
+     */
+    private static void driveTo(int[] walker, long x, long y, StringBuilder line) {
+        if (x != walker[0]) {
+            turnTo(walker, x > walker[0] ? 1 : 3, line);
+            for (long i = Math.abs(x - walker[0]); i > 0; i--) {
+                line.append('M');
+            }
+        }
+        if (y != walker[1]) {
+            turnTo(walker, y > walker[1] ? 0 : 2, line);
+            for (long i = Math.abs(y - walker[1]); i > 0; i--) {
+                line.append('M');
+            }
+        }
+    }
+
+    /*
+     * Private function to append the turns which bring a walker to a heading.
+     */
+    private static void turnTo(int[] walker, int heading, StringBuilder line) {
+        int quarterTurns = (heading - walker[2]) & 3;
+        line.append(quarterTurns == 3 ? "L" : quarterTurns == 2 ? "RR" : quarterTurns == 1 ? "R" : "");
+        walker[2] = heading;
+    }
+
+    /*
+     * Private function to move a walker along a program.
+     */
+    private static void walkAlong(int[] walker, CharSequence program) {
+        for (int i = 0; i < program.length(); i++) {
+            step(walker, program.charAt(i));
+        }
+    }
+
+    private static void step(int[] walker, char command) {
+        if (command == 'M') {
+            walker[0] += STEP_X[walker[2]];
+            walker[1] += STEP_Y[walker[2]];
+        } else {
+            walker[2] = (walker[2] + (command == 'R' ? 1 : 3)) & 3;
+        }
+    }
+
+    /*
+     * Class to set up a generator. Every setting has a default, which
+     * gives a 100 x 100 plateau with 100 rovers of 10 to 20 commands.
+     */
+    public static final class Builder {
+
+        private long seed = 42;
+        private int maxX = 99;
+        private int maxY = 99;
+        private int roverCount = 100;
+        private double density = -1;
+        private int minLength = 10;
+        private int maxLength = 20;
+        private int moveWeight = 2;
+        private int leftWeight = 1;
+        private int rightWeight = 1;
+        private double repeatedShare;
+        private int programPoolSize = 16;
+        private Occurrence collisions = Occurrence.FORBIDDEN;
+        private Occurrence falls = Occurrence.FORBIDDEN;
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /*
+         * Function to set upper right coordinates of the plateau.
+         */
+        public Builder plateau(int maxX, int maxY) {
+            if (maxX < 0 || maxY < 0) {
+                throw new IllegalArgumentException("Invalid values of upper right coordinates: " +
+                                                   maxX + " " + maxY);
+            }
+            this.maxX = maxX;
+            this.maxY = maxY;
+            return this;
+        }
+
+        /*
+         * Functions to set number of rovers, directly or as the share of
+         * positions of the plateau which start with a rover.
+         */
+        public Builder rovers(int roverCount) {
+            if (roverCount < 1) {
+                throw new IllegalArgumentException("Invalid number of rovers: " + roverCount);
+            }
+            this.roverCount = roverCount;
+            this.density = -1;
+            return this;
+        }
+
+        public Builder density(double density) {
+            if (!(density > 0 && density <= 1)) {
+                throw new IllegalArgumentException("Invalid density of rovers: " + density);
+            }
+            this.density = density;
+            return this;
+        }
+
+        /*
+         * Function to set the range of lengths of command lines.
+         */
+        public Builder commandLength(int minLength, int maxLength) {
+            if (minLength < 0 || maxLength < minLength || maxLength == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid range of command lengths: " +
+                                                   minLength + " ... " + maxLength);
+            }
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /*
+         * Function to set the relative weights of M, L and R commands.
+         */
+        public Builder commandMix(int moveWeight, int leftWeight, int rightWeight) {
+            if (moveWeight < 0 || leftWeight < 0 || rightWeight < 0 ||
+                (long) moveWeight + leftWeight + rightWeight == 0 ||
+                (long) moveWeight + leftWeight + rightWeight > Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("Invalid command mix: " +
+                                                   moveWeight + " " + leftWeight + " " + rightWeight);
+            }
+            this.moveWeight = moveWeight;
+            this.leftWeight = leftWeight;
+            this.rightWeight = rightWeight;
+            return this;
+        }
+
+        /*
+         * Function to set the share of rovers whose program is drawn
+         * from a pool of programs, and the size of the pool.
+         */
+        public Builder repeatedPrograms(double share, int poolSize) {
+            if (!(share >= 0 && share <= 1) || poolSize < 1) {
+                throw new IllegalArgumentException("Invalid repeated programs: " + share + " " + poolSize);
+            }
+            this.repeatedShare = share;
+            this.programPoolSize = poolSize;
+            return this;
+        }
+
+        public Builder collisions(Occurrence collisions) {
+            this.collisions = collisions;
+            return this;
+        }
+
+        public Builder falls(Occurrence falls) {
+            this.falls = falls;
+            return this;
+        }
+
+        public MissionGenerator build() {
+            if (collisions == Occurrence.GUARANTEED && falls == Occurrence.GUARANTEED) {
+                throw new IllegalArgumentException("A mission stops at its first failure, " +
+                                                   "so collisions and falls cannot both be guaranteed.");
+            }
+            return new MissionGenerator(this);
+        }
+    }
+
+    /*
+     * Main function.
+     * Writes a mission to a file, or to standard output for "-", in the
+     * text layout of input.dat, or in the binary format with "--binary".
+     */
+    public static void main(String[] args) {
+        Builder builder = new Builder();
+        String outputFile = "-";
+        boolean binary = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                case "--seed":
+                    builder.seed(Long.parseLong(args[++i]));
+                    break;
+                case "--plateau":
+                    builder.plateau(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                    break;
+                case "--rovers":
+                    builder.rovers(Integer.parseInt(args[++i]));
+                    break;
+                case "--density":
+                    builder.density(Double.parseDouble(args[++i]));
+                    break;
+                case "--length":
+                    builder.commandLength(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                    break;
+                case "--mix":
+                    builder.commandMix(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]),
+                                       Integer.parseInt(args[++i]));
+                    break;
+                case "--repeated":
+                    builder.repeatedPrograms(Double.parseDouble(args[++i]), Integer.parseInt(args[++i]));
+                    break;
+                case "--collisions":
+                    builder.collisions(Occurrence.valueOf(args[++i].toUpperCase()));
+                    break;
+                case "--falls":
+                    builder.falls(Occurrence.valueOf(args[++i].toUpperCase()));
+                    break;
+                case "--binary":
+                    binary = true;
+                    break;
+                default:
+                    outputFile = args[i];
+                }
+            }
+        } catch (RuntimeException e) {
+            // missing values, bad numbers and bad settings.
+            System.out.println("Usage: MissionGenerator [--seed n] [--plateau maxX maxY] " +
+                               "[--rovers n | --density d] [--length min max] [--mix moves lefts rights] " +
+                               "[--repeated share poolSize] [--collisions allowed|forbidden|guaranteed] " +
+                               "[--falls allowed|forbidden|guaranteed] [--binary] [output-file | -]");
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        try {
+            MissionGenerator generator = builder.build();
+            boolean stdout = outputFile.equals("-");
+            OutputStream output = new BufferedOutputStream(stdout ? System.out
+                                                                  : Files.newOutputStream(Paths.get(outputFile)));
+            if (binary) {
+                try (BinaryMissionWriter writer = new BinaryMissionWriter(output)) {
+                    generator.generate(writer);
+                }
+            } else {
+                try (TextMissionWriter writer = new TextMissionWriter(new BufferedWriter(
+                         new OutputStreamWriter(output, StandardCharsets.ISO_8859_1)))) {
+                    generator.generate(writer);
+                }
+            }
+        } catch (IOException | InvalidInputException | RoverCollisionException |
+                 RoverFallAndCrashException | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
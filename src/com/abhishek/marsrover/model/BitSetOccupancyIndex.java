@@ -0,0 +1,88 @@
+package com.abhishek.marsrover.model;
+
+/*
+ * Occupancy index backed by a dense bitset with one bit per cell.
+ * Cells are laid out row by row starting from the bottom left
+ * cell of the plateau. Suitable for plateaus whose cell count
+ * fits comfortably in memory.
+ */
+public class BitSetOccupancyIndex implements OccupancyIndex {
+
+    /*
+     * Bottom left cell covered by the bitset.
+     */
+    private final int minX;
+    private final int minY;
+
+    /*
+     * Number of columns and rows covered by the bitset.
+     */
+    private final long width;
+    private final long height;
+
+    /*
+     * Bits of the index, 64 cells per word.
+     */
+    private final long[] words;
+
+    /*
+     * Public constructor.
+     * Bounds are inclusive on both ends.
+     */
+    public BitSetOccupancyIndex(int minX, int minY, int maxX, int maxY) {
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("Invalid bounds for bitset occupancy index: (" +
+                                               minX + ", " + minY + ") ... (" +
+                                               maxX + ", " + maxY + ")");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.width = (long) maxX - minX + 1;
+        this.height = (long) maxY - minY + 1;
+        long wordCount = (width * height + 63) >>> 6;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Plateau is too large for a bitset occupancy index: " +
+                                               width + " x " + height);
+        }
+        this.words = new long[(int) wordCount];
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            return false;
+        }
+        return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void occupy(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            throw new IllegalArgumentException("Cell is outside of the occupancy index: " + x + " " + y);
+        }
+        words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    @Override
+    public void release(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit >= 0) {
+            words[(int) (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    /*
+     * Private function to get index of the bit of a cell,
+     * or -1 when the cell is outside of the indexed area.
+     */
+    private long bitIndex(int x, int y) {
+        long dx = (long) x - minX;
+        long dy = (long) y - minY;
+        if (dx < 0 || dy < 0 || dx >= width || dy >= height) {
+            return -1;
+        }
+        return dy * width + dx;
+    }
+}
@@ -0,0 +1,361 @@
+package com.abhishek.marsrover.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+
+/*
+ * Class to represent a plateau which can be shared by threads.
+ * The plateau is split into square tiles, each one with its own bitmap
+ * of unavailable positions and its own StampedLock, so that threads
+ * only contend when they touch the same tile. Reads are optimistic:
+ * a tile is read without locking and read again under its read lock
+ * only when a writer changed it meanwhile. A move between two tiles
+ * locks both of them, in a fixed order so that moves cannot deadlock.
+ *
+ * Tiles are created on first write. For large plateaus they are kept
+ * in a hash map, so memory only depends on the tiles holding rovers.
+ */
+public class ConcurrentPlateau extends Plateau {
+
+    /*
+     * Side of a tile. A row of a tile is one long.
+     */
+    static final int TILE_SIDE = 64;
+
+    /*
+     * Largest number of tiles kept in an array. Plateaus with more tiles
+     * keep them in a hash map.
+     */
+    static final long MAX_DENSE_TILES = 1L << 22;
+
+    private final int minX;
+    private final int minY;
+
+    /*
+     * Number of tile columns, and tiles by index when the plateau is small
+     * enough, otherwise by packed tile coordinates.
+     */
+    private final long tileColumns;
+    private final AtomicReferenceArray<Tile> denseTiles;
+    private final ConcurrentHashMap<Long, Tile> sparseTiles;
+
+    /*
+     * Public constructor
+     */
+    public ConcurrentPlateau(Position minPosition, Position maxPosition) {
+        super(minPosition, maxPosition);
+        this.minX = minPosition.getX();
+        this.minY = minPosition.getY();
+        this.tileColumns = (((long) maxPosition.getX() - minX) >>> 6) + 1;
+        long tileRows = (((long) maxPosition.getY() - minY) >>> 6) + 1;
+        if (tileColumns * tileRows <= MAX_DENSE_TILES) {
+            denseTiles = new AtomicReferenceArray<>((int) (tileColumns * tileRows));
+            sparseTiles = null;
+        } else {
+            denseTiles = null;
+            sparseTiles = new ConcurrentHashMap<>();
+        }
+    }
+
+    /*
+     * Public function to add a packed position to the unavailable positions.
+     */
+    @Override
+    public void addUnavailablePosition(long position) {
+        tryAddUnavailablePosition(position);
+    }
+
+    /*
+     * Public function to add a packed position to the unavailable positions
+     * if it is available. Returns false when the position is unavailable.
+     */
+    public boolean tryAddUnavailablePosition(long position) {
+        Tile tile = getTile(position, true);
+        long stamp = tile.lock.writeLock();
+        try {
+            return tile.occupy(position);
+        } finally {
+            tile.lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Public function to remove a packed position from the unavailable positions.
+     */
+    @Override
+    public void removeUnavailablePosition(long position) {
+        Tile tile = getTile(position, false);
+        if (tile == null) {
+            throw createMissingPositionException("Position is", "Position", position);
+        }
+        long stamp = tile.lock.writeLock();
+        try {
+            if (!tile.release(position)) {
+                throw createMissingPositionException("Position is", "Position", position);
+            }
+        } finally {
+            tile.lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Public function to update a packed position in the unavailable positions.
+     */
+    @Override
+    public void updateUnavailablePosition(long prevPosition, long newPosition) {
+        move(prevPosition, newPosition, false);
+    }
+
+    /*
+     * Public function to move a packed position to another one in the
+     * unavailable positions, atomically, if the new position is available.
+     * Returns false, changing nothing, when the new position is unavailable.
+     */
+    public boolean moveIfAvailable(long prevPosition, long newPosition) {
+        return move(prevPosition, newPosition, true);
+    }
+
+    /*
+     * Public function to check if a given packed position is available in plateau.
+     */
+    @Override
+    public boolean isPositionAvailable(long position) {
+        if (!isPositionReachable(position)) {
+            return true;
+        }
+        Tile tile = getTile(position, false);
+        if (tile == null) {
+            return true;
+        }
+        long stamp = tile.lock.tryOptimisticRead();
+        boolean occupied = tile.isOccupied(position);
+        if (!tile.lock.validate(stamp)) {
+            stamp = tile.lock.readLock();
+            try {
+                occupied = tile.isOccupied(position);
+            } finally {
+                tile.lock.unlockRead(stamp);
+            }
+        }
+        return !occupied;
+    }
+
+    /*
+     * Public function to find the first unavailable position on a straight
+     * run of steps from a packed position in a given direction, tile by tile.
+     * See Plateau#getStepsToUnavailablePosition.
+     */
+    @Override
+    public int getStepsToUnavailablePosition(long position, Direction direction, int steps) {
+        long x = Position.x(position);
+        long y = Position.y(position);
+        // positions off the plateau are never unavailable.
+        long distance = getDistanceToEdge(position, direction);
+        long step = 1;
+        long lastStep = Math.min(steps, Math.max(distance, 0));
+        while (step <= lastStep) {
+            long cellX = x + (direction == Direction.E ? step : direction == Direction.W ? -step : 0);
+            long cellY = y + (direction == Direction.N ? step : direction == Direction.S ? -step : 0);
+            int localX = (int) ((cellX - minX) & (TILE_SIDE - 1));
+            int localY = (int) ((cellY - minY) & (TILE_SIDE - 1));
+            int cells;
+            switch (direction) {
+            case N:
+                cells = TILE_SIDE - localY;
+                break;
+            case E:
+                cells = TILE_SIDE - localX;
+                break;
+            case S:
+                cells = localY + 1;
+                break;
+            default:
+                cells = localX + 1;
+            }
+            cells = (int) Math.min(cells, lastStep - step + 1);
+
+            Tile tile = getTile(Position.pack((int) cellX, (int) cellY), false);
+            if (tile != null) {
+                long stamp = tile.lock.tryOptimisticRead();
+                int blocked = tile.scan(localX, localY, direction, cells);
+                if (!tile.lock.validate(stamp)) {
+                    stamp = tile.lock.readLock();
+                    try {
+                        blocked = tile.scan(localX, localY, direction, cells);
+                    } finally {
+                        tile.lock.unlockRead(stamp);
+                    }
+                }
+                if (blocked >= 0) {
+                    return (int) step + blocked;
+                }
+            }
+            step += cells;
+        }
+        return 0;
+    }
+
+    /*
+     * Private function to move a position between tiles, locking the
+     * tiles in the order of their coordinates.
+     */
+    private boolean move(long prevPosition, long newPosition, boolean onlyIfAvailable) {
+        Tile prevTile = getTile(prevPosition, false);
+        if (prevTile == null) {
+            throw createMissingPositionException("Previous  is", "Previous position", prevPosition);
+        }
+        Tile newTile = getTile(newPosition, true);
+        Tile first = prevTile;
+        Tile second = newTile;
+        if (getTileKey(newPosition) < getTileKey(prevPosition)) {
+            first = newTile;
+            second = prevTile;
+        }
+        long firstStamp = first.lock.writeLock();
+        long secondStamp = first == second ? 0 : second.lock.writeLock();
+        try {
+            if (!prevTile.isOccupied(prevPosition)) {
+                throw createMissingPositionException("Previous  is", "Previous position", prevPosition);
+            }
+            if (onlyIfAvailable && prevPosition != newPosition && newTile.isOccupied(newPosition)) {
+                return false;
+            }
+            prevTile.release(prevPosition);
+            newTile.occupy(newPosition);
+            return true;
+        } finally {
+            if (first != second) {
+                second.lock.unlockWrite(secondStamp);
+            }
+            first.lock.unlockWrite(firstStamp);
+        }
+    }
+
+    /*
+     * Private function to get the tile of a position on the plateau,
+     * creating it when asked to, or null.
+     */
+    private Tile getTile(long position, boolean create) {
+        if (!isPositionReachable(position)) {
+            if (create) {
+                throw new IllegalArgumentException("Cell is outside of the plateau: " +
+                                                   Position.toString(position));
+            }
+            return null;
+        }
+        long key = getTileKey(position);
+        if (sparseTiles != null) {
+            return create ? sparseTiles.computeIfAbsent(key, k -> new Tile()) : sparseTiles.get(key);
+        }
+        int index = (int) ((key & 0xFFFFFFFFL) * tileColumns + (key >>> 32));
+        Tile tile = denseTiles.get(index);
+        if (tile == null && create) {
+            tile = new Tile();
+            if (!denseTiles.compareAndSet(index, null, tile)) {
+                tile = denseTiles.get(index);
+            }
+        }
+        return tile;
+    }
+
+    /*
+     * Private function to get the coordinates of the tile of a
+     * position packed into a long, column in the high half.
+     */
+    private long getTileKey(long position) {
+        long column = ((long) Position.x(position) - minX) >>> 6;
+        long row = ((long) Position.y(position) - minY) >>> 6;
+        return column << 32 | row;
+    }
+
+    private RuntimeException createMissingPositionException(String subject, String label, long position) {
+        return new RuntimeException("Invalid state of plateau. " +
+                                    subject + " not present in unavailable position list. " +
+                                    label + ": " + Position.toString(position));
+    }
+
+    /*
+     * Class of a tile: a bitmap of unavailable positions, one long
+     * per row, guarded by its lock.
+     */
+    private final class Tile {
+
+        private final StampedLock lock = new StampedLock();
+        private final long[] rows = new long[TILE_SIDE];
+
+        boolean isOccupied(long position) {
+            return (rows[localY(position)] & (1L << localX(position))) != 0;
+        }
+
+        /*
+         * Function to mark a position, returns false when it was marked.
+         */
+        boolean occupy(long position) {
+            int row = localY(position);
+            long bit = 1L << localX(position);
+            if ((rows[row] & bit) != 0) {
+                return false;
+            }
+            rows[row] |= bit;
+            return true;
+        }
+
+        /*
+         * Function to unmark a position, returns false when it was not marked.
+         */
+        boolean release(long position) {
+            int row = localY(position);
+            long bit = 1L << localX(position);
+            if ((rows[row] & bit) == 0) {
+                return false;
+            }
+            rows[row] &= ~bit;
+            return true;
+        }
+
+        /*
+         * Function to find the first marked cell of a run of cells in a
+         * direction, starting with the given one. Returns its index in
+         * the run, or -1. A run along a row is checked with one mask.
+         */
+        int scan(int localX, int localY, Direction direction, int cells) {
+            switch (direction) {
+            case E: {
+                long hits = rows[localY] >>> localX;
+                if (cells < TILE_SIDE) {
+                    hits &= (1L << cells) - 1;
+                }
+                return hits == 0 ? -1 : Long.numberOfTrailingZeros(hits);
+            }
+            case W: {
+                long hits = rows[localY] << (TILE_SIDE - 1 - localX);
+                if (cells < TILE_SIDE) {
+                    hits &= -(1L << (TILE_SIDE - cells));
+                }
+                return hits == 0 ? -1 : Long.numberOfLeadingZeros(hits);
+            }
+            default:
+                int delta = direction == Direction.N ? 1 : -1;
+                long bit = 1L << localX;
+                for (int i = 0; i < cells; i++) {
+                    if ((rows[localY + i * delta] & bit) != 0) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+        }
+
+        private int localX(long position) {
+            return (int) (((long) Position.x(position) - minX) & (TILE_SIDE - 1));
+        }
+
+        private int localY(long position) {
+            return (int) (((long) Position.y(position) - minY) & (TILE_SIDE - 1));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.abhishek.marsrover.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+
+/*
+ * Class to hold a fleet of rovers as columns of primitives, one entry
+ * per rover, instead of a Rover object per rover. A rover takes 21
+ * bytes plus its packed commands: coordinates, heading, and the offset,
+ * length and invalid command of its tape. The packed words of every
+ * tape follow each other in a single column.
+ *
+ * Columns are heap arrays, or direct buffers outside of the heap so
+ * that large fleets do not weigh on the garbage collector. Both are
+ * read through the same buffer views. A direct buffer holds at most
+ * 2 GB, so an off-heap fleet holds up to 2^28 rovers and 2^28 words
+ * of commands.
+ *
+ * Rovers are numbered from 0 in the order in which they were added.
+ */
+public final class Fleet {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /*
+     * Value of the invalid command column for tapes without error.
+     */
+    private static final int NO_ERROR = -1;
+
+    private final boolean offHeap;
+
+    private int size;
+    private IntBuffer xs;
+    private IntBuffer ys;
+    private ByteBuffer directions;
+
+    /*
+     * Tape of each rover: offset of its first word, number of valid
+     * commands, and first invalid command or NO_ERROR.
+     */
+    private IntBuffer tapeOffsets;
+    private IntBuffer commandCounts;
+    private IntBuffer errorCommands;
+
+    /*
+     * Packed commands of every tape, and number of words in use.
+     */
+    private LongBuffer words;
+    private int wordCount;
+
+    /*
+     * Public constructor, for a number of rovers. The fleet grows when
+     * more rovers are added.
+     */
+    public Fleet(int capacity, boolean offHeap) {
+        this.offHeap = offHeap;
+        if (capacity > getLimit()) {
+            throw new IllegalArgumentException("Fleet capacity is too large: " + capacity);
+        }
+        int rovers = Math.max(capacity, 16);
+        xs = allocateInts(rovers);
+        ys = allocateInts(rovers);
+        directions = allocateBytes(rovers);
+        tapeOffsets = allocateInts(rovers);
+        commandCounts = allocateInts(rovers);
+        errorCommands = allocateInts(rovers);
+        words = allocateLongs(rovers);
+    }
+
+    /*
+     * Public function to add a rover, returns its number.
+     */
+    public int add(int x, int y, Direction direction, CommandTape tape) {
+        if (size == xs.capacity()) {
+            growRovers();
+        }
+        int tapeWords = tape.getWordCount();
+        if ((long) wordCount + tapeWords > words.capacity()) {
+            growWords(tapeWords);
+        }
+        int rover = size++;
+        xs.put(rover, x);
+        ys.put(rover, y);
+        directions.put(rover, (byte) direction.ordinal());
+        tapeOffsets.put(rover, wordCount);
+        commandCounts.put(rover, tape.getCommandCount());
+        errorCommands.put(rover, tape.hasError() ? tape.getErrorCommand() : NO_ERROR);
+        for (int i = 0; i < tapeWords; i++) {
+            words.put(wordCount++, tape.getWord(i));
+        }
+        return rover;
+    }
+
+    /*
+     * Function to get number of rovers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Function to check if columns are kept outside of the heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /*
+     * Getter functions for a rover.
+     */
+    public int getX(int rover) {
+        return xs.get(rover);
+    }
+
+    public int getY(int rover) {
+        return ys.get(rover);
+    }
+
+    public long getPackedPosition(int rover) {
+        return Position.pack(xs.get(rover), ys.get(rover));
+    }
+
+    public Direction getDirection(int rover) {
+        return DIRECTIONS[directions.get(rover)];
+    }
+
+    /*
+     * Function to get heading of a rover as the ordinal of its direction.
+     */
+    public int getDirectionOrdinal(int rover) {
+        return directions.get(rover);
+    }
+
+    /*
+     * Public function to place a rover at a packed position, with a
+     * heading given as the ordinal of its direction.
+     */
+    public void moveTo(int rover, long position, int direction) {
+        xs.put(rover, Position.x(position));
+        ys.put(rover, Position.y(position));
+        directions.put(rover, (byte) direction);
+    }
+
+    /*
+     * Function to get number of valid commands of a rover.
+     */
+    public int getCommandCount(int rover) {
+        return commandCounts.get(rover);
+    }
+
+    /*
+     * Function to get a word of packed commands of a rover,
+     * as CommandTape#getWord.
+     */
+    public long getCommandWord(int rover, int index) {
+        return words.get(tapeOffsets.get(rover) + index);
+    }
+
+    /*
+     * Function to check if the commands of a rover contain an invalid command.
+     */
+    public boolean hasError(int rover) {
+        return errorCommands.get(rover) != NO_ERROR;
+    }
+
+    /*
+     * Function to get the first invalid command of a rover.
+     */
+    public char getErrorCommand(int rover) {
+        return hasError(rover) ? (char) errorCommands.get(rover) : '\0';
+    }
+
+    /*
+     * Function to stringify a rover, as Rover#toString.
+     */
+    public String toString(int rover) {
+        return xs.get(rover) + " " + ys.get(rover) + " " + getDirection(rover).name();
+    }
+
+    /*
+     * Private function to double the room for rovers.
+     */
+    private void growRovers() {
+        int capacity = grow(xs.capacity(), 1);
+        // bulk copies, from the start whatever the position left by earlier copies.
+        xs = allocateInts(capacity).put(xs.duplicate().rewind().limit(size));
+        ys = allocateInts(capacity).put(ys.duplicate().rewind().limit(size));
+        tapeOffsets = allocateInts(capacity).put(tapeOffsets.duplicate().rewind().limit(size));
+        commandCounts = allocateInts(capacity).put(commandCounts.duplicate().rewind().limit(size));
+        errorCommands = allocateInts(capacity).put(errorCommands.duplicate().rewind().limit(size));
+        directions = allocateBytes(capacity).put(directions.duplicate().rewind().limit(size));
+    }
+
+    /*
+     * Private function to make room for more words of commands.
+     */
+    private void growWords(int extra) {
+        int capacity = grow(words.capacity(), (long) wordCount + extra - words.capacity());
+        words = allocateLongs(capacity).put(words.duplicate().rewind().limit(wordCount));
+    }
+
+    /*
+     * Private function to get a new capacity, at least twice the current
+     * one and at least the current one plus the missing room.
+     */
+    private int grow(int capacity, long missing) {
+        long limit = getLimit();
+        long newCapacity = Math.max(2L * capacity, capacity + missing);
+        if (capacity + missing > limit) {
+            throw new IllegalStateException("Fleet is full. Capacity: " + capacity);
+        }
+        return (int) Math.min(newCapacity, limit);
+    }
+
+    /*
+     * Private function to get the largest capacity of a column.
+     */
+    private int getLimit() {
+        return offHeap ? Integer.MAX_VALUE / Long.BYTES : Integer.MAX_VALUE - 8;
+    }
+
+    private IntBuffer allocateInts(int capacity) {
+        if (offHeap) {
+            return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return IntBuffer.wrap(new int[capacity]);
+    }
+
+    private LongBuffer allocateLongs(int capacity) {
+        if (offHeap) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return LongBuffer.wrap(new long[capacity]);
+    }
+
+    private ByteBuffer allocateBytes(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.wrap(new byte[capacity]);
+    }
+}
@@ -0,0 +1,178 @@
+package com.abhishek.marsrover.model;
+
+import java.util.Arrays;
+
+import com.abhishek.marsrover.data.Position;
+
+/*
+ * Occupancy index backed by an open addressing hash set of
+ * primitive longs. Each occupied cell is stored as its x and y
+ * values packed into one long, so memory only grows with the
+ * number of occupied cells and not with the size of the plateau.
+ * Collisions are resolved with linear probing and removals use
+ * backward shifting, so there are no tombstones to clean up.
+ */
+public class HashOccupancyIndex implements OccupancyIndex {
+
+    /*
+     * Marker for an empty slot. The cell which packs to the same
+     * value is tracked separately by containsEmptyKey.
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /*
+     * Default number of slots.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*
+     * Slots of the hash set. Length is always a power of two.
+     */
+    private long[] keys;
+
+    /*
+     * Number of occupied cells stored in slots.
+     */
+    private int size;
+
+    /*
+     * Whether the cell packing to the EMPTY marker is occupied.
+     */
+    private boolean containsEmptyKey;
+
+    /*
+     * Public constructor.
+     */
+    public HashOccupancyIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Public constructor with expected number of occupied cells.
+     */
+    public HashOccupancyIndex(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        keys = newTable(capacity);
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        long key = Position.pack(x, y);
+        if (key == EMPTY) {
+            return containsEmptyKey;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void occupy(int x, int y) {
+        long key = Position.pack(x, y);
+        if (key == EMPTY) {
+            containsEmptyKey = true;
+            return;
+        }
+        if (insert(keys, key)) {
+            size++;
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+    }
+
+    @Override
+    public void release(int x, int y) {
+        long key = Position.pack(x, y);
+        if (key == EMPTY) {
+            containsEmptyKey = false;
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // shift back following entries of the same probe run,
+        // so that lookups never stop early at the freed slot.
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    /*
+     * Function to get number of occupied cells.
+     */
+    public int size() {
+        return containsEmptyKey ? size + 1 : size;
+    }
+
+    /*
+     * Private function to double the number of slots.
+     */
+    private void grow() {
+        long[] table = newTable(keys.length << 1);
+        for (long key : keys) {
+            if (key != EMPTY) {
+                insert(table, key);
+            }
+        }
+        keys = table;
+    }
+
+    /*
+     * Private function to insert a key into a table.
+     * Returns false if key is already present.
+     */
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) {
+                return false;
+            }
+            if (current == EMPTY) {
+                table[slot] = key;
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Private function to create a table with all slots empty.
+     */
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /*
+     * Private function to get home slot of a key.
+     * Bits are mixed so that neighbouring cells spread over the table.
+     */
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,504 @@
+package com.abhishek.marsrover.model;
+
+import java.util.Arrays;
+
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Index of occupied cells by row and by column.
+ * Each row keeps the sorted x values of its occupied cells and each
+ * column the sorted y values, so that a straight run of moves can be
+ * checked for collisions with one binary search instead of one lookup
+ * per step.
+ *
+ * A line of a few values is one sorted array, which an update shifts.
+ * A line of more values than a block is split into sorted blocks, so
+ * that an update only shifts one block: its cost is bounded by the
+ * block size, plus the shift of the block references of the line when
+ * a block is split or merged, which happens at most once every quarter
+ * of a block of updates. Lines which become empty are dropped, so memory
+ * grows with the occupied cells and not with the lines ever occupied.
+ */
+public class LineOccupancyIndex {
+
+    /*
+     * Largest number of rows or columns kept in a dense array.
+     * Lines of larger plateaus are kept in a hash map.
+     */
+    private static final long MAX_DENSE_LINES = 1L << 22;
+
+    /*
+     * Largest number of values of a sorted array: a line, or a block of a line.
+     */
+    private static final int MAX_BLOCK = 128;
+
+    /*
+     * Occupied x values by row, and occupied y values by column.
+     */
+    private final Lines rows;
+    private final Lines columns;
+
+    /*
+     * Public constructor.
+     * Bounds are inclusive on both ends.
+     */
+    public LineOccupancyIndex(int minX, int minY, int maxX, int maxY) {
+        rows = new Lines(minY, maxY);
+        columns = new Lines(minX, maxX);
+    }
+
+    /*
+     * Function to mark a cell as occupied.
+     */
+    public void occupy(int x, int y) {
+        rows.add(y, x);
+        columns.add(x, y);
+    }
+
+    /*
+     * Function to mark a cell as free.
+     */
+    public void release(int x, int y) {
+        rows.remove(y, x);
+        columns.remove(x, y);
+    }
+
+    /*
+     * Function to find the first occupied cell on a straight run which
+     * starts next to (x, y) and goes a number of steps in a direction.
+     * Returns the step at which that cell is reached, from 1 to steps,
+     * or 0 when every cell of the run is free.
+     */
+    public int getStepsToFirstOccupied(int x, int y, Direction direction, int steps) {
+        switch (direction) {
+        case N:
+            return columns.stepsForward(x, y, steps);
+        case E:
+            return rows.stepsForward(y, x, steps);
+        case S:
+            return columns.stepsBackward(x, y, steps);
+        default:
+            return rows.stepsBackward(y, x, steps);
+        }
+    }
+
+    /*
+     * Function to get number of rows and columns holding occupied cells.
+     */
+    public int getLineCount() {
+        return rows.size() + columns.size();
+    }
+
+    /*
+     * Static function to insert a value into a sorted array, whose first
+     * element is the number of values. Returns the array, grown when it
+     * was full, or null when the value was already present.
+     */
+    private static int[] insert(int[] values, int value) {
+        int index = search(values, value);
+        if (index >= 0) {
+            return null;
+        }
+        index = -index - 1;
+        int size = values[0];
+        if (size + 1 == values.length) {
+            values = Arrays.copyOf(values, Math.min(Math.max(4, values.length * 2), MAX_BLOCK + 1));
+        }
+        System.arraycopy(values, index, values, index + 1, size + 1 - index);
+        values[index] = value;
+        values[0] = size + 1;
+        return values;
+    }
+
+    /*
+     * Static function to remove a value from a sorted array.
+     * Returns false when the value was not present.
+     */
+    private static boolean delete(int[] values, int value) {
+        int index = search(values, value);
+        if (index < 0) {
+            return false;
+        }
+        int size = values[0];
+        System.arraycopy(values, index + 1, values, index, size - index);
+        values[0] = size - 1;
+        return true;
+    }
+
+    /*
+     * Static function to get the smallest value of a sorted array larger
+     * than value, or Long.MAX_VALUE when there is none.
+     */
+    private static long higher(int[] values, int value) {
+        int index = search(values, value);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return index <= values[0] ? values[index] : Long.MAX_VALUE;
+    }
+
+    /*
+     * Static function to get the largest value of a sorted array smaller
+     * than value, or Long.MIN_VALUE when there is none.
+     */
+    private static long lower(int[] values, int value) {
+        int index = search(values, value);
+        index = index >= 0 ? index - 1 : -index - 2;
+        return index >= 1 ? values[index] : Long.MIN_VALUE;
+    }
+
+    /*
+     * Binary search of value among the values of a sorted array.
+     * Same contract as Arrays.binarySearch, with indices into the array.
+     */
+    private static int search(int[] values, int value) {
+        return Arrays.binarySearch(values, 1, values[0] + 1, value);
+    }
+
+    /*
+     * Class to keep sorted values of occupied cells for a set of lines.
+     * A line is either an int array whose first element is the number of
+     * values, followed by the values in ascending order, or a BlockLine.
+     */
+    private static final class Lines {
+
+        private final int minLine;
+        private final Object[] dense;
+        private final LineMap sparse;
+
+        /*
+         * Number of lines holding values.
+         */
+        private int size;
+
+        Lines(int minLine, int maxLine) {
+            this.minLine = minLine;
+            long count = (long) maxLine - minLine + 1;
+            if (count > 0 && count <= MAX_DENSE_LINES) {
+                dense = new Object[(int) count];
+                sparse = null;
+            } else {
+                dense = null;
+                sparse = new LineMap();
+            }
+        }
+
+        void add(int line, int value) {
+            Object values = get(line);
+            if (values instanceof BlockLine) {
+                ((BlockLine) values).add(value);
+                return;
+            }
+            int[] array = values != null ? (int[]) values : new int[] {0, 0};
+            if (array[0] == MAX_BLOCK && search(array, value) < 0) {
+                BlockLine blocks = new BlockLine(array);
+                blocks.add(value);
+                put(line, blocks);
+                return;
+            }
+            array = insert(array, value);
+            if (array != null) {
+                if (values == null) {
+                    size++;
+                }
+                put(line, array);
+            }
+        }
+
+        void remove(int line, int value) {
+            Object values = get(line);
+            if (values == null) {
+                return;
+            }
+            boolean empty;
+            if (values instanceof BlockLine) {
+                BlockLine blocks = (BlockLine) values;
+                empty = blocks.remove(value) && blocks.isEmpty();
+            } else {
+                int[] array = (int[]) values;
+                empty = delete(array, value) && array[0] == 0;
+            }
+            if (empty) {
+                put(line, null);
+                size--;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        /*
+         * Steps from value towards larger values to the first occupied one,
+         * or 0 when none is within steps.
+         */
+        int stepsForward(int line, int value, int steps) {
+            Object values = get(line);
+            if (values == null) {
+                return 0;
+            }
+            long next = values instanceof BlockLine ? ((BlockLine) values).higher(value)
+                                                    : higher((int[]) values, value);
+            long distance = next - value;
+            return next != Long.MAX_VALUE && distance <= steps ? (int) distance : 0;
+        }
+
+        /*
+         * Steps from value towards smaller values to the first occupied one,
+         * or 0 when none is within steps.
+         */
+        int stepsBackward(int line, int value, int steps) {
+            Object values = get(line);
+            if (values == null) {
+                return 0;
+            }
+            long previous = values instanceof BlockLine ? ((BlockLine) values).lower(value)
+                                                        : lower((int[]) values, value);
+            long distance = value - previous;
+            return previous != Long.MIN_VALUE && distance <= steps ? (int) distance : 0;
+        }
+
+        private Object get(int line) {
+            if (dense != null) {
+                long index = (long) line - minLine;
+                return index >= 0 && index < dense.length ? dense[(int) index] : null;
+            }
+            return sparse.get(line);
+        }
+
+        /*
+         * Function to set the values of a line, or to drop it for null.
+         */
+        private void put(int line, Object values) {
+            if (dense != null) {
+                dense[line - minLine] = values;
+            } else if (values != null) {
+                sparse.put(line, values);
+            } else {
+                sparse.remove(line);
+            }
+        }
+    }
+
+    /*
+     * Class to keep the values of a line in sorted blocks of at most
+     * MAX_BLOCK values, in the format of a short line. A full block is
+     * split into two halves, and two neighbouring blocks are merged when
+     * together they hold less than a quarter of a block, so that blocks
+     * stay at least an eighth full on average.
+     */
+    private static final class BlockLine {
+
+        private int[][] blocks;
+        private int blockCount;
+
+        /*
+         * Constructor for the values of a full short line.
+         */
+        BlockLine(int[] values) {
+            blocks = new int[4][];
+            blocks[0] = values;
+            blockCount = 1;
+            split(0);
+        }
+
+        boolean isEmpty() {
+            return blockCount == 0;
+        }
+
+        void add(int value) {
+            int b = blockOf(value);
+            int[] block = blocks[b];
+            if (block[0] == MAX_BLOCK) {
+                if (search(block, value) >= 0) {
+                    return;
+                }
+                split(b);
+                b = blockOf(value);
+                block = blocks[b];
+            }
+            block = insert(block, value);
+            if (block != null) {
+                blocks[b] = block;
+            }
+        }
+
+        /*
+         * Function to remove a value. Returns false when it was not present.
+         */
+        boolean remove(int value) {
+            int b = blockOf(value);
+            if (!delete(blocks[b], value)) {
+                return false;
+            }
+            if (blocks[b][0] == 0) {
+                removeBlock(b);
+            } else if (b + 1 < blockCount && blocks[b][0] + blocks[b + 1][0] < MAX_BLOCK / 4) {
+                merge(b);
+            } else if (b > 0 && blocks[b - 1][0] + blocks[b][0] < MAX_BLOCK / 4) {
+                merge(b - 1);
+            }
+            return true;
+        }
+
+        long higher(int value) {
+            int b = blockOf(value);
+            long next = LineOccupancyIndex.higher(blocks[b], value);
+            // the first value of the next block is larger than every value of this one.
+            return next == Long.MAX_VALUE && b + 1 < blockCount ? blocks[b + 1][1] : next;
+        }
+
+        long lower(int value) {
+            int b = blockOf(value);
+            long previous = LineOccupancyIndex.lower(blocks[b], value);
+            return previous == Long.MIN_VALUE && b > 0 ? blocks[b - 1][blocks[b - 1][0]] : previous;
+        }
+
+        /*
+         * Private function to get the first block whose last value is not
+         * less than value, or the last block when there is none.
+         */
+        private int blockOf(int value) {
+            int low = 0;
+            int high = blockCount - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int[] block = blocks[middle];
+                if (block[block[0]] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /*
+         * Private function to split a block into two halves.
+         */
+        private void split(int b) {
+            int[] block = blocks[b];
+            int size = block[0];
+            int half = size / 2;
+            int[] first = new int[MAX_BLOCK / 2 + 1];
+            int[] second = new int[MAX_BLOCK / 2 + 1];
+            first[0] = half;
+            System.arraycopy(block, 1, first, 1, half);
+            second[0] = size - half;
+            System.arraycopy(block, half + 1, second, 1, size - half);
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            System.arraycopy(blocks, b + 1, blocks, b + 2, blockCount - b - 1);
+            blocks[b] = first;
+            blocks[b + 1] = second;
+            blockCount++;
+        }
+
+        /*
+         * Private function to merge a block with the next one.
+         */
+        private void merge(int b) {
+            int[] block = blocks[b];
+            int[] next = blocks[b + 1];
+            int size = block[0] + next[0];
+            int[] merged = Arrays.copyOf(block, size + 1);
+            System.arraycopy(next, 1, merged, block[0] + 1, next[0]);
+            merged[0] = size;
+            blocks[b] = merged;
+            removeBlock(b + 1);
+        }
+
+        private void removeBlock(int b) {
+            System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+            blocks[--blockCount] = null;
+        }
+    }
+
+    /*
+     * Class of an open addressing hash map from the index of a line to
+     * its values. Collisions are resolved with linear probing and removals
+     * use backward shifting, as in HashOccupancyIndex, and a slot is empty
+     * when its values are null.
+     */
+    private static final class LineMap {
+
+        private int[] keys = new int[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        Object get(int key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        void put(int key, Object value) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        void remove(int key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (values[slot] == null) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                return;
+            }
+            // shift back following entries of the same probe run,
+            // so that lookups never stop early at the freed slot.
+            int gap = slot;
+            for (int next = (gap + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            values[gap] = null;
+            size--;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new int[oldKeys.length << 1];
+            values = new Object[oldValues.length << 1];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        /*
+         * Private function to get home slot of a key.
+         */
+        private static int slot(int key, int mask) {
+            int h = key * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
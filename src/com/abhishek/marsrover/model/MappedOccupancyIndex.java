@@ -0,0 +1,339 @@
+package com.abhishek.marsrover.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Occupancy index backed by a bitmap with one bit per cell, as
+ * BitSetOccupancyIndex, kept in a memory mapped file instead of the heap.
+ * The operating system pages the bitmap in and out, so plateaus whose
+ * bitmap does not fit in the heap, e.g. 100k x 100k cells for 1.25 GB,
+ * can be simulated on a small heap, and the bitmap is never scanned by
+ * the garbage collector.
+ *
+ * The file starts with a header holding the bounds of the plateau,
+ * followed by the bits, 64 cells per little endian word. A mapping holds
+ * at most 2 GB, so the bits are mapped in chunks of 1 GB. An index opened
+ * on an existing file keeps its bits, so that occupancy persists between
+ * runs. Unwritten parts of the file take no disk space on file systems
+ * with sparse files.
+ *
+ * Straight runs are checked on the bitmap itself, so a Plateau given this
+ * index keeps nothing on the heap for its unavailable positions.
+ */
+public class MappedOccupancyIndex implements OccupancyIndex {
+
+    /*
+     * First bytes of an occupancy file, followed by the bounds.
+     */
+    private static final long MAGIC = 0x4D52_4F43_4355_5031L;
+
+    /*
+     * Bytes before the first word of bits.
+     */
+    private static final int HEADER_BYTES = 64;
+
+    /*
+     * Bytes of a mapped chunk, as a shift.
+     */
+    private static final int CHUNK_SHIFT = 30;
+
+    /*
+     * Largest size of the bits of a file, 1 TB.
+     */
+    private static final long MAX_BYTES = 1L << 40;
+
+    /*
+     * Bottom left cell covered by the bitmap.
+     */
+    private final int minX;
+    private final int minY;
+
+    /*
+     * Number of columns and rows covered by the bitmap.
+     */
+    private final long width;
+    private final long height;
+
+    /*
+     * Mapped chunks of bits.
+     */
+    private final MappedByteBuffer[] chunks;
+
+    /*
+     * Private constructor, see open and openTemporary.
+     */
+    private MappedOccupancyIndex(int minX, int minY, long width, long height, MappedByteBuffer[] chunks) {
+        this.minX = minX;
+        this.minY = minY;
+        this.width = width;
+        this.height = height;
+        this.chunks = chunks;
+    }
+
+    /*
+     * Static function to open an index kept in a file, which is created
+     * when missing. With clear set, every cell of the file is made free.
+     * Otherwise the cells occupied in the file stay occupied, and the file
+     * must have been created for the same bounds.
+     * Bounds are inclusive on both ends.
+     */
+    public static MappedOccupancyIndex open(Path file, boolean clear, int minX, int minY, int maxX, int maxY)
+        throws IOException
+    {
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("Invalid bounds for mapped occupancy index: (" +
+                                               minX + ", " + minY + ") ... (" +
+                                               maxX + ", " + maxY + ")");
+        }
+        long width = (long) maxX - minX + 1;
+        long height = (long) maxY - minY + 1;
+        // checked by division, since width * height may not fit in a long.
+        if (width > MAX_BYTES * Byte.SIZE / height) {
+            throw new IllegalArgumentException("Plateau is too large for a mapped occupancy index: " +
+                                               width + " x " + height);
+        }
+        long bytes = ((width * height + 63) >>> 6) * Long.BYTES;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(minX).putInt(minY).putInt(maxX).putInt(maxY).clear();
+            if (clear || channel.size() == 0) {
+                // truncating drops every bit, the file then grows back with zeros.
+                channel.truncate(0);
+                writeFully(channel, header, 0);
+                writeFully(channel, ByteBuffer.allocate(1), HEADER_BYTES + bytes - 1);
+            } else {
+                ByteBuffer existing = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, existing, 0);
+                if (!existing.flip().equals(header) || channel.size() < HEADER_BYTES + bytes) {
+                    throw new IllegalArgumentException("Occupancy file was not created for plateau [ (" +
+                                                       minX + " " + minY + ") ... (" + maxX + " " + maxY +
+                                                       ") ]: " + file);
+                }
+            }
+
+            // the mappings stay valid after the channel is closed.
+            int chunkCount = (int) ((bytes + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long offset = (long) i << CHUNK_SHIFT;
+                long size = Math.min(1L << CHUNK_SHIFT, bytes - offset);
+                chunks[i] = channel.map(MapMode.READ_WRITE, HEADER_BYTES + offset, size);
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new MappedOccupancyIndex(minX, minY, width, height, chunks);
+        }
+    }
+
+    /*
+     * Static function to open an index kept in a new temporary file,
+     * which is deleted right away. The mapping keeps the pages of the
+     * file until it is garbage collected, and nothing persists.
+     */
+    public static MappedOccupancyIndex openTemporary(int minX, int minY, int maxX, int maxY)
+        throws IOException
+    {
+        Path file = Files.createTempFile("occupancy", ".bits");
+        try {
+            return open(file, true, minX, minY, maxX, maxY);
+        } finally {
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                // files in use cannot be deleted on some platforms.
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            return false;
+        }
+        return (chunk(bit).getLong(offset(bit)) & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void occupy(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            throw new IllegalArgumentException("Cell is outside of the occupancy index: " + x + " " + y);
+        }
+        MappedByteBuffer chunk = chunk(bit);
+        int offset = offset(bit);
+        chunk.putLong(offset, chunk.getLong(offset) | (1L << bit));
+    }
+
+    @Override
+    public void release(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit >= 0) {
+            MappedByteBuffer chunk = chunk(bit);
+            int offset = offset(bit);
+            chunk.putLong(offset, chunk.getLong(offset) & ~(1L << bit));
+        }
+    }
+
+    /*
+     * Function to find the first occupied cell on a straight run which
+     * starts next to (x, y) and goes a number of steps in a direction,
+     * as LineOccupancyIndex#getStepsToFirstOccupied. Cells outside of
+     * the bitmap are free. A run along a row is checked a word of 64
+     * cells at a time, a run along a column one cell per row.
+     */
+    public int getStepsToFirstOccupied(int x, int y, Direction direction, int steps) {
+        switch (direction) {
+        case N:
+            return getStepsInColumn(x, y, 1, steps);
+        case E:
+            return getStepsInRowForward(x, y, steps);
+        case S:
+            return getStepsInColumn(x, y, -1, steps);
+        default:
+            return getStepsInRowBackward(x, y, steps);
+        }
+    }
+
+    /*
+     * Private function to check a run along a column, one row per step.
+     */
+    private int getStepsInColumn(int x, int y, int stepY, int steps) {
+        for (int step = 1; step <= steps; step++) {
+            long bit = bitIndex(x, (long) y + (long) stepY * step);
+            if (bit < 0) {
+                // the run left the bitmap, every cell after is outside too.
+                return 0;
+            }
+            if ((chunk(bit).getLong(offset(bit)) & (1L << bit)) != 0) {
+                return step;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * Private function to check a run towards larger x, a word at a time.
+     */
+    private int getStepsInRowForward(int x, int y, int steps) {
+        long dy = (long) y - minY;
+        long first = (long) x - minX + 1;
+        long last = Math.min(first + steps - 1, width - 1);
+        if (dy < 0 || dy >= height || steps <= 0) {
+            return 0;
+        }
+        long rowStart = dy * width;
+        long bit = rowStart + Math.max(first, 0);
+        long end = rowStart + last;
+        while (bit <= end) {
+            int span = (int) Math.min(64 - (bit & 63), end - bit + 1);
+            // shifts of a long only use the low six bits of the distance.
+            long word = chunk(bit).getLong(offset(bit)) >>> bit;
+            if (span < 64) {
+                word &= (1L << span) - 1;
+            }
+            if (word != 0) {
+                return (int) (bit + Long.numberOfTrailingZeros(word) - rowStart - first + 1);
+            }
+            bit += span;
+        }
+        return 0;
+    }
+
+    /*
+     * Private function to check a run towards smaller x, a word at a time.
+     */
+    private int getStepsInRowBackward(int x, int y, int steps) {
+        long dy = (long) y - minY;
+        long first = (long) x - minX - 1;
+        long last = Math.max(first - steps + 1, 0);
+        if (dy < 0 || dy >= height || steps <= 0) {
+            return 0;
+        }
+        long rowStart = dy * width;
+        long bit = rowStart + Math.min(first, width - 1);
+        long end = rowStart + last;
+        while (bit >= end) {
+            int low = (int) (bit & 63);
+            int span = (int) Math.min(low + 1, bit - end + 1);
+            // the cell of bit becomes the highest bit of the word.
+            long word = chunk(bit).getLong(offset(bit)) << (63 - low);
+            if (span < 64) {
+                word &= -(1L << (64 - span));
+            }
+            if (word != 0) {
+                return (int) (first - (bit - Long.numberOfLeadingZeros(word) - rowStart) + 1);
+            }
+            bit -= span;
+        }
+        return 0;
+    }
+
+    /*
+     * Public function to write changed pages of the bitmap to the file.
+     * Pages are written by the operating system anyway, this makes
+     * sure they are on disk.
+     */
+    public void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /*
+     * Private function to get index of the bit of a cell,
+     * or -1 when the cell is outside of the indexed area.
+     */
+    private long bitIndex(int x, long y) {
+        long dx = (long) x - minX;
+        long dy = y - minY;
+        if (dx < 0 || dy < 0 || dx >= width || dy >= height) {
+            return -1;
+        }
+        return dy * width + dx;
+    }
+
+    /*
+     * Private functions to get the chunk of the word of a bit,
+     * and the offset of that word in its chunk.
+     */
+    private MappedByteBuffer chunk(long bit) {
+        return chunks[(int) ((bit >>> 3) >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long bit) {
+        return (int) ((bit >>> 6) * Long.BYTES & ((1L << CHUNK_SHIFT) - 1));
+    }
+
+    /*
+     * Private function to read a buffer from a position of a file,
+     * until it is full or the end of the file is reached.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, position + buffer.position());
+        }
+    }
+
+    /*
+     * Private function to write a whole buffer at a position of a file.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
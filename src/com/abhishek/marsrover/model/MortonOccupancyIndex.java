@@ -0,0 +1,130 @@
+package com.abhishek.marsrover.model;
+
+/*
+ * Occupancy index backed by a bitmap with one bit per cell, as
+ * BitSetOccupancyIndex, with cells laid out in tiles along a Z-order
+ * (Morton) curve instead of row by row.
+ *
+ * A tile covers 64 x 64 cells in 64 words, 512 bytes, and tiles are laid
+ * out row by row. Inside a tile, the bits of the x and y offsets of a cell
+ * are interleaved, so that each word holds a block of 8 x 8 cells and each
+ * cache line of 8 words a block of 32 x 16 cells. A rover moving north or
+ * south then stays in the same word for up to 8 steps, as one moving east
+ * or west, while a row-major bitmap gives it a new cache line on every
+ * step. The cells around a position also mostly share its word.
+ *
+ * Edge tiles are padded, so the bitmap covers up to 63 extra columns
+ * and rows.
+ */
+public class MortonOccupancyIndex implements OccupancyIndex {
+
+    /*
+     * Side of a tile in cells, as a shift.
+     */
+    private static final int TILE_SHIFT = 6;
+
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+
+    /*
+     * Bits of offsets within a tile spread to even positions,
+     * so that x and y offsets interleave into a Morton code.
+     */
+    private static final short[] SPREAD = new short[1 << TILE_SHIFT];
+
+    static {
+        for (int value = 0; value < SPREAD.length; value++) {
+            int spread = 0;
+            for (int bit = 0; bit < TILE_SHIFT; bit++) {
+                spread |= ((value >>> bit) & 1) << (2 * bit);
+            }
+            SPREAD[value] = (short) spread;
+        }
+    }
+
+    /*
+     * Bottom left cell covered by the bitmap.
+     */
+    private final int minX;
+    private final int minY;
+
+    /*
+     * Number of columns and rows covered by the bitmap,
+     * and number of tiles in a row of tiles.
+     */
+    private final long width;
+    private final long height;
+    private final long tilesPerRow;
+
+    /*
+     * Bits of the index, 64 words per tile.
+     */
+    private final long[] words;
+
+    /*
+     * Public constructor.
+     * Bounds are inclusive on both ends.
+     */
+    public MortonOccupancyIndex(int minX, int minY, int maxX, int maxY) {
+        if (maxX < minX || maxY < minY) {
+            throw new IllegalArgumentException("Invalid bounds for Morton occupancy index: (" +
+                                               minX + ", " + minY + ") ... (" +
+                                               maxX + ", " + maxY + ")");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.width = (long) maxX - minX + 1;
+        this.height = (long) maxY - minY + 1;
+        this.tilesPerRow = (width + TILE_MASK) >>> TILE_SHIFT;
+        long tileRows = (height + TILE_MASK) >>> TILE_SHIFT;
+        // a tile has as many words as it has rows of cells.
+        long wordCount = tilesPerRow * tileRows << TILE_SHIFT;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Plateau is too large for a Morton occupancy index: " +
+                                               width + " x " + height);
+        }
+        this.words = new long[(int) wordCount];
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            return false;
+        }
+        return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    @Override
+    public void occupy(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit < 0) {
+            throw new IllegalArgumentException("Cell is outside of the occupancy index: " + x + " " + y);
+        }
+        words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    @Override
+    public void release(int x, int y) {
+        long bit = bitIndex(x, y);
+        if (bit >= 0) {
+            words[(int) (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    /*
+     * Private function to get index of the bit of a cell,
+     * or -1 when the cell is outside of the indexed area.
+     * The tile gives the high bits and the Morton code of
+     * the cell within its tile the low 12 bits.
+     */
+    private long bitIndex(int x, int y) {
+        long dx = (long) x - minX;
+        long dy = (long) y - minY;
+        if (dx < 0 || dy < 0 || dx >= width || dy >= height) {
+            return -1;
+        }
+        long tile = (dy >>> TILE_SHIFT) * tilesPerRow + (dx >>> TILE_SHIFT);
+        int morton = SPREAD[(int) dx & TILE_MASK] | SPREAD[(int) dy & TILE_MASK] << 1;
+        return tile << (2 * TILE_SHIFT) | morton;
+    }
+}
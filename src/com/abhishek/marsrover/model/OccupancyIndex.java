@@ -0,0 +1,24 @@
+package com.abhishek.marsrover.model;
+
+/*
+ * Interface to represent an index of occupied cells on the plateau.
+ * Cells are addressed by their integer x and y values, so that
+ * lookups and updates do not need any Position or Coordinate object.
+ */
+public interface OccupancyIndex {
+
+    /*
+     * Function to check if a cell is occupied.
+     */
+    boolean isOccupied(int x, int y);
+
+    /*
+     * Function to mark a cell as occupied.
+     */
+    void occupy(int x, int y);
+
+    /*
+     * Function to mark a cell as free.
+     */
+    void release(int x, int y);
+}
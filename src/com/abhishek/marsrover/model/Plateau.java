@@ -1,19 +1,24 @@
 package com.abhishek.marsrover.model;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import com.abhishek.marsrover.data.Direction;
 import com.abhishek.marsrover.data.Position;
 
 /*
  * Class to represent plateau model.
  * It contains maximum position reachable in the plateau,
- * minimum position reachable in the plateau and list of
+ * minimum position reachable in the plateau and an index of
  * positions unavailable. Unavailability is determined by
  * the fact of something being already present at a position. 
  */
 public class Plateau {
 
+    /*
+     * Largest number of cells for which a dense bitset index is used.
+     * 2^28 cells take 32 MB. Larger plateaus use a hash index instead,
+     * whose size only depends on number of unavailable positions.
+     */
+    static final long MAX_DENSE_CELLS = 1L << 28;
+
     /*
      * Top right position that can reached in the plateau.
      */
@@ -25,42 +30,104 @@ public class Plateau {
     private Position minPosition;
 
     /*
-     * List of positions which are unavailable in the plateau.
+     * Index of positions which are unavailable in the plateau.
      * A position is unavailable when something is already
      * present in the position. In the context of the current
      * problem it is always a Rover.
+     * Created on first use when not provided to the constructor.
      */
-    private List<Position> unavailablePositions;
+    private OccupancyIndex unavailablePositions;
+
+    /*
+     * Index of unavailable positions by row and by column, used to
+     * check a whole straight run at once. Created with the index above,
+     * except for a MappedOccupancyIndex, which checks runs on its bitmap
+     * so that nothing about unavailable positions is kept on the heap.
+     */
+    private LineOccupancyIndex unavailableLines;
 
     /*
      * Public constructor
      */
     public Plateau(Position minPosition, Position maxPosition) {
+        this(minPosition, maxPosition, null);
+    }
+
+    /*
+     * Public constructor with a given index of unavailable positions.
+     */
+    public Plateau(Position minPosition, Position maxPosition, OccupancyIndex unavailablePositions) {
         this.minPosition = minPosition;
         this.maxPosition = maxPosition;
-        unavailablePositions = new ArrayList<>();
+        this.unavailablePositions = unavailablePositions;
     }
 
     /*
-     * Public function to add a position to the list of
+     * Public function to add a position to the index of
      * unavailable positions.
      */
     public void addUnavailablePosition(Position position) {
-        unavailablePositions.add(position.clone());
+        addUnavailablePosition(position.getValue());
     }
 
     /*
-     * Public function to update a position in the list
+     * Public function to add a packed position to the index of
+     * unavailable positions.
+     */
+    public void addUnavailablePosition(long position) {
+        getUnavailablePositions().occupy(Position.x(position), Position.y(position));
+        if (unavailableLines != null) {
+            unavailableLines.occupy(Position.x(position), Position.y(position));
+        }
+    }
+
+    /*
+     * Public function to remove a packed position from the index of
+     * unavailable positions. Used when many rovers move at once, to free
+     * all their previous positions before marking their new ones.
+     */
+    public void removeUnavailablePosition(long position) {
+        OccupancyIndex index = getUnavailablePositions();
+        int x = Position.x(position);
+        int y = Position.y(position);
+        if (!index.isOccupied(x, y)) {
+            throw new RuntimeException("Invalid state of plateau. " +
+                                       "Position is not present in unavailable position list. " +
+                                       "Position: " + Position.toString(position));
+        }
+        index.release(x, y);
+        if (unavailableLines != null) {
+            unavailableLines.release(x, y);
+        }
+    }
+
+    /*
+     * Public function to update a position in the index
      * of unavailable positions.
      */
     public void updateUnavailablePosition(Position prevPosition, Position newPosition) {
-        if (!unavailablePositions.contains(prevPosition)) {
+        updateUnavailablePosition(prevPosition.getValue(), newPosition.getValue());
+    }
+
+    /*
+     * Public function to update a packed position in the index
+     * of unavailable positions.
+     */
+    public void updateUnavailablePosition(long prevPosition, long newPosition) {
+        OccupancyIndex index = getUnavailablePositions();
+        int prevX = Position.x(prevPosition);
+        int prevY = Position.y(prevPosition);
+        if (!index.isOccupied(prevX, prevY)) {
             throw new RuntimeException("Invalid state of plateau. " +
                                        "Previous  is not present in unavailable position list. " +
-                                       "Previous position: " + prevPosition);
+                                       "Previous position: " + Position.toString(prevPosition));
+        }
+        index.release(prevX, prevY);
+        index.occupy(Position.x(newPosition), Position.y(newPosition));
+        if (unavailableLines != null) {
+            unavailableLines.release(prevX, prevY);
+            unavailableLines.occupy(Position.x(newPosition), Position.y(newPosition));
         }
-        unavailablePositions.remove(prevPosition);
-        unavailablePositions.add(newPosition.clone());
     }
 
     /*
@@ -69,12 +136,36 @@ public class Plateau {
      * position.
      */
     public boolean isPositionAvailable(Position position) {
-        for (Position unavailablePosition : unavailablePositions) {
-            if (unavailablePosition.equals(position)) {
-                return false;
-            }
+        return isPositionAvailable(position.getValue());
+    }
+
+    /*
+     * Public function to check if a given packed position is available in plateau.
+     */
+    public boolean isPositionAvailable(long position) {
+        if (unavailablePositions == null) {
+            return true;
         }
-        return true;
+        return !unavailablePositions.isOccupied(Position.x(position), Position.y(position));
+    }
+
+    /*
+     * Public function to find the first unavailable position on a straight
+     * run of steps from a packed position in a given direction. The
+     * starting position itself is not part of the run.
+     * Returns the step at which the run is blocked, from 1 to steps,
+     * or 0 when every position of the run is available.
+     */
+    public int getStepsToUnavailablePosition(long position, Direction direction, int steps) {
+        if (unavailablePositions instanceof MappedOccupancyIndex) {
+            return ((MappedOccupancyIndex) unavailablePositions)
+                .getStepsToFirstOccupied(Position.x(position), Position.y(position), direction, steps);
+        }
+        if (unavailableLines == null) {
+            return 0;
+        }
+        return unavailableLines.getStepsToFirstOccupied(Position.x(position), Position.y(position),
+                                                        direction, steps);
     }
 
     /*
@@ -83,16 +174,94 @@ public class Plateau {
      * maximum and minimum positions in the plateau.
      */
     public boolean isPositionReachable(Position position) {
-        if (position.getXCoordinate().compareTo(maxPosition.getXCoordinate()) > 0 ||
-            position.getYCoordinate().compareTo(maxPosition.getYCoordinate()) > 0 ||
-            position.getXCoordinate().compareTo(minPosition.getXCoordinate()) < 0 ||
-            position.getYCoordinate().compareTo(minPosition.getYCoordinate()) < 0)
+        return isPositionReachable(position.getValue());
+    }
+
+    /*
+     * Public function to check is a given packed position is reachable in plateau.
+     */
+    public boolean isPositionReachable(long position) {
+        int x = Position.x(position);
+        int y = Position.y(position);
+        if (x > maxPosition.getX() ||
+            y > maxPosition.getY() ||
+            x < minPosition.getX() ||
+            y < minPosition.getY())
         {
             return false;
         }
         return true;
     }
 
+    /*
+     * Public function to check if every position of a rectangular area
+     * is reachable in plateau. Bounds are inclusive and given as longs,
+     * so that areas computed from long offsets cannot overflow.
+     */
+    public boolean isAreaReachable(long minX, long minY, long maxX, long maxY) {
+        return minX >= minPosition.getX() && minY >= minPosition.getY() &&
+               maxX <= maxPosition.getX() && maxY <= maxPosition.getY();
+    }
+
+    /*
+     * Public function to get the number of steps which can be made from
+     * a packed position in a given direction before leaving the plateau.
+     * This is a range check for a whole straight run: a run of k steps
+     * from a reachable position stays on the plateau iff k is not greater
+     * than the returned distance. Negative if the position is not reachable.
+     */
+    public long getDistanceToEdge(long position, Direction direction) {
+        if (!isPositionReachable(position)) {
+            return -1;
+        }
+        switch (direction) {
+        case N:
+            return (long) maxPosition.getY() - Position.y(position);
+        case E:
+            return (long) maxPosition.getX() - Position.x(position);
+        case S:
+            return (long) Position.y(position) - minPosition.getY();
+        default:
+            return (long) Position.x(position) - minPosition.getX();
+        }
+    }
+
+    /*
+     * Private function to get the index of unavailable positions.
+     * A dense bitset is chosen when the plateau is small enough,
+     * otherwise a hash index keyed on packed coordinates.
+     */
+    private OccupancyIndex getUnavailablePositions() {
+        if (unavailableLines == null && !(unavailablePositions instanceof MappedOccupancyIndex)) {
+            unavailableLines = new LineOccupancyIndex(minPosition.getX(), minPosition.getY(),
+                                                      maxPosition.getX(), maxPosition.getY());
+        }
+        if (unavailablePositions == null) {
+            int minX = minPosition.getX();
+            int minY = minPosition.getY();
+            int maxX = maxPosition.getX();
+            int maxY = maxPosition.getY();
+            long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+            if (cells > 0 && cells <= MAX_DENSE_CELLS) {
+                unavailablePositions = new BitSetOccupancyIndex(minX, minY, maxX, maxY);
+            } else {
+                unavailablePositions = new HashOccupancyIndex();
+            }
+        }
+        return unavailablePositions;
+    }
+
+    /*
+     * Getter functions.
+     */
+    public Position getMinPosition() {
+        return minPosition;
+    }
+
+    public Position getMaxPosition() {
+        return maxPosition;
+    }
+
     @Override
     public String toString() {
         return "[ (" + minPosition + ") ... (" + maxPosition + ") ]";
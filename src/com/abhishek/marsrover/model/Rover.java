@@ -2,6 +2,7 @@ package com.abhishek.marsrover.model;
 
 import com.abhishek.marsrover.data.Direction;
 import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.data.TransitionTable;
 import com.abhishek.marsrover.exceptions.InvalidInputException;
 import com.abhishek.marsrover.exceptions.WrongCommandException;
 
@@ -13,9 +14,9 @@ import com.abhishek.marsrover.exceptions.WrongCommandException;
 public class Rover {
 
     /*
-     * Position of the rover.
+     * Position of the rover, packed as in Position.pack.
      */
-    private Position position;
+    private long position;
 
     /*
      * Direction of heading of the rover.
@@ -26,7 +27,7 @@ public class Rover {
      * Public constructor.
      */
     public Rover(Position position, Direction direction) {
-        this.position = position;
+        this.position = position.getValue();
         this.direction = direction;
     }
 
@@ -34,6 +35,14 @@ public class Rover {
      * Public function to get current position of rover.
      */
     public Position getPosition() {
+        return new Position(position);
+    }
+
+    /*
+     * Public function to get current position of rover packed into a long.
+     * Unlike getPosition, this does not allocate.
+     */
+    public long getPackedPosition() {
         return position;
     }
 
@@ -46,25 +55,45 @@ public class Rover {
 
     /*
      * Public function to execute a command.
+     * The next direction and the step of the command are looked up
+     * together, see TransitionTable.
      */
     public void execute(char c) throws WrongCommandException, InvalidInputException {
-        switch(c) {
-        case 'L':
-            direction = direction.turnLeft();
-            break;
-        case 'R':
-            direction = direction.turnRight();
-            break;
-        case 'M':
-            position.move(direction);
-            break;
-        default:
+        int transition = TransitionTable.forCommand(direction.ordinal(), c);
+        if (TransitionTable.isError(transition)) {
             throw new WrongCommandException("Wrong command : " + c);
         }
+        direction = Direction.getDirectionFromValue(TransitionTable.getHeading(transition));
+        position = Position.pack(Position.x(position) + TransitionTable.getStepX(transition),
+                                 Position.y(position) + TransitionTable.getStepY(transition));
+    }
+
+    /*
+     * Public function to turn right a number of quarter turns.
+     * Negative values turn left.
+     */
+    public void turn(int quarterTurns) {
+        direction = direction.rotate(quarterTurns);
+    }
+
+    /*
+     * Public function to move forward a number of steps
+     * in the current direction.
+     */
+    public void move(int steps) throws InvalidInputException {
+        position = Position.move(position, direction, steps);
+    }
+
+    /*
+     * Public function to place the rover at a packed position,
+     * keeping its direction.
+     */
+    public void moveTo(long position) {
+        this.position = position;
     }
 
     @Override
     public String toString() {
-        return position.toString() + " " + direction.name();
+        return Position.toString(position) + " " + direction.name();
     }
 }
@@ -0,0 +1,192 @@
+package com.abhishek.marsrover.model;
+
+import java.util.Arrays;
+
+/*
+ * Occupancy index of cells with long coordinates, backed by an open
+ * addressing hash set of primitive x and y pairs kept in two parallel
+ * arrays. Memory only grows with the number of occupied cells, two
+ * longs per slot, whatever the size of the plateau.
+ * Collisions are resolved with linear probing and removals use
+ * backward shifting, as in HashOccupancyIndex.
+ *
+ * Long.MIN_VALUE marks an empty slot, so it is not a valid x value.
+ */
+public class WideOccupancyIndex {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*
+     * Slots of the hash set. Length is always a power of two.
+     */
+    private long[] xs;
+    private long[] ys;
+
+    /*
+     * Number of occupied cells.
+     */
+    private int size;
+
+    /*
+     * Public constructor.
+     */
+    public WideOccupancyIndex() {
+        xs = newTable(DEFAULT_CAPACITY);
+        ys = new long[DEFAULT_CAPACITY];
+    }
+
+    /*
+     * Function to check if a cell is occupied.
+     */
+    public boolean isOccupied(long x, long y) {
+        int mask = xs.length - 1;
+        for (int slot = slot(x, y, mask); xs[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (xs[slot] == x && ys[slot] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Function to mark a cell as occupied.
+     * Returns false if it was already occupied.
+     */
+    public boolean occupy(long x, long y) {
+        if (x == EMPTY) {
+            throw new IllegalArgumentException("Invalid x value: " + x);
+        }
+        if (!insert(xs, ys, x, y)) {
+            return false;
+        }
+        size++;
+        if (size * 2 > xs.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /*
+     * Function to mark a cell as free.
+     * Returns false if it was not occupied.
+     */
+    public boolean release(long x, long y) {
+        int mask = xs.length - 1;
+        int slot = slot(x, y, mask);
+        while (xs[slot] != x || ys[slot] != y) {
+            if (xs[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // shift back following entries of the same probe run,
+        // so that lookups never stop early at the freed slot.
+        int gap = slot;
+        for (int next = (gap + 1) & mask; xs[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(xs[next], ys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                xs[gap] = xs[next];
+                ys[gap] = ys[next];
+                gap = next;
+            }
+        }
+        xs[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /*
+     * Function to find the first occupied cell on a straight run of
+     * steps from a cell, moving by (stepX, stepY) each step. The start
+     * cell is not part of the run. Returns the step at which the run is
+     * blocked, or 0. A run longer than the number of occupied cells is
+     * checked by visiting every occupied cell instead of every step.
+     */
+    public long getStepsToFirstOccupied(long x, long y, int stepX, int stepY, long steps) {
+        if (size == 0 || steps <= 0) {
+            return 0;
+        }
+        if (steps <= size) {
+            for (long step = 1; step <= steps; step++) {
+                if (isOccupied(x + stepX * step, y + stepY * step)) {
+                    return step;
+                }
+            }
+            return 0;
+        }
+        long first = 0;
+        for (int slot = 0; slot < xs.length; slot++) {
+            if (xs[slot] == EMPTY) {
+                continue;
+            }
+            // distance along the run, when the cell is on the line of the run.
+            long step;
+            if (stepX != 0) {
+                step = ys[slot] == y ? (xs[slot] - x) * stepX : 0;
+            } else {
+                step = xs[slot] == x ? (ys[slot] - y) * stepY : 0;
+            }
+            if (step > 0 && step <= steps && (first == 0 || step < first)) {
+                first = step;
+            }
+        }
+        return first;
+    }
+
+    /*
+     * Function to get number of occupied cells.
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Private function to double the number of slots.
+     */
+    private void grow() {
+        long[] newXs = newTable(xs.length << 1);
+        long[] newYs = new long[xs.length << 1];
+        for (int slot = 0; slot < xs.length; slot++) {
+            if (xs[slot] != EMPTY) {
+                insert(newXs, newYs, xs[slot], ys[slot]);
+            }
+        }
+        xs = newXs;
+        ys = newYs;
+    }
+
+    /*
+     * Private function to insert a cell into a table.
+     * Returns false if the cell is already present.
+     */
+    private static boolean insert(long[] xs, long[] ys, long x, long y) {
+        int mask = xs.length - 1;
+        for (int slot = slot(x, y, mask); ; slot = (slot + 1) & mask) {
+            if (xs[slot] == EMPTY) {
+                xs[slot] = x;
+                ys[slot] = y;
+                return true;
+            }
+            if (xs[slot] == x && ys[slot] == y) {
+                return false;
+            }
+        }
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /*
+     * Private function to get home slot of a cell.
+     * Bits are mixed so that neighbouring cells spread over the table.
+     */
+    private static int slot(long x, long y, int mask) {
+        long h = (x * 0x9E3779B97F4A7C15L + y) * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,175 @@
+package com.abhishek.marsrover.model;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.TransitionTable;
+
+/*
+ * Class to represent a plateau with long coordinates, for grids far
+ * larger than int coordinates allow, e.g. 10^12 x 10^12 cells.
+ * Nothing is stored per cell: unavailable positions are kept in a
+ * WideOccupancyIndex, so memory only depends on the number of rovers.
+ *
+ * Coordinates are bounded by MAX_COORDINATE, about 4.6 * 10^18, in
+ * absolute value, so that the difference of two coordinates, and a
+ * coordinate plus a run of up to 2^31 steps, always fit in a long. Bound checks then never
+ * overflow.
+ */
+public class WidePlateau {
+
+    /*
+     * Largest absolute value of a coordinate of the plateau.
+     */
+    public static final long MAX_COORDINATE = Long.MAX_VALUE / 2;
+
+    /*
+     * Bottom left and top right positions that can be reached in the plateau.
+     */
+    private final long minX;
+    private final long minY;
+    private final long maxX;
+    private final long maxY;
+
+    /*
+     * Index of positions which are unavailable in the plateau.
+     */
+    private final WideOccupancyIndex unavailablePositions = new WideOccupancyIndex();
+
+    /*
+     * Public constructor.
+     */
+    public WidePlateau(long minX, long minY, long maxX, long maxY) {
+        if (!isValidCoordinate(minX) || !isValidCoordinate(minY) ||
+            !isValidCoordinate(maxX) || !isValidCoordinate(maxY))
+        {
+            throw new IllegalArgumentException("Coordinates of plateau should be between " +
+                                               -MAX_COORDINATE + " and " + MAX_COORDINATE + ".");
+        }
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Bottom left position of plateau should not be " +
+                                               "above or right of its top right position.");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /*
+     * Static function to check if a value can be a coordinate of a plateau.
+     */
+    public static boolean isValidCoordinate(long value) {
+        return value >= -MAX_COORDINATE && value <= MAX_COORDINATE;
+    }
+
+    /*
+     * Public function to add a position to the index of
+     * unavailable positions.
+     */
+    public void addUnavailablePosition(long x, long y) {
+        unavailablePositions.occupy(x, y);
+    }
+
+    /*
+     * Public function to remove a position from the index of
+     * unavailable positions.
+     */
+    public void removeUnavailablePosition(long x, long y) {
+        if (!unavailablePositions.release(x, y)) {
+            throw new RuntimeException("Invalid state of plateau. " +
+                                       "Position is not present in unavailable position list. " +
+                                       "Position: " + x + " " + y);
+        }
+    }
+
+    /*
+     * Public function to update a position in the index
+     * of unavailable positions.
+     */
+    public void updateUnavailablePosition(long prevX, long prevY, long newX, long newY) {
+        if (!unavailablePositions.release(prevX, prevY)) {
+            throw new RuntimeException("Invalid state of plateau. " +
+                                       "Previous  is not present in unavailable position list. " +
+                                       "Previous position: " + prevX + " " + prevY);
+        }
+        unavailablePositions.occupy(newX, newY);
+    }
+
+    /*
+     * Public function to check if a given position is available in plateau.
+     */
+    public boolean isPositionAvailable(long x, long y) {
+        return !unavailablePositions.isOccupied(x, y);
+    }
+
+    /*
+     * Function to get number of unavailable positions.
+     */
+    public int getUnavailablePositionCount() {
+        return unavailablePositions.size();
+    }
+
+    /*
+     * Public function to check is a given position is reachable in plateau.
+     */
+    public boolean isPositionReachable(long x, long y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /*
+     * Public function to get the number of steps which can be made from
+     * a position in a given direction before leaving the plateau, as
+     * Plateau#getDistanceToEdge. Negative if the position is not reachable.
+     */
+    public long getDistanceToEdge(long x, long y, Direction direction) {
+        if (!isPositionReachable(x, y)) {
+            return -1;
+        }
+        switch (direction) {
+        case N:
+            return maxY - y;
+        case E:
+            return maxX - x;
+        case S:
+            return y - minY;
+        default:
+            return x - minX;
+        }
+    }
+
+    /*
+     * Public function to find the first unavailable position on a straight
+     * run of steps from a reachable position in a given direction, as
+     * Plateau#getStepsToUnavailablePosition. The run should stay on the
+     * plateau. Returns the step at which the run is blocked, or 0.
+     */
+    public long getStepsToUnavailablePosition(long x, long y, Direction direction, long steps) {
+        int transition = TransitionTable.forCode(direction.ordinal(), CommandTape.CODE_MOVE);
+        return unavailablePositions.getStepsToFirstOccupied(x, y, TransitionTable.getStepX(transition),
+                                                            TransitionTable.getStepY(transition), steps);
+    }
+
+    /*
+     * Getter functions.
+     */
+    public long getMinX() {
+        return minX;
+    }
+
+    public long getMinY() {
+        return minY;
+    }
+
+    public long getMaxX() {
+        return maxX;
+    }
+
+    public long getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public String toString() {
+        return "[ (" + minX + " " + minY + ") ... (" + maxX + " " + maxY + ") ]";
+    }
+}
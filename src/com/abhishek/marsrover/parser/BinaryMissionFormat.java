@@ -0,0 +1,73 @@
+package com.abhishek.marsrover.parser;
+
+/*
+ * Class to describe the binary mission format, version 2.
+ *
+ *   header   "MRVB", version byte, plateau max x and max y
+ *   rovers   for each rover: tag 1, x, y, direction byte (N 0, E 1, S 2, W 3),
+ *            command count, error flag byte, and if the flag is 1 the error
+ *            command, the length of the rest of the line and its characters,
+ *            then commands packed four to a byte, first command in the
+ *            lowest bits, with the codes of CommandTape
+ *   end      tag 0
+ *
+ * Numbers are zigzag varints: seven bits per byte, lowest first,
+ * with the high bit set on every byte but the last. Counts, lengths and
+ * characters are plain varints. The commands before the first invalid
+ * command are packed, as in CommandTape, and the rest of the line is kept
+ * as characters, so a line which fails in text fails the same way in
+ * binary. Error flag 2 marks a missing command line, with no commands.
+ *
+ * Version 1 is read as well: it has no rest of the line and no flag 2.
+ */
+public final class BinaryMissionFormat {
+
+    /*
+     * Bytes starting every binary mission file.
+     */
+    public static final byte[] MAGIC = { 'M', 'R', 'V', 'B' };
+
+    /*
+     * Version written by BinaryMissionWriter.
+     */
+    public static final int VERSION = 2;
+
+    /*
+     * Oldest version read by BinaryMissionReader.
+     */
+    static final int MIN_VERSION = 1;
+
+    /*
+     * Tags of records.
+     */
+    static final int TAG_END = 0;
+    static final int TAG_ROVER = 1;
+
+    /*
+     * Values of the error flag of a rover record.
+     */
+    static final int FLAG_VALID = 0;
+    static final int FLAG_ERROR = 1;
+    static final int FLAG_MISSING = 2;
+
+    /*
+     * Private constructor, class only holds constants.
+     */
+    private BinaryMissionFormat() {
+    }
+
+    /*
+     * Static function to check if bytes start with the magic of the format.
+     */
+    public static boolean hasMagic(byte[] bytes, int length) {
+        if (length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
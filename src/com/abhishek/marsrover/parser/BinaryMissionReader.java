@@ -0,0 +1,223 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+/*
+ * Class to read a mission in the binary mission format and report it to
+ * a handler. Nothing is tokenized: numbers are decoded from varints and
+ * command tapes are rebuilt from their packed bytes, so rovers are
+ * handed over as CommandTape without going through text. Only a line
+ * with characters after its invalid command is handed over as a String,
+ * the whole line, so that it is checked as in a text mission.
+ */
+public class BinaryMissionReader {
+
+    /*
+     * Directions by their byte in the format.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /*
+     * Path of the mission file.
+     */
+    private final Path path;
+
+    /*
+     * Public constructor.
+     */
+    public BinaryMissionReader(Path path) {
+        this.path = path;
+    }
+
+    /*
+     * Static function to check if a file is a binary mission, from its first bytes.
+     */
+    public static boolean isBinaryMission(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            byte[] bytes = new byte[BinaryMissionFormat.MAGIC.length];
+            int length = 0;
+            while (length < bytes.length) {
+                int read = input.read(bytes, length, bytes.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+            return BinaryMissionFormat.hasMagic(bytes, length);
+        }
+    }
+
+    /*
+     * Public function to read the mission file and report its contents
+     * to a handler. Files are mapped in one piece, so they can be at most 2 GB.
+     */
+    public void parse(MissionHandler handler) throws IOException,
+        InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidInputException("Mission file is too large to be mapped: " + path +
+                                                " (" + size + " bytes).");
+            }
+            parse(channel.map(MapMode.READ_ONLY, 0, size), handler);
+        }
+    }
+
+    /*
+     * Public function to read a binary mission held in a buffer.
+     */
+    public static void parse(ByteBuffer buffer, MissionHandler handler)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        Cursor cursor = new Cursor(buffer);
+        for (int i = 0; i < BinaryMissionFormat.MAGIC.length; i++) {
+            if (cursor.readByte() != BinaryMissionFormat.MAGIC[i]) {
+                throw new InvalidInputException("Not a binary mission: magic bytes do not match.");
+            }
+        }
+        int version = cursor.readByte();
+        if (version < BinaryMissionFormat.MIN_VERSION || version > BinaryMissionFormat.VERSION) {
+            throw new InvalidInputException("Unsupported binary mission version: " + version);
+        }
+        handler.onPlateau(cursor.readSigned(), cursor.readSigned());
+
+        int roverIndex = 1;
+        int tag = cursor.readUnsigned();
+        while (tag == BinaryMissionFormat.TAG_ROVER) {
+            int x = cursor.readSigned();
+            int y = cursor.readSigned();
+            Direction direction = cursor.readDirection();
+            handler.onRover(roverIndex, x, y, direction, cursor.readCommands(version));
+            roverIndex++;
+            tag = cursor.readUnsigned();
+        }
+        if (tag != BinaryMissionFormat.TAG_END) {
+            throw new InvalidInputException("Unknown record tag " + tag + " at byte " + cursor.position);
+        }
+    }
+
+    /*
+     * Class to keep track of the next byte to decode.
+     */
+    private static final class Cursor {
+
+        private final ByteBuffer buffer;
+
+        /*
+         * Index of the next byte to read.
+         */
+        private int position;
+
+        Cursor(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() throws InvalidInputException {
+            if (position >= buffer.limit()) {
+                throw new InvalidInputException("Binary mission is truncated at byte " + position);
+            }
+            return buffer.get(position++) & 0xFF;
+        }
+
+        int readUnsigned() throws InvalidInputException {
+            int start = position;
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new InvalidInputException("Varint is longer than five bytes at byte " + start);
+        }
+
+        int readSigned() throws InvalidInputException {
+            int value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        Direction readDirection() throws InvalidInputException {
+            int value = readByte();
+            if (value > 3) {
+                throw new InvalidInputException("Invalid direction " + value + " at byte " + (position - 1));
+            }
+            return DIRECTIONS[value];
+        }
+
+        CharSequence readCommands(int version) throws InvalidInputException {
+            int start = position;
+            int commandCount = readUnsigned();
+            if (commandCount < 0) {
+                throw new InvalidInputException("Invalid command count at byte " + start);
+            }
+            int flag = readByte();
+            if (flag == BinaryMissionFormat.FLAG_MISSING && version > 1 && commandCount == 0) {
+                return null;
+            }
+            if (flag != BinaryMissionFormat.FLAG_VALID && flag != BinaryMissionFormat.FLAG_ERROR) {
+                throw new InvalidInputException("Invalid error flag " + flag + " at byte " + (position - 1));
+            }
+            boolean error = flag == BinaryMissionFormat.FLAG_ERROR;
+            char errorCommand = '\0';
+            String rest = "";
+            if (error) {
+                errorCommand = readChar(start);
+                if (version > 1) {
+                    rest = readString(start);
+                }
+            }
+            int byteCount = (int) ((commandCount + 3L) / 4);
+            if (byteCount > buffer.limit() - position) {
+                throw new InvalidInputException("Binary mission is truncated at byte " + buffer.limit());
+            }
+            long[] words = new long[(byteCount + 7) / 8];
+            for (int i = 0; i < byteCount; i++) {
+                words[i / 8] |= (long) (buffer.get(position++) & 0xFF) << (8 * (i % 8));
+            }
+            CommandTape tape;
+            try {
+                tape = CommandTape.fromWords(words, commandCount, error, errorCommand);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidInputException("Invalid commands of rover record at byte " + start +
+                                                ": " + e.getMessage());
+            }
+            return rest.isEmpty() ? tape : tape + rest;
+        }
+
+        private char readChar(int start) throws InvalidInputException {
+            int value = readUnsigned();
+            if (value < 0 || value > Character.MAX_VALUE) {
+                throw new InvalidInputException("Invalid character in rover record at byte " + start);
+            }
+            return (char) value;
+        }
+
+        private String readString(int start) throws InvalidInputException {
+            int length = readUnsigned();
+            // every character takes at least a byte.
+            if (length < 0 || length > buffer.limit() - position) {
+                throw new InvalidInputException("Binary mission is truncated at byte " + buffer.limit());
+            }
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = readChar(start);
+            }
+            return new String(chars);
+        }
+    }
+}
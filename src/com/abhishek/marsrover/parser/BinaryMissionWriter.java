@@ -0,0 +1,115 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Class to write a mission in the binary mission format.
+ * It is a mission handler, so any parser can convert a mission by
+ * reporting it to a writer. See BinaryMissionFormat for the layout.
+ * The end tag is written on close.
+ */
+public class BinaryMissionWriter implements MissionHandler, Closeable {
+
+    /*
+     * Stream to write to. Writes are byte by byte, so it should be buffered.
+     */
+    private final OutputStream output;
+
+    /*
+     * Whether the header has been written.
+     */
+    private boolean plateauWritten;
+
+    /*
+     * Public constructor.
+     */
+    public BinaryMissionWriter(OutputStream output) {
+        this.output = output;
+    }
+
+    /*
+     * Public function to write the header with the plateau bounds.
+     */
+    @Override
+    public void onPlateau(int maxX, int maxY) {
+        try {
+            output.write(BinaryMissionFormat.MAGIC);
+            output.write(BinaryMissionFormat.VERSION);
+            writeSigned(maxX);
+            writeSigned(maxY);
+            plateauWritten = true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to write a rover record. The characters after an
+     * invalid command are written as they are, so that the line can be
+     * read back whole.
+     */
+    @Override
+    public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands) {
+        if (!plateauWritten) {
+            throw new IllegalStateException("Plateau should be written before rovers.");
+        }
+        try {
+            writeUnsigned(BinaryMissionFormat.TAG_ROVER);
+            writeSigned(x);
+            writeSigned(y);
+            output.write(direction.ordinal());
+            if (commands == null) {
+                writeUnsigned(0);
+                output.write(BinaryMissionFormat.FLAG_MISSING);
+                return;
+            }
+            CommandTape tape = CommandTape.of(commands);
+            writeUnsigned(tape.getCommandCount());
+            if (tape.hasError()) {
+                output.write(BinaryMissionFormat.FLAG_ERROR);
+                writeUnsigned(tape.getErrorCommand());
+                writeUnsigned(commands.length() - tape.length());
+                for (int i = tape.length(); i < commands.length(); i++) {
+                    writeUnsigned(commands.charAt(i));
+                }
+            } else {
+                output.write(BinaryMissionFormat.FLAG_VALID);
+            }
+            int byteCount = (tape.getCommandCount() + 3) / 4;
+            for (int i = 0; i < byteCount; i++) {
+                output.write((int) (tape.getWord(i / 8) >>> (8 * (i % 8))));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to write the end tag and close the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeUnsigned(BinaryMissionFormat.TAG_END);
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeSigned(int value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 31));
+    }
+
+    private void writeUnsigned(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+}
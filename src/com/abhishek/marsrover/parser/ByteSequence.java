@@ -0,0 +1,96 @@
+package com.abhishek.marsrover.parser;
+
+import java.nio.ByteBuffer;
+
+import com.abhishek.marsrover.data.CommandTape;
+
+/*
+ * Class to view a range of bytes of a buffer as a sequence of ASCII characters.
+ * No bytes are copied, so a command line in a memory mapped file can
+ * be handed to the simulator without creating a String.
+ */
+public final class ByteSequence implements CharSequence {
+
+    /*
+     * Buffer holding the bytes. Only absolute gets are used, so the
+     * buffer position is never changed.
+     */
+    private final ByteBuffer buffer;
+
+    /*
+     * Index of the first byte and number of bytes.
+     */
+    private final int offset;
+    private final int length;
+
+    /*
+     * Public constructor.
+     */
+    public ByteSequence(ByteBuffer buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length +
+                                                ", limit: " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /*
+     * Function to get index of the first byte in the buffer.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    /*
+     * Function to get a byte without converting it to a char.
+     */
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return buffer.get(offset + index);
+    }
+
+    /*
+     * Function to pack the bytes as commands into a tape, many bytes
+     * at a time. See CommandTape#of(ByteBuffer, int, int).
+     */
+    public CommandTape toCommandTape() {
+        return CommandTape.of(buffer, offset, length);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new ByteSequence(buffer, offset + start, end - start);
+    }
+
+    /*
+     * Function to copy the bytes into a String.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) (buffer.get(offset + i) & 0xFF));
+        }
+        return builder.toString();
+    }
+}
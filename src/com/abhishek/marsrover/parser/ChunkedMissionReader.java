@@ -0,0 +1,196 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+
+/*
+ * Class to read a mission from a channel through one fixed size buffer.
+ * Plateau and rover lines are short and read whole. Command lines are
+ * read in chunks, each a view on the buffer, so that a command line of
+ * any length can be executed while it is read, with bounded memory.
+ */
+public class ChunkedMissionReader {
+
+    /*
+     * Default size of the buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /*
+     * Channel to read from.
+     */
+    private final ReadableByteChannel channel;
+
+    /*
+     * Buffer of bytes read but not consumed yet, between
+     * position and limit of the buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /*
+     * Whether the channel has no more bytes.
+     */
+    private boolean endOfInput;
+
+    /*
+     * Whether a command line is being read and has not ended yet.
+     */
+    private boolean inCommandLine;
+
+    /*
+     * Public constructor with default buffer size.
+     */
+    public ChunkedMissionReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /*
+     * Public constructor. Plateau and rover lines must fit in the buffer.
+     */
+    public ChunkedMissionReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /*
+     * Public function to read a whole line, without line terminator.
+     * Returns null at the end of the input.
+     */
+    public String readLine() throws IOException, InvalidInputException {
+        if (inCommandLine) {
+            throw new IllegalStateException("Command line has not been read to its end.");
+        }
+        int scanned = 0;
+        while (true) {
+            int start = buffer.position();
+            int end = indexOfLineFeed(start + scanned);
+            if (end >= 0) {
+                String line = decode(start, withoutCarriageReturn(start, end));
+                buffer.position(end + 1);
+                return line;
+            }
+            if (buffer.remaining() == buffer.capacity()) {
+                throw new InvalidInputException("Line is longer than " + buffer.capacity() + " bytes.");
+            }
+            scanned = buffer.remaining();
+            if (!fill()) {
+                if (!buffer.hasRemaining()) {
+                    return null;
+                }
+                String line = decode(start, withoutCarriageReturn(start, buffer.limit()));
+                buffer.position(buffer.limit());
+                return line;
+            }
+        }
+    }
+
+    /*
+     * Public function to start reading a command line.
+     * Returns false at the end of the input, when the line is missing.
+     */
+    public boolean beginCommandLine() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return false;
+        }
+        inCommandLine = true;
+        return true;
+    }
+
+    /*
+     * Public function to read the next chunk of the current command line.
+     * The chunk is a view on the buffer, valid until the next call.
+     * Returns null when the command line has ended.
+     */
+    public ByteSequence nextCommandChunk() throws IOException {
+        while (inCommandLine) {
+            int start = buffer.position();
+            int end = indexOfLineFeed(start);
+            if (end >= 0) {
+                buffer.position(end + 1);
+                inCommandLine = false;
+                end = withoutCarriageReturn(start, end);
+                return end > start ? new ByteSequence(buffer, start, end - start) : null;
+            }
+            end = buffer.limit();
+            if (endOfInput) {
+                buffer.position(end);
+                inCommandLine = false;
+                end = withoutCarriageReturn(start, end);
+                return end > start ? new ByteSequence(buffer, start, end - start) : null;
+            }
+            if (end > start && buffer.get(end - 1) != '\r') {
+                buffer.position(end);
+                return new ByteSequence(buffer, start, end - start);
+            }
+            // a trailing carriage return may be part of a line terminator, keep it for the next chunk.
+            if (end - 1 > start) {
+                buffer.position(end - 1);
+                return new ByteSequence(buffer, start, end - 1 - start);
+            }
+            if (!fill()) {
+                inCommandLine = false;
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Private function to find the next line feed from the index.
+     * Returns -1 when the buffer has no line feed.
+     */
+    private int indexOfLineFeed(int from) {
+        for (int i = from; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Private function to drop a carriage return ending the line.
+     */
+    private int withoutCarriageReturn(int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    /*
+     * Private function to read more bytes into the buffer, keeping
+     * the bytes not consumed yet. Returns false at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.compact();
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    endOfInput = true;
+                    break;
+                }
+                if (read > 0) {
+                    break;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return buffer.hasRemaining() || !endOfInput;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
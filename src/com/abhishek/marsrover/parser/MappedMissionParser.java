@@ -0,0 +1,286 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+/*
+ * Class to parse a mission file by memory mapping it and scanning its bytes.
+ * Numbers and headings are parsed in place without creating Strings, and
+ * command lines are handed over as views on the mapping. The file layout
+ * is the same as for input.dat: lines are split on whitespace as by
+ * String.split, so leading whitespace is an error and trailing whitespace
+ * is ignored. Errors report the line and column where parsing failed.
+ */
+public class MappedMissionParser {
+
+    /*
+     * Path of the mission file.
+     */
+    private final Path path;
+
+    /*
+     * Public constructor.
+     */
+    public MappedMissionParser(Path path) {
+        this.path = path;
+    }
+
+    /*
+     * Public function to parse the mission file and report its
+     * contents to a handler. Files are mapped in one piece, so they
+     * can be at most 2 GB; larger feeds can use the streaming mode.
+     */
+    public void parse(MissionHandler handler) throws IOException,
+        InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidInputException("Mission file is too large to be mapped: " + path +
+                                                " (" + size + " bytes). Use streaming mode instead.");
+            }
+            // the mapping stays valid after the channel is closed.
+            parse(channel.map(MapMode.READ_ONLY, 0, size), handler);
+        }
+    }
+
+    /*
+     * Public function to parse a mission held in a buffer.
+     */
+    public static void parse(ByteBuffer buffer, MissionHandler handler)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        Cursor cursor = new Cursor(buffer, 0, buffer.limit(), 1);
+        cursor.parsePlateau(handler);
+        cursor.parseRovers(handler, 1);
+    }
+
+    /*
+     * Class to keep track of the current line while scanning a buffer.
+     */
+    static final class Cursor {
+
+        /*
+         * Context of the values of the plateau line, in place of a rover index.
+         */
+        private static final int PLATEAU = 0;
+
+        private final ByteBuffer buffer;
+        private final int limit;
+
+        /*
+         * Index of the next byte to read.
+         */
+        private int position;
+
+        /*
+         * Number of the current line, from 1.
+         */
+        private int line;
+
+        /*
+         * First byte of the current line, end of its content (before
+         * any line terminator) and first byte of the next line.
+         */
+        private int lineStart;
+        private int lineEnd;
+        private int nextLineStart;
+
+        /*
+         * Constructor for a cursor on the bytes from start to limit,
+         * where the byte at start is the first byte of line number line.
+         */
+        Cursor(ByteBuffer buffer, int start, int limit, int line) {
+            this.buffer = buffer;
+            this.limit = limit;
+            this.position = start;
+            this.nextLineStart = start;
+            this.line = line - 1;
+        }
+
+        /*
+         * Function to parse the plateau line.
+         */
+        void parsePlateau(MissionHandler handler) throws InvalidInputException {
+            if (!nextLine() || lineEnd == lineStart) {
+                throw new InvalidInputException("Line to define plateau is null or empty.");
+            }
+            int maxX = parseInt(PLATEAU);
+            skipSeparator(PLATEAU);
+            int maxY = parseInt(PLATEAU);
+            skipTrailingSpaces(PLATEAU);
+            handler.onPlateau(maxX, maxY);
+        }
+
+        /*
+         * Function to parse rover records until an empty line or the limit.
+         * Returns true if parsing stopped at an empty line, which ends
+         * the list of rovers.
+         */
+        boolean parseRovers(MissionHandler handler, int firstRoverIndex)
+            throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+        {
+            int roverIndex = firstRoverIndex;
+            while (nextLine()) {
+                if (lineEnd == lineStart) {
+                    return true;
+                }
+                int x = parseInt(roverIndex);
+                skipSeparator(roverIndex);
+                int y = parseInt(roverIndex);
+                skipSeparator(roverIndex);
+                Direction direction = parseDirection(roverIndex);
+                skipTrailingSpaces(roverIndex);
+
+                CharSequence commands = null;
+                if (nextLine()) {
+                    commands = new ByteSequence(buffer, lineStart, lineEnd - lineStart);
+                }
+                handler.onRover(roverIndex, x, y, direction, commands);
+                roverIndex++;
+            }
+            return false;
+        }
+
+        /*
+         * Function to get the first byte after the current line.
+         */
+        int getNextLineStart() {
+            return nextLineStart;
+        }
+
+        /*
+         * Function to move to the next line. Returns false at the limit.
+         */
+        boolean nextLine() {
+            if (nextLineStart >= limit) {
+                return false;
+            }
+            line++;
+            lineStart = nextLineStart;
+            position = lineStart;
+            int end = lineStart;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            nextLineStart = end < limit ? end + 1 : limit;
+            if (end > lineStart && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            lineEnd = end;
+            return true;
+        }
+
+        /*
+         * Function to parse an optionally signed decimal int ending at
+         * whitespace or at the end of the line.
+         */
+        int parseInt(int context) throws InvalidInputException {
+            int start = position;
+            boolean negative = false;
+            if (position < lineEnd && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negative = buffer.get(position) == '-';
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < lineEnd && isDigit(buffer.get(position))) {
+                value = value * 10 + (buffer.get(position) - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw error(context, start, "number is out of range");
+                }
+                position++;
+                digits++;
+            }
+            if (digits == 0 || (position < lineEnd && !isSpace(buffer.get(position)))) {
+                throw error(context, start, "expected a number");
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw error(context, start, "number is out of range");
+            }
+            return (int) value;
+        }
+
+        /*
+         * Function to parse a heading made of one of the letters N, E, S or W.
+         */
+        Direction parseDirection(int context) throws InvalidInputException {
+            int start = position;
+            if (position < lineEnd && (position + 1 == lineEnd || isSpace(buffer.get(position + 1)))) {
+                switch (buffer.get(position)) {
+                case 'N':
+                    position++;
+                    return Direction.N;
+                case 'E':
+                    position++;
+                    return Direction.E;
+                case 'S':
+                    position++;
+                    return Direction.S;
+                case 'W':
+                    position++;
+                    return Direction.W;
+                default:
+                    break;
+                }
+            }
+            throw error(context, start, "unknown direction");
+        }
+
+        /*
+         * Function to skip whitespace between two values.
+         */
+        void skipSeparator(int context) throws InvalidInputException {
+            int start = position;
+            while (position < lineEnd && isSpace(buffer.get(position))) {
+                position++;
+            }
+            if (position == start || position == lineEnd) {
+                throw error(context, position, "expected another value");
+            }
+        }
+
+        /*
+         * Function to skip whitespace up to the end of the line.
+         */
+        void skipTrailingSpaces(int context) throws InvalidInputException {
+            while (position < lineEnd && isSpace(buffer.get(position))) {
+                position++;
+            }
+            if (position != lineEnd) {
+                throw error(context, position, "unexpected value");
+            }
+        }
+
+        /*
+         * Function to create the error of a value, the message of which is
+         * only built here so that valid lines do not allocate. Context is
+         * the index of the rover of the line, or PLATEAU.
+         */
+        private InvalidInputException error(int context, int at, String reason) {
+            String values = context == PLATEAU ? "Invalid values of upper right coordinates"
+                                               : "Invalid information to initialize rover #" + context;
+            return new InvalidInputException(values + " at line " + line + ", column " +
+                                             (at - lineStart + 1) + ": " + reason + ". Line: " +
+                                             new ByteSequence(buffer, lineStart, lineEnd - lineStart));
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\f' || b == 0x0B;
+        }
+    }
+}
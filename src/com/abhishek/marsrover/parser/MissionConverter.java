@@ -0,0 +1,69 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+/*
+ * Class to convert missions between the text layout of input.dat
+ * and the binary mission format, in either direction.
+ */
+public class MissionConverter {
+
+    /*
+     * Static function to convert a text mission to a binary mission.
+     */
+    public static void toBinary(Path textFile, Path binaryFile) throws IOException,
+        InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try (BinaryMissionWriter writer = new BinaryMissionWriter(
+                 new BufferedOutputStream(Files.newOutputStream(binaryFile)))) {
+            new MappedMissionParser(textFile).parse(writer);
+        }
+    }
+
+    /*
+     * Static function to convert a binary mission to a text mission.
+     */
+    public static void toText(Path binaryFile, Path textFile) throws IOException,
+        InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try (TextMissionWriter writer = new TextMissionWriter(new BufferedWriter(
+                 new OutputStreamWriter(Files.newOutputStream(textFile), StandardCharsets.ISO_8859_1)))) {
+            new BinaryMissionReader(binaryFile).parse(writer);
+        }
+    }
+
+    /*
+     * Main function.
+     * Converts the first file to the second one. The direction of
+     * conversion is chosen from the first bytes of the input file.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: MissionConverter <input-file> <output-file>");
+            return;
+        }
+        try {
+            Path input = Paths.get(args[0]);
+            Path output = Paths.get(args[1]);
+            if (BinaryMissionReader.isBinaryMission(input)) {
+                toText(input, output);
+            } else {
+                toBinary(input, output);
+            }
+        } catch (Exception e) {
+            System.out.println(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
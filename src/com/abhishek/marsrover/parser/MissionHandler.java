@@ -0,0 +1,28 @@
+package com.abhishek.marsrover.parser;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+/*
+ * Interface to receive the contents of a mission from a parser.
+ * The plateau is always reported first, followed by the rovers
+ * in the order in which they appear in the input.
+ */
+public interface MissionHandler {
+
+    /*
+     * Function called with the upper right coordinates of the plateau.
+     */
+    void onPlateau(int maxX, int maxY) throws InvalidInputException;
+
+    /*
+     * Function called for each rover, numbered from 1.
+     * Commands are null when the command line is missing. The sequence
+     * may be a view on the parser's input, so handlers must not expect
+     * it to be a String.
+     */
+    void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException;
+}
@@ -0,0 +1,357 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+/*
+ * Class to parse a large mission file on a fork-join pool.
+ * The file is memory mapped and the rover records, which are every pair
+ * of lines after the plateau line, are split into byte ranges which
+ * start on a rover line. Ranges are parsed and validated in parallel,
+ * and their command lines are packed into tapes on the same threads,
+ * which is most of the work for long command lines. Records are then
+ * handed to the handler in the original order, so that the handler sees
+ * what MappedMissionParser would report, and fails on the same rover,
+ * line and column: a valid command line is handed over as its tape,
+ * and a line with an invalid command, e.g. a space, as its bytes, so
+ * that the handler checks the whole line.
+ */
+public class ParallelMissionParser {
+
+    /*
+     * Smallest number of bytes worth parsing as a separate range.
+     */
+    static final int DEFAULT_MIN_RANGE_SIZE = 1 << 20;
+
+    /*
+     * Number of ranges per thread of the pool, so that threads which
+     * finish early can pick up more work.
+     */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /*
+     * Path of the mission file.
+     */
+    private final Path path;
+
+    /*
+     * Pool to parse ranges on.
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * Public constructor using the common fork-join pool.
+     */
+    public ParallelMissionParser(Path path) {
+        this(path, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Public constructor.
+     */
+    public ParallelMissionParser(Path path, ForkJoinPool pool) {
+        this.path = path;
+        this.pool = pool;
+    }
+
+    /*
+     * Public function to parse the mission file and report its
+     * contents to a handler. Files are mapped in one piece, so they
+     * can be at most 2 GB; larger feeds can use the streaming mode.
+     */
+    public void parse(MissionHandler handler) throws IOException,
+        InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidInputException("Mission file is too large to be mapped: " + path +
+                                                " (" + size + " bytes). Use streaming mode instead.");
+            }
+            parse(channel.map(MapMode.READ_ONLY, 0, size), handler, pool, DEFAULT_MIN_RANGE_SIZE);
+        }
+    }
+
+    /*
+     * Public function to parse a mission held in a buffer, splitting
+     * records into ranges of at least minRangeSize bytes.
+     */
+    public static void parse(ByteBuffer buffer, MissionHandler handler, ForkJoinPool pool, int minRangeSize)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        MappedMissionParser.Cursor cursor = new MappedMissionParser.Cursor(buffer, 0, buffer.limit(), 1);
+        cursor.parsePlateau(handler);
+
+        int recordsStart = Math.min(cursor.getNextLineStart(), buffer.limit());
+        List<Range> ranges = split(buffer, recordsStart, pool, minRangeSize);
+        pool.invoke(new ParseTask(ranges, 0, ranges.size()));
+
+        int roverIndex = 1;
+        for (Range range : ranges) {
+            if (range.firstRoverIndex != roverIndex) {
+                throw new IllegalStateException("Rover ranges are not contiguous: expected rover #" +
+                                                roverIndex + ", got rover #" + range.firstRoverIndex);
+            }
+            if (range.replay(handler)) {
+                return;
+            }
+            roverIndex += range.count;
+        }
+    }
+
+    /*
+     * Private function to split the records of a buffer into ranges.
+     * Raw ranges of equal size are counted for line ends in parallel.
+     * Each boundary is then moved to the start of the next rover line,
+     * which is a line whose number has the same parity as line 2.
+     */
+    private static List<Range> split(ByteBuffer buffer, int recordsStart, ForkJoinPool pool, int minRangeSize) {
+        int limit = buffer.limit();
+        long length = limit - recordsStart;
+        int count = (int) Math.max(1, Math.min(pool.getParallelism() * RANGES_PER_THREAD,
+                                               length / Math.max(1, minRangeSize)));
+        int[] rawStarts = new int[count + 1];
+        for (int i = 0; i <= count; i++) {
+            rawStarts[i] = (int) (recordsStart + length * i / count);
+        }
+        long[] lineEnds = new long[count];
+        pool.invoke(new CountTask(buffer, rawStarts, lineEnds, 0, count));
+
+        List<Range> ranges = new ArrayList<>();
+        int start = recordsStart;
+        long line = 2;
+        long linesBeforeRaw = 0;
+        for (int i = 1; i <= count; i++) {
+            linesBeforeRaw += lineEnds[i - 1];
+            int end = rawStarts[i];
+            long endLine = 2 + linesBeforeRaw;
+            // move to the start of the line following the raw boundary.
+            if (end < limit && end > 0 && buffer.get(end - 1) != '\n') {
+                end = nextLineStart(buffer, end, limit);
+                endLine++;
+            }
+            // command lines have odd distance from line 2, skip them.
+            if (((endLine - 2) & 1) != 0) {
+                end = nextLineStart(buffer, end, limit);
+                endLine++;
+            }
+            if (i == count) {
+                end = limit;
+            }
+            if (end > start || i == count) {
+                if (end < start) {
+                    end = start;
+                }
+                ranges.add(new Range(buffer, start, end, (int) line, (int) ((line - 2) / 2 + 1)));
+                start = end;
+                line = endLine;
+            }
+        }
+        return ranges;
+    }
+
+    /*
+     * Private function to get the first byte after the line containing from.
+     */
+    private static int nextLineStart(ByteBuffer buffer, int from, int limit) {
+        int index = from;
+        while (index < limit && buffer.get(index) != '\n') {
+            index++;
+        }
+        return index < limit ? index + 1 : limit;
+    }
+
+    /*
+     * Task to count line ends of raw ranges.
+     */
+    private static final class CountTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int[] starts;
+        private final long[] counts;
+        private final int from;
+        private final int to;
+
+        CountTask(ByteBuffer buffer, int[] starts, long[] counts, int from, int to) {
+            this.buffer = buffer;
+            this.starts = starts;
+            this.counts = counts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CountTask(buffer, starts, counts, from, middle),
+                          new CountTask(buffer, starts, counts, middle, to));
+                return;
+            }
+            long count = 0;
+            for (int i = starts[from]; i < starts[from + 1]; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            counts[from] = count;
+        }
+    }
+
+    /*
+     * Task to parse a list of ranges.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Range> ranges;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<Range> ranges, int from, int to) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(ranges, from, middle), new ParseTask(ranges, middle, to));
+                return;
+            }
+            if (from < to) {
+                ranges.get(from).parse();
+            }
+        }
+    }
+
+    /*
+     * Class to hold the rover records parsed from one range of bytes.
+     * Records are kept in primitive arrays, and command lines as packed
+     * tapes and offsets into the buffer, until they are replayed to the
+     * handler in order.
+     */
+    private static final class Range implements MissionHandler {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int limit;
+        private final int firstLine;
+        private final int firstRoverIndex;
+
+        private int count;
+        private int[] x = new int[16];
+        private int[] y = new int[16];
+        private Direction[] directions = new Direction[16];
+        private int[] commandStarts = new int[16];
+        private int[] commandLengths = new int[16];
+        private CommandTape[] tapes = new CommandTape[16];
+
+        /*
+         * Whether the range ends with the empty line which ends the rovers.
+         */
+        private boolean terminated;
+
+        /*
+         * Error of the first invalid record of the range, if any.
+         */
+        private InvalidInputException error;
+
+        Range(ByteBuffer buffer, int start, int limit, int firstLine, int firstRoverIndex) {
+            this.buffer = buffer;
+            this.start = start;
+            this.limit = limit;
+            this.firstLine = firstLine;
+            this.firstRoverIndex = firstRoverIndex;
+        }
+
+        void parse() {
+            try {
+                MappedMissionParser.Cursor cursor =
+                    new MappedMissionParser.Cursor(buffer, start, limit, firstLine);
+                terminated = cursor.parseRovers(this, firstRoverIndex);
+            } catch (InvalidInputException e) {
+                error = e;
+            } catch (RoverCollisionException | RoverFallAndCrashException e) {
+                // records are only collected here, so this cannot happen.
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void onPlateau(int maxX, int maxY) {
+            throw new IllegalStateException("Plateau line inside rover records.");
+        }
+
+        @Override
+        public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands) {
+            if (count == this.x.length) {
+                int capacity = count * 2;
+                this.x = Arrays.copyOf(this.x, capacity);
+                this.y = Arrays.copyOf(this.y, capacity);
+                this.directions = Arrays.copyOf(this.directions, capacity);
+                this.commandStarts = Arrays.copyOf(this.commandStarts, capacity);
+                this.commandLengths = Arrays.copyOf(this.commandLengths, capacity);
+                this.tapes = Arrays.copyOf(this.tapes, capacity);
+            }
+            this.x[count] = x;
+            this.y[count] = y;
+            this.directions[count] = direction;
+            if (commands == null) {
+                commandLengths[count] = -1;
+            } else {
+                ByteSequence sequence = (ByteSequence) commands;
+                commandStarts[count] = sequence.getOffset();
+                commandLengths[count] = sequence.length();
+                tapes[count] = sequence.toCommandTape();
+            }
+            count++;
+        }
+
+        /*
+         * Function to hand the records of this range to a handler.
+         * Returns true if no rover follows this range.
+         */
+        boolean replay(MissionHandler handler)
+            throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+        {
+            for (int i = 0; i < count; i++) {
+                CharSequence commands;
+                if (commandLengths[i] < 0) {
+                    commands = null;
+                } else if (!tapes[i].hasError()) {
+                    // a tape without error holds the whole line.
+                    commands = tapes[i];
+                } else {
+                    commands = new ByteSequence(buffer, commandStarts[i], commandLengths[i]);
+                }
+                tapes[i] = null;
+                handler.onRover(firstRoverIndex + i, x[i], y[i], directions[i], commands);
+            }
+            if (error != null) {
+                throw error;
+            }
+            return terminated;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.abhishek.marsrover.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Class to write a mission in the text layout of input.dat.
+ * It is a mission handler, so a binary mission is converted
+ * back to text by reading it into a writer.
+ */
+public class TextMissionWriter implements MissionHandler, Closeable {
+
+    /*
+     * Writer to write to, which should be buffered.
+     */
+    private final Writer output;
+
+    /*
+     * Public constructor.
+     */
+    public TextMissionWriter(Writer output) {
+        this.output = output;
+    }
+
+    /*
+     * Public function to write the line of plateau upper right coordinates.
+     */
+    @Override
+    public void onPlateau(int maxX, int maxY) {
+        try {
+            output.write(maxX + " " + maxY + "\n");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to write the position line and command line of a rover.
+     * A missing command line, which can only end a mission, is not written.
+     */
+    @Override
+    public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands) {
+        try {
+            output.write(x + " " + y + " " + direction + "\n");
+            if (commands != null) {
+                output.append(commands).write('\n');
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,357 @@
+package com.abhishek.marsrover.simulator;
+
+import java.util.Arrays;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Class to represent a command line compiled into segments.
+ * Consecutive turns are folded into one net rotation and consecutive
+ * moves into one straight segment, so a rover can execute a whole
+ * run of commands at once instead of one character at a time.
+ *
+ * A segment is stored as an int. A positive segment is a straight move
+ * of that many steps, a negative segment is a rotation of that many
+ * quarter turns to the right (1 to 3). Rotations which cancel out are
+ * dropped, and the moves on either side of them are merged.
+ */
+public final class CommandProgram {
+
+    /*
+     * Compiled segments. Only the first segmentCount entries are used.
+     */
+    private final int[] segments;
+
+    /*
+     * Number of segments in the program.
+     */
+    private final int segmentCount;
+
+    /*
+     * Index of the first command which is not L, R or M,
+     * or -1 when every command is valid.
+     */
+    private final int errorIndex;
+
+    /*
+     * The first command which is not L, R or M.
+     */
+    private final char errorCommand;
+
+    /*
+     * Effects of the program for each start direction,
+     * computed on first use.
+     */
+    private final ProgramEffect[] effects = new ProgramEffect[4];
+
+    /*
+     * Private constructor, programs are created by compile.
+     */
+    private CommandProgram(int[] segments, int segmentCount, int errorIndex, char errorCommand) {
+        this.segments = segments;
+        this.segmentCount = segmentCount;
+        this.errorIndex = errorIndex;
+        this.errorCommand = errorCommand;
+    }
+
+    /*
+     * Static function to compile a command line into a program.
+     * Compilation stops at the first invalid command. The segments
+     * before it are kept, so that the rover executes them before the
+     * error is reported, as it would when executing command by command.
+     */
+    public static CommandProgram compile(CharSequence commands) {
+        if (commands instanceof CommandTape) {
+            return compile((CommandTape) commands);
+        }
+        Builder builder = new Builder();
+        int errorIndex = builder.append(commands);
+        if (errorIndex >= 0) {
+            return builder.build(errorIndex, commands.charAt(errorIndex));
+        }
+        return builder.build(-1, '\0');
+    }
+
+    /*
+     * Static function to compile a packed command tape a word at a time,
+     * see Builder#append(CommandTape). Segments are sized from the turns
+     * of the tape, so that they are not grown while folding.
+     */
+    public static CommandProgram compile(CommandTape tape) {
+        Builder builder = new Builder(getMaxSegmentCount(tape));
+        int errorIndex = builder.append(tape);
+        if (errorIndex >= 0) {
+            return builder.build(errorIndex, tape.getErrorCommand());
+        }
+        return builder.build(-1, '\0');
+    }
+
+    /*
+     * Function to get number of segments.
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /*
+     * Function to get a segment by its index.
+     */
+    public int getSegment(int index) {
+        if (index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Segment index: " + index + ", count: " + segmentCount);
+        }
+        return segments[index];
+    }
+
+    /*
+     * Function to check if the command line contains an invalid command.
+     */
+    public boolean hasError() {
+        return errorIndex >= 0;
+    }
+
+    /*
+     * Function to get index of the first invalid command, or -1.
+     */
+    public int getErrorIndex() {
+        return errorIndex;
+    }
+
+    /*
+     * Function to get the first invalid command.
+     */
+    public char getErrorCommand() {
+        return errorCommand;
+    }
+
+    /*
+     * Function to get the effect of this program for a start direction.
+     */
+    public ProgramEffect getEffect(Direction startDirection) {
+        int index = startDirection.ordinal();
+        ProgramEffect effect = effects[index];
+        if (effect == null) {
+            effect = ProgramEffect.of(this, startDirection);
+            effects[index] = effect;
+        }
+        return effect;
+    }
+
+    /*
+     * Static function to get the most segments a tape folds into: each
+     * run of turns ends at most one move run and makes at most one
+     * rotation, and the last move run follows them. Turns have a non zero
+     * code, and the first turn of each run is counted a word at a time.
+     */
+    static int getMaxSegmentCount(CommandTape tape) {
+        long turnRuns = 0;
+        long previousTurn = 0;
+        int words = (tape.getCommandCount() + CommandTape.COMMANDS_PER_WORD - 1) / CommandTape.COMMANDS_PER_WORD;
+        for (int w = 0; w < words; w++) {
+            long word = tape.getWord(w);
+            long turns = (word | word >>> 1) & 0x5555555555555555L;
+            turnRuns += Long.bitCount(turns & ~(turns << 2 | previousTurn));
+            previousTurn = turns >>> 62;
+        }
+        return (int) Math.min(2 * turnRuns + 1, Integer.MAX_VALUE - 8);
+    }
+
+    /*
+     * Static function to check if a segment is a straight move.
+     */
+    public static boolean isMove(int segment) {
+        return segment > 0;
+    }
+
+    /*
+     * Static function to get number of steps of a move segment.
+     */
+    public static int getSteps(int segment) {
+        return segment;
+    }
+
+    /*
+     * Static function to get number of right quarter turns of a rotation segment.
+     */
+    public static int getQuarterTurns(int segment) {
+        return -segment;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < segmentCount; i++) {
+            int segment = segments[i];
+            builder.append(isMove(segment) ? "M" + getSteps(segment) : "R" + getQuarterTurns(segment));
+            builder.append(' ');
+        }
+        if (hasError()) {
+            builder.append("!").append(errorCommand).append('@').append(errorIndex);
+        }
+        return builder.toString().trim();
+    }
+
+    /*
+     * Class to fold commands into segments as they are read.
+     */
+    static final class Builder {
+
+        private int[] segments;
+        private int segmentCount;
+
+        /*
+         * Steps of the move run being folded.
+         */
+        private int pendingSteps;
+
+        /*
+         * Net right quarter turns after the pending move run.
+         */
+        private int pendingTurns;
+
+        /*
+         * Constructor for a builder of a few segments, grown as needed.
+         */
+        Builder() {
+            this(8);
+        }
+
+        /*
+         * Constructor for a builder of an expected number of segments.
+         */
+        Builder(int expectedSegments) {
+            segments = new int[Math.max(expectedSegments, 1)];
+        }
+
+        /*
+         * Function to add a rotation of quarter turns to the right.
+         */
+        void turn(int quarterTurns) {
+            pendingTurns = (pendingTurns + quarterTurns) & 3;
+        }
+
+        /*
+         * Function to add one step forward.
+         */
+        void move() {
+            if (pendingTurns != 0 || pendingSteps == Integer.MAX_VALUE) {
+                flush();
+            }
+            pendingSteps++;
+        }
+
+        /*
+         * Function to add a run of steps forward.
+         */
+        void move(int steps) {
+            if (steps == 0) {
+                return;
+            }
+            if (pendingTurns != 0) {
+                flush();
+            }
+            if (pendingSteps > Integer.MAX_VALUE - steps) {
+                steps -= Integer.MAX_VALUE - pendingSteps;
+                pendingSteps = Integer.MAX_VALUE;
+                flush();
+            }
+            pendingSteps += steps;
+        }
+
+        /*
+         * Function to fold a run of commands. Folding stops at the first
+         * invalid command, and its index in the run is returned, or -1.
+         */
+        int append(CharSequence commands) {
+            int length = commands.length();
+            for (int i = 0; i < length; i++) {
+                switch (commands.charAt(i)) {
+                case 'L':
+                    turn(3);
+                    break;
+                case 'R':
+                    turn(1);
+                    break;
+                case 'M':
+                    move();
+                    break;
+                default:
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Function to fold a packed command tape a word at a time.
+         * Moves have code zero, so a run of moves is counted from the
+         * trailing zero bits of the word instead of command by command.
+         * Returns the index of the invalid command of the tape, or -1.
+         */
+        int append(CommandTape tape) {
+            int remaining = tape.getCommandCount();
+            for (int w = 0; remaining > 0; w++) {
+                long word = tape.getWord(w);
+                int count = Math.min(remaining, CommandTape.COMMANDS_PER_WORD);
+                remaining -= count;
+                int i = 0;
+                while (i < count) {
+                    if (word == 0) {
+                        // bits after the last command are zero too.
+                        move(count - i);
+                        break;
+                    }
+                    int moves = Long.numberOfTrailingZeros(word) >>> 1;
+                    move(moves);
+                    turn((int) (word >>> (2 * moves)) & 3);
+                    word >>>= 2 * moves + 2;
+                    i += moves + 1;
+                }
+            }
+            return tape.hasError() ? tape.getCommandCount() : -1;
+        }
+
+        /*
+         * Function to take the segments folded so far as a program.
+         * The pending move run and rotation are kept, since the next
+         * run of commands may extend them.
+         */
+        CommandProgram drain() {
+            CommandProgram program = new CommandProgram(Arrays.copyOf(segments, segmentCount),
+                                                        segmentCount, -1, '\0');
+            segmentCount = 0;
+            return program;
+        }
+
+        /*
+         * Function to build the program, with its segments trimmed.
+         */
+        CommandProgram build(int errorIndex, char errorCommand) {
+            flush();
+            return new CommandProgram(Arrays.copyOf(segments, segmentCount), segmentCount,
+                                      errorIndex, errorCommand);
+        }
+
+        /*
+         * Private function to emit the pending move run and rotation.
+         */
+        private void flush() {
+            if (pendingSteps > 0) {
+                add(pendingSteps);
+                pendingSteps = 0;
+            }
+            if (pendingTurns != 0) {
+                add(-pendingTurns);
+                pendingTurns = 0;
+            }
+        }
+
+        private void add(int segment) {
+            if (segmentCount == segments.length) {
+                segments = Arrays.copyOf(segments, Math.max(segmentCount * 2, 8));
+            }
+            segments[segmentCount++] = segment;
+        }
+    }
+}
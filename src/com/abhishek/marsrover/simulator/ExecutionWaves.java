@@ -0,0 +1,238 @@
+package com.abhishek.marsrover.simulator;
+
+import java.util.Arrays;
+
+/*
+ * Class to group rovers into waves, so that the rovers of a wave can
+ * execute at the same time with the results of executing every rover
+ * one after another.
+ * A rover only reads and changes cells in the box it sweeps, which holds
+ * its start and final cells. So two rovers interact only if their boxes
+ * overlap, and then the later rover must run after the earlier one. Each
+ * rover is put in the wave after the last wave holding an earlier rover
+ * whose box overlaps its own.
+ * Overlaps are found through a grid of square buckets, each holding the
+ * last wave of the rovers whose box covers it. This is conservative:
+ * boxes which share a bucket without overlapping only delay the later
+ * rover to a later wave. A rover whose box covers too many buckets is
+ * a barrier, which runs after every earlier rover and before every later one.
+ */
+public final class ExecutionWaves {
+
+    /*
+     * Number of buckets above which a rover is a barrier.
+     */
+    static final int MAX_BUCKETS_PER_ROVER = 256;
+
+    /*
+     * Indexes of the rovers of each wave, in increasing order.
+     */
+    private final int[][] waves;
+
+    /*
+     * Private constructor, waves are created by of.
+     */
+    private ExecutionWaves(int[][] waves) {
+        this.waves = waves;
+    }
+
+    /*
+     * Static function to group rovers into waves from the boxes they
+     * sweep, given as inclusive bounds indexed by rover.
+     */
+    public static ExecutionWaves of(long[] minX, long[] minY, long[] maxX, long[] maxY) {
+        int count = minX.length;
+        int shift = getBucketShift(minX, minY, maxX, maxY);
+        int[] waveOf = new int[count];
+        int[] waveSizes = new int[count];
+        BucketWaves lastWaves = new BucketWaves(count);
+        int lastWave = -1;
+        int barrierWave = -1;
+        for (int i = 0; i < count; i++) {
+            long fromX = minX[i] >> shift;
+            long toX = maxX[i] >> shift;
+            long fromY = minY[i] >> shift;
+            long toY = maxY[i] >> shift;
+            int wave = barrierWave + 1;
+            if (toX - fromX >= MAX_BUCKETS_PER_ROVER || toY - fromY >= MAX_BUCKETS_PER_ROVER
+                || (toX - fromX + 1) * (toY - fromY + 1) > MAX_BUCKETS_PER_ROVER) {
+                wave = lastWave + 1;
+                barrierWave = wave;
+            } else {
+                for (long bx = fromX; bx <= toX; bx++) {
+                    for (long by = fromY; by <= toY; by++) {
+                        int bucketWave = lastWaves.get(getBucketKey(bx, by));
+                        if (bucketWave >= wave) {
+                            wave = bucketWave + 1;
+                        }
+                    }
+                }
+                for (long bx = fromX; bx <= toX; bx++) {
+                    for (long by = fromY; by <= toY; by++) {
+                        lastWaves.put(getBucketKey(bx, by), wave);
+                    }
+                }
+            }
+            waveOf[i] = wave;
+            waveSizes[wave]++;
+            lastWave = Math.max(lastWave, wave);
+        }
+
+        int[][] waves = new int[lastWave + 1][];
+        for (int w = 0; w <= lastWave; w++) {
+            waves[w] = new int[waveSizes[w]];
+            waveSizes[w] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int wave = waveOf[i];
+            waves[wave][waveSizes[wave]++] = i;
+        }
+        return new ExecutionWaves(waves);
+    }
+
+    /*
+     * Function to get number of waves.
+     */
+    public int getWaveCount() {
+        return waves.length;
+    }
+
+    /*
+     * Function to get indexes of the rovers of a wave, in increasing
+     * order. The array is not copied and must not be changed.
+     */
+    public int[] getWave(int index) {
+        return waves[index];
+    }
+
+    /*
+     * Private function to choose the side of buckets, as a power of two
+     * close to the median side of the boxes, so that most boxes cover a
+     * few buckets. The median is not skewed by a few huge boxes.
+     */
+    private static int getBucketShift(long[] minX, long[] minY, long[] maxX, long[] maxY) {
+        if (minX.length == 0) {
+            return 0;
+        }
+        long[] sides = new long[minX.length];
+        for (int i = 0; i < minX.length; i++) {
+            sides[i] = Math.max(maxX[i] - minX[i], maxY[i] - minY[i]) + 1;
+        }
+        Arrays.sort(sides);
+        long medianSide = sides[sides.length / 2];
+        return Math.min(32, 64 - Long.numberOfLeadingZeros(medianSide - 1));
+    }
+
+    /*
+     * Private function to get key of a bucket. Two buckets may share
+     * a key, which only makes waves more conservative, so the empty
+     * marker of BucketWaves is given to another bucket's key.
+     */
+    private static long getBucketKey(long bx, long by) {
+        long key = bx * 0x9E3779B97F4A7C15L + by;
+        return key == BucketWaves.EMPTY ? 0 : key;
+    }
+
+    /*
+     * Class to map bucket keys to the last wave of the rovers covering
+     * them, as an open addressing hash of primitive longs with linear
+     * probing, like HashOccupancyIndex. Buckets are never removed.
+     */
+    private static final class BucketWaves {
+
+        /*
+         * Marker for an empty slot, never used as a key.
+         */
+        static final long EMPTY = Long.MIN_VALUE;
+
+        /*
+         * Keys of the slots and their waves. Length is always a power of two.
+         */
+        private long[] keys;
+        private int[] waves;
+
+        private int size;
+
+        BucketWaves(int expectedSize) {
+            int capacity = 16;
+            while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            waves = new int[capacity];
+        }
+
+        /*
+         * Function to get the wave of a bucket, or -1 when no rover covers it.
+         */
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    return waves[slot];
+                }
+                if (current == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        /*
+         * Function to set the wave of a bucket.
+         */
+        void put(long key, int wave) {
+            if (insert(keys, waves, key, wave)) {
+                size++;
+                if (size * 2 > keys.length) {
+                    grow();
+                }
+            }
+        }
+
+        /*
+         * Private function to double the number of slots.
+         */
+        private void grow() {
+            long[] newKeys = new long[keys.length << 1];
+            int[] newWaves = new int[keys.length << 1];
+            Arrays.fill(newKeys, EMPTY);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    insert(newKeys, newWaves, keys[slot], waves[slot]);
+                }
+            }
+            keys = newKeys;
+            waves = newWaves;
+        }
+
+        /*
+         * Private function to set the wave of a key in a table.
+         * Returns true if the key was not present.
+         */
+        private static boolean insert(long[] keys, int[] waves, long key, int wave) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    waves[slot] = wave;
+                    return false;
+                }
+                if (current == EMPTY) {
+                    keys[slot] = key;
+                    waves[slot] = wave;
+                    return true;
+                }
+            }
+        }
+
+        /*
+         * Private function to get home slot of a key.
+         */
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
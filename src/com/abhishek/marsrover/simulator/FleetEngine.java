@@ -0,0 +1,126 @@
+package com.abhishek.marsrover.simulator;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.data.TransitionTable;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.Fleet;
+import com.abhishek.marsrover.model.Plateau;
+
+/*
+ * Class to execute the rovers of a Fleet one after the other, with the
+ * same results as MarsRoverSimulator#processRoverCommands. Rovers are
+ * read and written in the order of the columns of the fleet, and their
+ * commands are decoded a word at a time from the packed tapes: a run of
+ * moves is a run of zero bits, which is checked against the plateau in
+ * one go, and a turn only changes the heading.
+ *
+ * When a rover fails, it is left at the failing position, the plateau
+ * keeps the start of the failing run, and the same exception as for
+ * processRoverCommands is thrown.
+ */
+public final class FleetEngine {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Plateau plateau;
+    private final Fleet fleet;
+
+    /*
+     * Public constructor. Rovers must be placed on the plateau.
+     */
+    public FleetEngine(Plateau plateau, Fleet fleet) {
+        this.plateau = plateau;
+        this.fleet = fleet;
+    }
+
+    /*
+     * Public function to make every rover execute its commands, in order.
+     */
+    public void run() throws WrongCommandException, RoverCollisionException, RoverFallAndCrashException {
+        for (int rover = 0; rover < fleet.size(); rover++) {
+            execute(rover);
+        }
+    }
+
+    /*
+     * Private function to execute the commands of a rover.
+     */
+    private void execute(int rover) throws WrongCommandException, RoverCollisionException,
+        RoverFallAndCrashException
+    {
+        long position = fleet.getPackedPosition(rover);
+        int direction = fleet.getDirectionOrdinal(rover);
+        int count = fleet.getCommandCount(rover);
+        int steps = 0;
+        int i = 0;
+        while (i < count) {
+            int offset = i % CommandTape.COMMANDS_PER_WORD;
+            long word = fleet.getCommandWord(rover, i / CommandTape.COMMANDS_PER_WORD) >>> (2 * offset);
+            int left = Math.min(CommandTape.COMMANDS_PER_WORD - offset, count - i);
+            // bits after the last command are zero, so a word of moves is 0.
+            int moves = Math.min(Long.numberOfTrailingZeros(word) >>> 1, left);
+            if (moves > 0) {
+                steps += moves;
+                i += moves;
+                continue;
+            }
+            if (steps > 0) {
+                position = moveOnPlateau(rover, position, direction, steps);
+                steps = 0;
+            }
+            direction = (direction + (int) (word & 3)) & 3;
+            i++;
+        }
+        if (steps > 0) {
+            position = moveOnPlateau(rover, position, direction, steps);
+        }
+        fleet.moveTo(rover, position, direction);
+        if (fleet.hasError(rover)) {
+            throw new WrongCommandException("Wrong command : " + fleet.getErrorCommand(rover));
+        }
+    }
+
+    /*
+     * Private function to move a rover a run of steps on the plateau,
+     * checking the run for the edge and for other rovers at once.
+     * Returns the new position. On failure, the failing position is
+     * written to the fleet before the exception is thrown.
+     */
+    private long moveOnPlateau(int rover, long position, int direction, int steps)
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        Direction heading = DIRECTIONS[direction];
+        int safeSteps = (int) Math.min(steps, plateau.getDistanceToEdge(position, heading));
+        int blockedStep = plateau.getStepsToUnavailablePosition(position, heading, safeSteps);
+        if (blockedStep > 0) {
+            long blocked = move(position, direction, blockedStep);
+            fleet.moveTo(rover, blocked, direction);
+            throw new RoverCollisionException("Rover collided with another rover. " +
+                                              "Position: " + Position.toString(blocked));
+        }
+        if (safeSteps < steps) {
+            long fallen = move(position, direction, safeSteps + 1);
+            fleet.moveTo(rover, fallen, direction);
+            throw new RoverFallAndCrashException("Rover fell off the plateau. " +
+                                                 "Rover's new position:" + Position.toString(fallen) +
+                                                 ", Plateau : " + plateau);
+        }
+        long newPosition = move(position, direction, steps);
+        plateau.updateUnavailablePosition(position, newPosition);
+        return newPosition;
+    }
+
+    /*
+     * Private function to move a packed position, as Position#move,
+     * with the direction given as its ordinal.
+     */
+    private static long move(long position, int direction, int steps) {
+        int transition = TransitionTable.forCode(direction, CommandTape.CODE_MOVE);
+        return Position.pack(Position.x(position) + TransitionTable.getStepX(transition) * steps,
+                             Position.y(position) + TransitionTable.getStepY(transition) * steps);
+    }
+}
@@ -0,0 +1,418 @@
+package com.abhishek.marsrover.simulator;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.data.TransitionTable;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.ConcurrentPlateau;
+import com.abhishek.marsrover.model.Plateau;
+import com.abhishek.marsrover.model.Rover;
+
+/*
+ * Class to execute every rover as an independent agent on its own thread.
+ * Rovers do not wait for each other: each one executes its commands as
+ * fast as it can, and there is no global lock. A rover moves by claiming
+ * the cell in front of it on a shared grid with a compare-and-set, and
+ * then releasing the cell it leaves.
+ *
+ * When the cell is held by another rover, the rover waits for it to be
+ * released, up to a deadline, and fails with a collision when the
+ * deadline passes. With no wait, a rover fails as soon as it finds a
+ * cell held. Rovers which block each other, e.g. head-on, fail at the
+ * deadline. A rover which fails stops where it is, others carry on.
+ *
+ * The grid is the plateau itself when it is a ConcurrentPlateau, which
+ * other threads may then read while rovers move. Otherwise the engine
+ * keeps its own grid and updates the plateau when every rover stopped.
+ *
+ * Results depend on the timing of threads, unless rovers do not meet.
+ * Counters of refused and contended claims measure contention on the grid.
+ */
+public final class FreeRunningEngine {
+
+    /*
+     * Default time a rover waits for a held cell.
+     */
+    public static final long DEFAULT_WAIT_MILLIS = 100;
+
+    /*
+     * Largest number of cells for which the grid is a bitmap,
+     * which then takes 32 MB. Larger plateaus use a hash set.
+     */
+    static final long MAX_BITMAP_CELLS = 1L << 28;
+
+    /*
+     * Number of spins before a waiting rover parks.
+     */
+    private static final int SPINS_BEFORE_PARK = 64;
+
+    /*
+     * Time a waiting rover parks between claims.
+     */
+    private static final long PARK_NANOS = 50_000;
+
+    private final Plateau plateau;
+    private final Rover[] rovers;
+    private final CommandTape[] tapes;
+    private final ExecutorService executor;
+    private final long waitNanos;
+
+    /*
+     * Plateau bounds.
+     */
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    /*
+     * Final state of the rovers, indexed by rover: packed position and
+     * heading as the ordinal of its direction.
+     * Each entry is written by the thread of its rover only.
+     */
+    private final long[] positions;
+    private final byte[] headings;
+    private final Exception[] errors;
+
+    private final CellGrid grid;
+
+    /*
+     * Claims refused because the cell was held, and claims
+     * retried because another thread changed the same grid word.
+     */
+    private final LongAdder blockedClaims = new LongAdder();
+    private final LongAdder contendedClaims = new LongAdder();
+
+    /*
+     * Public constructor. Rovers must be placed on the plateau.
+     * The executor is not shut down by the engine.
+     */
+    public FreeRunningEngine(Plateau plateau, Rover[] rovers, CommandTape[] tapes,
+                             ExecutorService executor, long waitMillis)
+    {
+        this.plateau = plateau;
+        this.rovers = rovers;
+        this.tapes = tapes;
+        this.executor = executor;
+        this.waitNanos = waitMillis * 1_000_000;
+        this.minX = plateau.getMinPosition().getX();
+        this.minY = plateau.getMinPosition().getY();
+        this.maxX = plateau.getMaxPosition().getX();
+        this.maxY = plateau.getMaxPosition().getY();
+        positions = new long[rovers.length];
+        headings = new byte[rovers.length];
+        errors = new Exception[rovers.length];
+        long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        if (plateau instanceof ConcurrentPlateau) {
+            grid = new PlateauGrid((ConcurrentPlateau) plateau);
+        } else if (cells > 0 && cells <= MAX_BITMAP_CELLS) {
+            grid = new BitmapGrid(cells);
+        } else {
+            grid = new HashGrid();
+        }
+    }
+
+    /*
+     * Static function to create an executor running each task on its
+     * own virtual thread. Virtual threads are looked up at run time, so
+     * that this builds on older JDKs. Without them, a pool of platform
+     * threads is returned, one per core; a rover waiting for a cell then
+     * holds a thread, and may wait for rovers which have not started yet.
+     */
+    public static ExecutorService newRoverExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /*
+     * Public function to execute every rover until each one has executed
+     * its commands or failed. Rovers and the plateau are updated at the
+     * end. When rovers failed, the error of the rover with the lowest index
+     * is thrown. Any other exception of a rover is thrown as it is.
+     */
+    public void run() throws WrongCommandException, RoverCollisionException, RoverFallAndCrashException {
+        List<Callable<Void>> tasks = new ArrayList<>(rovers.length);
+        for (int i = 0; i < rovers.length; i++) {
+            positions[i] = rovers[i].getPackedPosition();
+            headings[i] = (byte) rovers[i].getDirection().ordinal();
+            if (!(grid instanceof PlateauGrid)) {
+                grid.claim(positions[i]);
+            }
+            int rover = i;
+            tasks.add(() -> {
+                execute(rover);
+                return null;
+            });
+        }
+        List<Future<Void>> futures;
+        try {
+            // invokeAll waits for every task, and makes their writes visible.
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            writeBack();
+        }
+
+        // mission errors are kept by rover, anything else failed the task.
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+
+        for (Exception error : errors) {
+            if (error instanceof WrongCommandException) {
+                throw (WrongCommandException) error;
+            } else if (error instanceof RoverCollisionException) {
+                throw (RoverCollisionException) error;
+            } else if (error instanceof RoverFallAndCrashException) {
+                throw (RoverFallAndCrashException) error;
+            }
+        }
+    }
+
+    /*
+     * Function to get number of claims refused because the cell was held.
+     */
+    public long getBlockedClaimCount() {
+        return blockedClaims.sum();
+    }
+
+    /*
+     * Function to get number of claims retried because another
+     * rover changed the same word of the grid at the same time.
+     */
+    public long getContendedClaimCount() {
+        return contendedClaims.sum();
+    }
+
+    /*
+     * Private function to execute the commands of a rover on its thread.
+     */
+    private void execute(int rover) {
+        long position = positions[rover];
+        int heading = headings[rover];
+        CommandTape tape = tapes[rover];
+        int count = tape.getCommandCount();
+        try {
+            for (int i = 0; i < count; i++) {
+                int transition = TransitionTable.forCode(heading, tape.getCode(i));
+                heading = TransitionTable.getHeading(transition);
+                if (!TransitionTable.isMove(transition)) {
+                    continue;
+                }
+                long target = move(position, transition);
+                claimOrWait(target);
+                grid.release(position);
+                position = target;
+            }
+            if (tape.hasError()) {
+                throw new WrongCommandException("Wrong command : " + tape.getErrorCommand());
+            }
+        } catch (WrongCommandException | RoverCollisionException | RoverFallAndCrashException e) {
+            errors[rover] = e;
+        } finally {
+            positions[rover] = position;
+            headings[rover] = (byte) heading;
+        }
+    }
+
+    /*
+     * Private function to claim the cell a rover moves to, waiting
+     * for it to be released until the deadline.
+     */
+    private void claimOrWait(long target) throws RoverCollisionException {
+        if (grid.claim(target)) {
+            return;
+        }
+        blockedClaims.increment();
+        long deadline = System.nanoTime() + waitNanos;
+        int spins = 0;
+        while (System.nanoTime() - deadline < 0) {
+            if (spins++ < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            if (grid.claim(target)) {
+                return;
+            }
+        }
+        throw new RoverCollisionException("Rover collided with another rover. " +
+                                          "Position: " + Position.toString(target));
+    }
+
+    /*
+     * Private function to get the position one step ahead, as given by
+     * a transition which moves, failing when it is off the plateau.
+     */
+    private long move(long position, int transition) throws RoverFallAndCrashException {
+        long x = (long) Position.x(position) + TransitionTable.getStepX(transition);
+        long y = (long) Position.y(position) + TransitionTable.getStepY(transition);
+        long target = Position.pack((int) x, (int) y);
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            throw new RoverFallAndCrashException("Rover fell off the plateau. " +
+                                                 "Rover's new position:" + Position.toString(target) +
+                                                 ", Plateau : " + plateau);
+        }
+        return target;
+    }
+
+    /*
+     * Private function to copy positions to the rovers and the plateau.
+     * Every old position is freed before new ones are marked, since
+     * rovers may have taken each other's cells.
+     */
+    private void writeBack() {
+        if (grid instanceof PlateauGrid) {
+            // the plateau was updated as rovers moved.
+            for (int i = 0; i < rovers.length; i++) {
+                rovers[i].moveTo(positions[i]);
+                rovers[i].turn(headings[i] - rovers[i].getDirection().ordinal());
+            }
+            return;
+        }
+        for (int i = 0; i < rovers.length; i++) {
+            plateau.removeUnavailablePosition(rovers[i].getPackedPosition());
+        }
+        for (int i = 0; i < rovers.length; i++) {
+            Rover rover = rovers[i];
+            rover.moveTo(positions[i]);
+            rover.turn(headings[i] - rover.getDirection().ordinal());
+            plateau.addUnavailablePosition(positions[i]);
+        }
+    }
+
+    /*
+     * Interface of the grid of held cells, by packed position.
+     */
+    private interface CellGrid {
+
+        /*
+         * Function to hold a free cell, returns false when the cell is held.
+         */
+        boolean claim(long position);
+
+        void release(long position);
+    }
+
+    /*
+     * Class of a grid held as a bitmap of 64 cells per word.
+     */
+    private final class BitmapGrid implements CellGrid {
+
+        private final AtomicLongArray words;
+
+        BitmapGrid(long cells) {
+            words = new AtomicLongArray((int) ((cells + 63) >>> 6));
+        }
+
+        @Override
+        public boolean claim(long position) {
+            long cell = getCell(position);
+            int index = (int) (cell >>> 6);
+            long bit = 1L << cell;
+            while (true) {
+                long word = words.get(index);
+                if ((word & bit) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(index, word, word | bit)) {
+                    return true;
+                }
+                contendedClaims.increment();
+            }
+        }
+
+        @Override
+        public void release(long position) {
+            long cell = getCell(position);
+            int index = (int) (cell >>> 6);
+            long bit = 1L << cell;
+            while (true) {
+                long word = words.get(index);
+                if (words.compareAndSet(index, word, word & ~bit)) {
+                    return;
+                }
+                contendedClaims.increment();
+            }
+        }
+
+        private long getCell(long position) {
+            return ((long) Position.x(position) - minX) * ((long) maxY - minY + 1) + (Position.y(position) - minY);
+        }
+    }
+
+    /*
+     * Class of a grid which is a plateau shared by threads.
+     */
+    private static final class PlateauGrid implements CellGrid {
+
+        private final ConcurrentPlateau plateau;
+
+        PlateauGrid(ConcurrentPlateau plateau) {
+            this.plateau = plateau;
+        }
+
+        @Override
+        public boolean claim(long position) {
+            return plateau.tryAddUnavailablePosition(position);
+        }
+
+        @Override
+        public void release(long position) {
+            plateau.removeUnavailablePosition(position);
+        }
+    }
+
+    /*
+     * Class of a grid held in a concurrent hash set, for large plateaus.
+     */
+    private static final class HashGrid implements CellGrid {
+
+        private final Set<Long> cells = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean claim(long position) {
+            return cells.add(position);
+        }
+
+        @Override
+        public void release(long position) {
+            cells.remove(position);
+        }
+    }
+}
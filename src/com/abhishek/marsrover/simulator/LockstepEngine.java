@@ -0,0 +1,470 @@
+package com.abhishek.marsrover.simulator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.data.TransitionTable;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.Plateau;
+import com.abhishek.marsrover.model.Rover;
+
+/*
+ * Class to execute rovers in lockstep: at each tick, every rover which
+ * has commands left executes its next command, all at the same time.
+ * Rovers without commands left stay where they are.
+ *
+ * Moves are resolved against two grids of rover positions. The current
+ * grid holds positions at the start of the tick and is only read during
+ * the tick. In the next grid, every rover claims the cell it will hold
+ * at the end of the tick, with a compare-and-set. So two rovers which
+ * end on the same cell, moving or not, are found by a contested claim,
+ * and rovers which swap cells head-on are found in the current grid.
+ * Both are collisions of the moving rovers. A rover may follow another
+ * one into the cell it leaves, and rovers moving in a ring do not collide.
+ * Rovers without commands left are kept in a third grid which does not
+ * change during a tick.
+ *
+ * Grids are hash tables sized for the rovers, not for the plateau, so
+ * that they stay in cache for sparse fleets on large plateaus. Entries
+ * are stamped with the tick they were claimed in, so swapping the grids
+ * empties the next one without touching its entries.
+ *
+ * The steps of a tick run on a fork-join pool, over partitions of the
+ * rovers which still have commands. When a tick has errors, no move
+ * of that tick is applied and the error of the rover with the lowest
+ * index is thrown, whatever the order in which rovers were checked.
+ */
+public final class LockstepEngine {
+
+    /*
+     * Number of rovers below which a task handles them itself.
+     */
+    private static final int MIN_ROVERS_PER_TASK = 4096;
+
+    /*
+     * Outcomes of a tick for a rover.
+     */
+    private static final byte OK = 0;
+    private static final byte COLLISION = 1;
+    private static final byte FALL = 2;
+    private static final byte WRONG_COMMAND = 3;
+
+    /*
+     * Steps of a tick.
+     */
+    private static final int PLAN = 0;
+    private static final int CHECK = 1;
+    private static final int APPLY = 2;
+
+    private final Plateau plateau;
+    private final Rover[] rovers;
+    private final CommandTape[] tapes;
+    private final ForkJoinPool pool;
+
+    /*
+     * Plateau bounds.
+     */
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    /*
+     * State of the rovers, indexed by rover: packed position, heading
+     * as the ordinal of its direction, and index of the next command
+     * in the tape.
+     */
+    private final long[] positions;
+    private final byte[] headings;
+    private final int[] nextCommands;
+
+    /*
+     * Plan of the current tick, indexed by rover: cell held at the end
+     * of the tick, heading at the end of the tick, whether the rover
+     * moves, slot claimed in the next grid or -1, and outcome.
+     */
+    private final long[] targets;
+    private final byte[] nextHeadings;
+    private final boolean[] moving;
+    private final int[] claims;
+    private final byte[] outcomes;
+
+    /*
+     * Indexes of the rovers which have commands left.
+     */
+    private final int[] active;
+    private int activeCount;
+
+    private CellTable current;
+    private CellTable next;
+    private final CellTable parked;
+    private int parkedCount;
+
+    /*
+     * Lowest index of a rover whose tick failed, or Integer.MAX_VALUE.
+     */
+    private final AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+
+    /*
+     * Number of ticks executed.
+     */
+    private long tickCount;
+
+    /*
+     * Public constructor. Rovers must be placed on the plateau.
+     */
+    public LockstepEngine(Plateau plateau, Rover[] rovers, CommandTape[] tapes, ForkJoinPool pool) {
+        this.plateau = plateau;
+        this.rovers = rovers;
+        this.tapes = tapes;
+        this.pool = pool;
+        this.minX = plateau.getMinPosition().getX();
+        this.minY = plateau.getMinPosition().getY();
+        this.maxX = plateau.getMaxPosition().getX();
+        this.maxY = plateau.getMaxPosition().getY();
+        int count = rovers.length;
+        positions = new long[count];
+        headings = new byte[count];
+        nextCommands = new int[count];
+        targets = new long[count];
+        nextHeadings = new byte[count];
+        moving = new boolean[count];
+        claims = new int[count];
+        outcomes = new byte[count];
+        active = new int[count];
+        current = new CellTable(count);
+        next = new CellTable(count);
+        parked = new CellTable(count);
+    }
+
+    /*
+     * Public function to execute every rover until none has commands left.
+     * Rovers and the plateau are updated at the end, also when a tick fails,
+     * with the positions at the start of the failing tick.
+     */
+    public void run() throws WrongCommandException, RoverCollisionException, RoverFallAndCrashException {
+        for (int i = 0; i < rovers.length; i++) {
+            positions[i] = rovers[i].getPackedPosition();
+            headings[i] = (byte) rovers[i].getDirection().ordinal();
+            if (tapes[i].length() > 0) {
+                current.claim(positions[i], i);
+                active[activeCount++] = i;
+            } else {
+                parked.claim(positions[i], i);
+                parkedCount++;
+            }
+        }
+
+        try {
+            while (activeCount > 0) {
+                tickCount++;
+                next.clear();
+                pool.invoke(new TickTask(PLAN, 0, activeCount));
+                pool.invoke(new TickTask(CHECK, 0, activeCount));
+                int failure = firstFailure.get();
+                if (failure != Integer.MAX_VALUE) {
+                    throwFailure(failure);
+                }
+                pool.invoke(new TickTask(APPLY, 0, activeCount));
+                CellTable table = current;
+                current = next;
+                next = table;
+                removeFinishedRovers();
+            }
+        } finally {
+            writeBack();
+        }
+    }
+
+    /*
+     * Function to get number of ticks executed.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /*
+     * Private function to plan the tick of a rover: turn, or claim the
+     * cell it moves to, or claim its own cell when it does not move.
+     */
+    private void plan(int rover) {
+        outcomes[rover] = OK;
+        moving[rover] = false;
+        claims[rover] = -1;
+        long position = positions[rover];
+        int heading = headings[rover];
+        targets[rover] = position;
+        nextHeadings[rover] = (byte) heading;
+
+        CommandTape tape = tapes[rover];
+        int command = nextCommands[rover];
+        if (command == tape.getCommandCount()) {
+            // only an invalid command is left.
+            fail(rover, WRONG_COMMAND);
+        } else {
+            int transition = TransitionTable.forCode(heading, tape.getCode(command));
+            nextHeadings[rover] = (byte) TransitionTable.getHeading(transition);
+            if (TransitionTable.isMove(transition)) {
+                long x = (long) Position.x(position) + TransitionTable.getStepX(transition);
+                long y = (long) Position.y(position) + TransitionTable.getStepY(transition);
+                targets[rover] = Position.pack((int) x, (int) y);
+                if (x < minX || x > maxX || y < minY || y > maxY) {
+                    fail(rover, FALL);
+                } else {
+                    moving[rover] = true;
+                }
+            }
+        }
+
+        if (moving[rover] && parkedCount > 0 && parked.find(targets[rover]) >= 0) {
+            fail(rover, COLLISION);
+            return;
+        }
+        claims[rover] = next.claim(targets[rover], rover);
+        if (claims[rover] < 0 && moving[rover]) {
+            fail(rover, COLLISION);
+        }
+    }
+
+    /*
+     * Private function to check a moving rover: its claim may have been
+     * contested by another rover, or it may swap cells head-on with the
+     * rover holding the cell it moves to.
+     */
+    private void check(int rover) {
+        if (!moving[rover]) {
+            return;
+        }
+        int claim = claims[rover];
+        if (claim >= 0 && next.isContested(claim)) {
+            fail(rover, COLLISION);
+            return;
+        }
+        int slot = current.find(targets[rover]);
+        if (slot >= 0) {
+            int occupant = current.getRover(slot);
+            if (moving[occupant] && targets[occupant] == positions[rover]) {
+                fail(rover, COLLISION);
+            }
+        }
+    }
+
+    /*
+     * Private function to apply the tick of a rover.
+     */
+    private void apply(int rover) {
+        positions[rover] = targets[rover];
+        headings[rover] = nextHeadings[rover];
+        nextCommands[rover]++;
+    }
+
+    /*
+     * Private function to record the failure of a rover.
+     */
+    private void fail(int rover, byte outcome) {
+        outcomes[rover] = outcome;
+        firstFailure.accumulateAndGet(rover, Math::min);
+    }
+
+    /*
+     * Private function to drop rovers which executed their last command.
+     * They are kept in the grid of parked rovers from now on.
+     */
+    private void removeFinishedRovers() {
+        int count = 0;
+        for (int i = 0; i < activeCount; i++) {
+            int rover = active[i];
+            CommandTape tape = tapes[rover];
+            if (nextCommands[rover] == tape.getCommandCount() && !tape.hasError()) {
+                // rovers read moving of the rovers they find in the current grid.
+                moving[rover] = false;
+                parked.claim(positions[rover], rover);
+                parkedCount++;
+            } else {
+                active[count++] = rover;
+            }
+        }
+        activeCount = count;
+    }
+
+    /*
+     * Private function to throw the exception of a failing rover,
+     * with the messages of the sequential execution.
+     */
+    private void throwFailure(int rover)
+        throws WrongCommandException, RoverCollisionException, RoverFallAndCrashException
+    {
+        long target = targets[rover];
+        switch (outcomes[rover]) {
+        case COLLISION:
+            throw new RoverCollisionException("Rover collided with another rover. " +
+                                              "Position: " + Position.toString(target));
+        case FALL:
+            throw new RoverFallAndCrashException("Rover fell off the plateau. " +
+                                                 "Rover's new position:" + Position.toString(target) +
+                                                 ", Plateau : " + plateau);
+        default:
+            throw new WrongCommandException("Wrong command : " + tapes[rover].getErrorCommand());
+        }
+    }
+
+    /*
+     * Private function to copy positions to the rovers and the plateau.
+     * Every old position is freed before new ones are marked, since
+     * rovers may have taken each other's cells.
+     */
+    private void writeBack() {
+        for (int i = 0; i < rovers.length; i++) {
+            plateau.removeUnavailablePosition(rovers[i].getPackedPosition());
+        }
+        for (int i = 0; i < rovers.length; i++) {
+            Rover rover = rovers[i];
+            rover.moveTo(positions[i]);
+            rover.turn(headings[i] - rover.getDirection().ordinal());
+            plateau.addUnavailablePosition(positions[i]);
+        }
+    }
+
+    /*
+     * Class to run a step of a tick over a range of the active rovers.
+     */
+    private final class TickTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int step;
+        private final int from;
+        private final int to;
+
+        TickTask(int step, int from, int to) {
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MIN_ROVERS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TickTask(step, from, middle), new TickTask(step, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int rover = active[i];
+                switch (step) {
+                case PLAN:
+                    plan(rover);
+                    break;
+                case CHECK:
+                    check(rover);
+                    break;
+                default:
+                    apply(rover);
+                }
+            }
+        }
+    }
+
+    /*
+     * Class of a grid: an open addressing hash table from packed
+     * positions to rovers, with linear probing. A slot is two longs,
+     * a header and the position, so that a probe reads one cache line.
+     * The header holds a stamp, a contested flag and the rover.
+     * A slot is used when its stamp is the generation of the table,
+     * so clearing the table only starts a new generation. Claims may
+     * run at the same time; a claimer stamps the negated generation
+     * while it fills the slot. Finds must not run at the same time as claims.
+     */
+    private static final class CellTable {
+
+        private static final long CONTESTED = 1L << 31;
+        private static final long ROVER_MASK = CONTESTED - 1;
+
+        private final AtomicLongArray slots;
+        private final int mask;
+        private final int shift;
+        private int generation = 1;
+
+        CellTable(int entries) {
+            // at most half of the slots are used.
+            int capacity = Integer.highestOneBit(Math.max(1, 2 * entries - 1)) << 1;
+            slots = new AtomicLongArray(2 * capacity);
+            mask = capacity - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        /*
+         * Function to empty the table.
+         */
+        void clear() {
+            if (generation == Integer.MAX_VALUE) {
+                for (int i = 0; i < slots.length(); i += 2) {
+                    slots.set(i, 0);
+                }
+                generation = 0;
+            }
+            generation++;
+        }
+
+        /*
+         * Function to claim the slot of a position for a rover.
+         * Returns the slot, or -1 when the position is claimed already,
+         * in which case the slot is marked as contested.
+         */
+        int claim(long position, int rover) {
+            int g = generation;
+            int slot = hash(position);
+            while (true) {
+                long header = slots.get(2 * slot);
+                int stamp = (int) (header >> 32);
+                if (stamp == -g) {
+                    Thread.onSpinWait();
+                } else if (stamp != g) {
+                    if (slots.compareAndSet(2 * slot, header, (long) -g << 32)) {
+                        slots.setPlain(2 * slot + 1, position);
+                        slots.set(2 * slot, (long) g << 32 | rover);
+                        return slot;
+                    }
+                } else if (slots.getPlain(2 * slot + 1) == position) {
+                    if ((header & CONTESTED) == 0) {
+                        slots.compareAndSet(2 * slot, header, header | CONTESTED);
+                    }
+                    return -1;
+                } else {
+                    slot = (slot + 1) & mask;
+                }
+            }
+        }
+
+        /*
+         * Function to find the slot of a position, or -1.
+         */
+        int find(long position) {
+            int g = generation;
+            for (int slot = hash(position); (int) (slots.get(2 * slot) >> 32) == g; slot = (slot + 1) & mask) {
+                if (slots.getPlain(2 * slot + 1) == position) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int getRover(int slot) {
+            return (int) (slots.get(2 * slot) & ROVER_MASK);
+        }
+
+        boolean isContested(int slot) {
+            return (slots.get(2 * slot) & CONTESTED) != 0;
+        }
+
+        private int hash(long position) {
+            return (int) ((position * 0x9E3779B97F4A7C15L) >>> shift) & mask;
+        }
+    }
+}
@@ -3,12 +3,22 @@ package com.abhishek.marsrover.simulator;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.abhishek.marsrover.data.CommandTape;
 import com.abhishek.marsrover.data.Coordinate;
 import com.abhishek.marsrover.data.Direction;
 import com.abhishek.marsrover.data.Position;
@@ -16,8 +26,18 @@ import com.abhishek.marsrover.exceptions.InvalidInputException;
 import com.abhishek.marsrover.exceptions.RoverCollisionException;
 import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
 import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.ConcurrentPlateau;
+import com.abhishek.marsrover.model.Fleet;
+import com.abhishek.marsrover.model.LineOccupancyIndex;
+import com.abhishek.marsrover.model.MappedOccupancyIndex;
+import com.abhishek.marsrover.model.MortonOccupancyIndex;
 import com.abhishek.marsrover.model.Plateau;
 import com.abhishek.marsrover.model.Rover;
+import com.abhishek.marsrover.parser.BinaryMissionReader;
+import com.abhishek.marsrover.parser.ByteSequence;
+import com.abhishek.marsrover.parser.ChunkedMissionReader;
+import com.abhishek.marsrover.parser.MissionHandler;
+import com.abhishek.marsrover.parser.ParallelMissionParser;
 
 /*
  * Class to simulate the mars rover mission.
@@ -25,7 +45,7 @@ import com.abhishek.marsrover.model.Rover;
  * be placed on the plateau, and orders command
  * to them from input.
  */
-public class MarsRoverSimulator {
+public class MarsRoverSimulator implements MissionHandler {
 
     /*
      * Regex to split string.
@@ -52,8 +72,48 @@ public class MarsRoverSimulator {
      * Since rovers process commands sequentially, order of
      * retrival of entries should be same as order of insertion.
      * So LinkedHashMap implementation is used.
+     * Command strings are packed into tapes of two bits per command.
      */
-    Map<Rover, String> roverCommandMap = new LinkedHashMap<>();
+    Map<Rover, CommandTape> roverCommandMap = new LinkedHashMap<>();
+
+    /*
+     * Compiled programs shared by rovers with identical command lines.
+     */
+    private ProgramCache programCache = new ProgramCache();
+
+    /*
+     * Number of rovers executed again by the last speculative execution.
+     */
+    private int reexecutedRoverCount;
+
+    /*
+     * Number of claims refused by the last free running execution.
+     */
+    private long blockedClaimCount;
+
+    /*
+     * Whether the plateau is created as a ConcurrentPlateau.
+     */
+    private boolean concurrentPlateau;
+
+    /*
+     * Whether unavailable positions are kept in a memory mapped bitmap,
+     * and the file which keeps it, or null for a temporary file.
+     */
+    private boolean mappedOccupancy;
+    private Path occupancyFile;
+
+    /*
+     * Whether unavailable positions are kept in a bitmap tiled along a
+     * Z-order curve.
+     */
+    private boolean mortonOccupancy;
+
+    /*
+     * Fleet holding the rovers as columns of primitives, instead of
+     * the map above, when rovers are kept in a fleet.
+     */
+    private Fleet fleet;
 
     /*
      * Public constructor
@@ -89,39 +149,449 @@ public class MarsRoverSimulator {
         }
     }
 
+    /*
+     * Public function to run the mission in streaming mode.
+     * Each rover is placed and executes its commands as soon as its two
+     * lines are read, and its final position is printed right away.
+     * Only the plateau and its unavailable positions are kept, so memory
+     * does not grow with the number of rovers, and programs are not cached
+     * for the same reason.
+     * Later rovers are not placed yet while a rover moves. So unlike
+     * initialize and processRoverCommands, a rover can pass through the
+     * start position of a later rover, and a rover which stops there makes
+     * placement of the later rover fail with RoverCollisionException.
+     * Results are the same as for the batch mode in every other case.
+     */
+    public void processStream() throws InvalidInputException, WrongCommandException,
+        RoverCollisionException, RoverFallAndCrashException
+    {
+        try {
+            // read first line and initialize plateau.
+            String firstLine = input.readLine();
+            createAndInitializePlateau(firstLine);
+
+            int roverCount = 1; // used to indicate which rover has wrong inputs.
+            String roverLine = input.readLine();
+            while (roverLine != null && roverLine.length() > 0) {
+                String commandLine = input.readLine();
+                Rover rover = createAndPlaceRover(roverLine, commandLine, roverCount);
+                executeProgram(rover, CommandProgram.compile(commandLine));
+                output.println(rover);
+                roverLine = input.readLine();
+                roverCount++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to run the mission in streaming mode, reading
+     * bytes through a chunked reader. Unlike processStream with lines,
+     * a command line is never held whole: each chunk is checked, folded
+     * into segments and executed before the next chunk is read, so a
+     * command line of any length runs in the memory of the reader buffer.
+     * The move run or rotation at the end of a chunk is kept pending until
+     * the next chunk, so segments are the same as for the whole line.
+     * Errors in a command line are reported in the order of the line.
+     * A rover executes every command before an invalid command or a space,
+     * whatever the chunks they are read in, so it stops at the same place
+     * for any buffer size. A space after an invalid command is not
+     * reported, while the batch mode rejects a line with a space before
+     * the rover moves.
+     */
+    public void processStream(ChunkedMissionReader reader) throws InvalidInputException,
+        WrongCommandException, RoverCollisionException, RoverFallAndCrashException
+    {
+        try {
+            // read first line and initialize plateau.
+            createAndInitializePlateau(reader.readLine());
+
+            int roverCount = 1; // used to indicate which rover has wrong inputs.
+            String roverLine = reader.readLine();
+            while (roverLine != null && roverLine.length() > 0) {
+                Rover rover = createRoverFromString(roverLine, roverCount);
+                // commands are checked chunk by chunk, only a missing line is checked here.
+                placeRover(rover.getPackedPosition(), reader.beginCommandLine() ? "" : null, roverCount);
+                executeCommandChunks(rover, reader, roverCount);
+                output.println(rover);
+                roverLine = reader.readLine();
+                roverCount++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /*
      * Public function to make rovers to execute command.
+     * Each command line is compiled into a program of straight moves
+     * and net rotations, which is then executed segment by segment.
      */
     public void processRoverCommands() throws WrongCommandException,
         InvalidInputException, RoverFallAndCrashException, RoverCollisionException
     {
-        for (Entry<Rover, String> entry : roverCommandMap.entrySet()) {
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
+            Rover rover = entry.getKey();
+            CommandProgram program = programCache.get(entry.getValue());
+            executeProgram(rover, program);
+        }
+    }
+
+    /*
+     * Public function to make the rovers of the fleet execute commands,
+     * with the same results as processRoverCommands. See setFleet and
+     * FleetEngine.
+     */
+    public void processFleetCommands() throws WrongCommandException,
+        RoverFallAndCrashException, RoverCollisionException
+    {
+        if (fleet == null) {
+            throw new RuntimeException("Rovers should be kept in a fleet to execute the fleet.");
+        }
+        new FleetEngine(plateau, fleet).run();
+    }
+
+    /*
+     * Public function to make rovers execute commands in parallel on the
+     * common fork-join pool. See processRoverCommandsInParallel(ForkJoinPool).
+     */
+    public void processRoverCommandsInParallel() throws WrongCommandException,
+        InvalidInputException, RoverFallAndCrashException, RoverCollisionException
+    {
+        processRoverCommandsInParallel(ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Public function to make rovers execute commands in parallel, with the
+     * same final positions and the same first error as processRoverCommands.
+     * Rovers are grouped into waves from the boxes they sweep, see
+     * ExecutionWaves. Rovers of a wave do not interact, so they execute at
+     * once against the plateau, which is only read during a wave, and their
+     * moves are applied to the plateau when the wave ends.
+     * When rovers fail, rovers after the first failing one should not have
+     * moved: they are put back at their start, and the first failing rover
+     * is executed again alone, so that it fails as it does sequentially.
+     */
+    public void processRoverCommandsInParallel(ForkJoinPool pool) throws WrongCommandException,
+        InvalidInputException, RoverFallAndCrashException, RoverCollisionException
+    {
+        int count = roverCommandMap.size();
+        Rover[] rovers = new Rover[count];
+        CommandProgram[] programs = new CommandProgram[count];
+        long[] starts = new long[count];
+        Direction[] startDirections = new Direction[count];
+        long[] minX = new long[count];
+        long[] minY = new long[count];
+        long[] maxX = new long[count];
+        long[] maxY = new long[count];
+        int index = 0;
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
+            Rover rover = entry.getKey();
+            CommandProgram program = programCache.get(entry.getValue());
+            ProgramEffect effect = program.getEffect(rover.getDirection());
+            long x = Position.x(rover.getPackedPosition());
+            long y = Position.y(rover.getPackedPosition());
+            rovers[index] = rover;
+            programs[index] = program;
+            starts[index] = rover.getPackedPosition();
+            startDirections[index] = rover.getDirection();
+            minX[index] = x + effect.getMinX();
+            minY[index] = y + effect.getMinY();
+            maxX[index] = x + effect.getMaxX();
+            maxY[index] = y + effect.getMaxY();
+            index++;
+        }
+
+        ExecutionWaves waves = ExecutionWaves.of(minX, minY, maxX, maxY);
+        boolean[] failed = new boolean[count];
+        int firstFailure = count;
+        int[] applied = new int[count];
+        int appliedCount = 0;
+        for (int w = 0; w < waves.getWaveCount(); w++) {
+            int[] wave = waves.getWave(w);
+            // rovers after the first failing one are not executed.
+            int size = 0;
+            while (size < wave.length && wave[size] < firstFailure) {
+                size++;
+            }
+            if (size == 0) {
+                continue;
+            }
+            pool.invoke(new WaveTask(rovers, programs, failed, null, wave, 0, size));
+            for (int i = 0; i < size; i++) {
+                if (failed[wave[i]]) {
+                    firstFailure = Math.min(firstFailure, wave[i]);
+                }
+            }
+            for (int i = 0; i < size && wave[i] < firstFailure; i++) {
+                int r = wave[i];
+                plateau.updateUnavailablePosition(starts[r], rovers[r].getPackedPosition());
+                applied[appliedCount++] = r;
+            }
+        }
+        if (firstFailure == count) {
+            return;
+        }
+
+        // undo in reverse order, since later rovers may stop where earlier ones started.
+        for (int i = appliedCount - 1; i >= 0; i--) {
+            int r = applied[i];
+            if (r > firstFailure) {
+                plateau.updateUnavailablePosition(rovers[r].getPackedPosition(), starts[r]);
+            }
+        }
+        resetRovers(rovers, starts, startDirections, firstFailure, count);
+        executeProgram(rovers[firstFailure], programs[firstFailure]);
+        // later rovers were put back at their start and did not execute.
+        throw new IllegalStateException("Rover#" + (firstFailure + 1) + " failed in its wave " +
+                                        "but not when executed again alone.");
+    }
+
+    /*
+     * Public function to make rovers execute commands speculatively on the
+     * common fork-join pool. See processRoverCommandsSpeculatively(ForkJoinPool).
+     */
+    public void processRoverCommandsSpeculatively() throws WrongCommandException,
+        InvalidInputException, RoverFallAndCrashException, RoverCollisionException
+    {
+        processRoverCommandsSpeculatively(ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Public function to make rovers execute commands speculatively, with
+     * the same final positions and the same first error as processRoverCommands.
+     * Every rover first executes at once against the plateau as it is at
+     * the start, recording the cells of its path. Rovers are then committed
+     * in order. The cells changed by committed rovers, their start and final
+     * positions, are kept in an index by row and column. A rover whose path
+     * crosses none of them saw the same plateau as it would sequentially, and
+     * its result is committed as it is. Other rovers, and rovers which
+     * failed, are put back at their start and executed again sequentially.
+     * When a rover fails then, rovers after it are put back at their start.
+     */
+    public void processRoverCommandsSpeculatively(ForkJoinPool pool) throws WrongCommandException,
+        InvalidInputException, RoverFallAndCrashException, RoverCollisionException
+    {
+        int count = roverCommandMap.size();
+        Rover[] rovers = new Rover[count];
+        CommandProgram[] programs = new CommandProgram[count];
+        long[] starts = new long[count];
+        Direction[] startDirections = new Direction[count];
+        int[] order = new int[count];
+        int index = 0;
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
             Rover rover = entry.getKey();
-            String commandLine = entry.getValue();
-            for (int i = 0; i < commandLine.length(); i++) {
-                char command = commandLine.charAt(i);
-                Position oldPosition = rover.getPosition().clone();
-                rover.execute(command);
-                Position newPosition = rover.getPosition();
-
-                // check the validity of new position and update
-                // unavailable positions in plateau if rover moved.
-                if (command == 'M') {
-                    checkValidityOfRoverPosition(newPosition);
-                    plateau.updateUnavailablePosition(oldPosition, newPosition);
+            rovers[index] = rover;
+            programs[index] = programCache.get(entry.getValue());
+            // effects are computed here, so that tasks only read them.
+            programs[index].getEffect(rover.getDirection());
+            starts[index] = rover.getPackedPosition();
+            startDirections[index] = rover.getDirection();
+            order[index] = index;
+            index++;
+        }
+
+        boolean[] failed = new boolean[count];
+        RoverPath[] paths = new RoverPath[count];
+        pool.invoke(new WaveTask(rovers, programs, failed, paths, order, 0, count));
+
+        LineOccupancyIndex changedPositions = new LineOccupancyIndex(
+            plateau.getMinPosition().getX(), plateau.getMinPosition().getY(),
+            plateau.getMaxPosition().getX(), plateau.getMaxPosition().getY());
+        reexecutedRoverCount = 0;
+        for (int r = 0; r < count; r++) {
+            Rover rover = rovers[r];
+            if (failed[r] || paths[r].crosses(changedPositions)) {
+                resetRovers(rovers, starts, startDirections, r, r + 1);
+                reexecutedRoverCount++;
+                boolean executed = false;
+                try {
+                    executeProgram(rover, programs[r]);
+                    executed = true;
+                } finally {
+                    if (!executed) {
+                        resetRovers(rovers, starts, startDirections, r + 1, count);
+                    }
                 }
+            } else {
+                plateau.updateUnavailablePosition(starts[r], rover.getPackedPosition());
             }
+            long position = rover.getPackedPosition();
+            if (position != starts[r]) {
+                changedPositions.occupy(Position.x(starts[r]), Position.y(starts[r]));
+                changedPositions.occupy(Position.x(position), Position.y(position));
+            }
+        }
+    }
+
+    /*
+     * Function to get number of rovers executed again by the last
+     * speculative execution, because their path was changed.
+     */
+    public int getReexecutedRoverCount() {
+        return reexecutedRoverCount;
+    }
+
+    /*
+     * Public function to make rovers execute commands in lockstep on the
+     * common fork-join pool. See processRoverCommandsInLockstep(ForkJoinPool).
+     */
+    public void processRoverCommandsInLockstep() throws WrongCommandException,
+        RoverFallAndCrashException, RoverCollisionException
+    {
+        processRoverCommandsInLockstep(ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Public function to make rovers move simultaneously: at each tick,
+     * every rover executes its next command. Unlike the other modes, a
+     * rover may move into the cell another rover leaves in the same tick,
+     * so results differ from processRoverCommands. The mission stops at
+     * the first tick with an error, with rovers at the start of that tick.
+     * See LockstepEngine.
+     */
+    public void processRoverCommandsInLockstep(ForkJoinPool pool) throws WrongCommandException,
+        RoverFallAndCrashException, RoverCollisionException
+    {
+        int count = roverCommandMap.size();
+        Rover[] rovers = new Rover[count];
+        CommandTape[] tapes = new CommandTape[count];
+        int index = 0;
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
+            rovers[index] = entry.getKey();
+            tapes[index] = entry.getValue();
+            index++;
+        }
+        new LockstepEngine(plateau, rovers, tapes, pool).run();
+    }
+
+    /*
+     * Public function to make every rover execute its commands on its own
+     * thread, virtual when the JDK has them, waiting up to the default time
+     * for held cells. See processRoverCommandsFreeRunning(ExecutorService, long).
+     */
+    public void processRoverCommandsFreeRunning() throws WrongCommandException,
+        RoverFallAndCrashException, RoverCollisionException
+    {
+        ExecutorService executor = FreeRunningEngine.newRoverExecutor();
+        try {
+            processRoverCommandsFreeRunning(executor, FreeRunningEngine.DEFAULT_WAIT_MILLIS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /*
+     * Public function to make rovers execute commands as independent agents:
+     * each rover runs on the executor and claims the cells it moves to on a
+     * shared grid, waiting up to waitMillis for a held cell before it fails
+     * with a collision. Results depend on the timing of threads when rovers
+     * meet. When rovers failed, the error of the first one in the input is
+     * thrown after every rover stopped. See FreeRunningEngine.
+     */
+    public void processRoverCommandsFreeRunning(ExecutorService executor, long waitMillis)
+        throws WrongCommandException, RoverFallAndCrashException, RoverCollisionException
+    {
+        int count = roverCommandMap.size();
+        Rover[] rovers = new Rover[count];
+        CommandTape[] tapes = new CommandTape[count];
+        int index = 0;
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
+            rovers[index] = entry.getKey();
+            tapes[index] = entry.getValue();
+            index++;
+        }
+        FreeRunningEngine engine = new FreeRunningEngine(plateau, rovers, tapes, executor, waitMillis);
+        try {
+            engine.run();
+        } finally {
+            blockedClaimCount = engine.getBlockedClaimCount();
         }
     }
 
+    /*
+     * Function to get number of claims refused because the cell was held,
+     * in the last free running execution.
+     */
+    public long getBlockedClaimCount() {
+        return blockedClaimCount;
+    }
+
+    /*
+     * Private function to put a range of rovers back at their start.
+     */
+    private static void resetRovers(Rover[] rovers, long[] starts, Direction[] startDirections,
+                                    int from, int to)
+    {
+        for (int r = from; r < to; r++) {
+            rovers[r].moveTo(starts[r]);
+            rovers[r].turn(startDirections[r].ordinal() - rovers[r].getDirection().ordinal());
+        }
+    }
+
+    /*
+     * Function to create the plateau as a ConcurrentPlateau, which threads
+     * may share, e.g. rovers of a free running execution. Must be called
+     * before the plateau is read.
+     */
+    public void setConcurrentPlateau(boolean concurrentPlateau) {
+        this.concurrentPlateau = concurrentPlateau;
+    }
+
+    /*
+     * Function to keep unavailable positions of the plateau in a memory
+     * mapped bitmap, see MappedOccupancyIndex, for dense plateaus whose
+     * bitmap does not fit in the heap. The bitmap is cleared when the
+     * plateau is read, and left in the given file after the run, or kept
+     * in a temporary file when no file is given. Must be called before
+     * the plateau is read.
+     */
+    public void setMappedOccupancy(boolean mappedOccupancy, Path occupancyFile) {
+        this.mappedOccupancy = mappedOccupancy;
+        this.occupancyFile = occupancyFile;
+    }
+
+    /*
+     * Function to keep unavailable positions of the plateau in a bitmap
+     * tiled along a Z-order curve, see MortonOccupancyIndex, which is
+     * faster for missions whose rovers mostly move north and south.
+     * Must be called before the plateau is read.
+     */
+    public void setMortonOccupancy(boolean mortonOccupancy) {
+        this.mortonOccupancy = mortonOccupancy;
+    }
+
+    /*
+     * Function to keep the rovers read from now on in a fleet, as columns
+     * of primitives instead of Rover objects, so that millions of rovers
+     * fit in memory. Such rovers are executed by processFleetCommands
+     * and printed by printOutput.
+     */
+    public void setFleet(Fleet fleet) {
+        this.fleet = fleet;
+    }
+
+    /*
+     * Function to get cache of compiled programs, with its hit and miss counters.
+     */
+    public ProgramCache getProgramCache() {
+        return programCache;
+    }
+
     /*
      * Function to print out to output stream.
      */
     public void printOutput() {
-        for (Entry<Rover, String> entry : roverCommandMap.entrySet()) {
+        for (Entry<Rover, CommandTape> entry : roverCommandMap.entrySet()) {
             Rover rover = entry.getKey();
             output.println(rover);
         }
+        if (fleet != null) {
+            for (int rover = 0; rover < fleet.size(); rover++) {
+                output.println(fleet.toString(rover));
+            }
+        }
     }
 
     /*
@@ -139,47 +609,141 @@ public class MarsRoverSimulator {
         }
 
         try {
-        	// create max position from first two values in the input string.
+        	// create plateau from first two values in the input string.
             int maxXValue = Integer.parseInt(maxCoordinateValues[0]);
             int maxYValue = Integer.parseInt(maxCoordinateValues[1]);
-            Position maxPosition = new Position(new Coordinate(maxXValue),
-                                                new Coordinate(maxYValue));
-
-            // create min position from (0, 0).
-            Position minPosition = new Position(new Coordinate(0),
-                                                new Coordinate(0));
-
-            // construct plateau
-            plateau = new Plateau(minPosition, maxPosition);
+            onPlateau(maxXValue, maxYValue);
         } catch (NumberFormatException e) {
             throw new InvalidInputException("Invalid values of upper right coordinates. " +
                                             "Error message: " + e.getMessage());
         }
     }
 
+    /*
+     * Public function to create plateau from its upper right coordinates.
+     * See MissionHandler#onPlateau.
+     */
+    @Override
+    public void onPlateau(int maxX, int maxY) {
+        Position maxPosition = new Position(new Coordinate(maxX),
+                                            new Coordinate(maxY));
+
+        // create min position from (0, 0).
+        Position minPosition = new Position(new Coordinate(0),
+                                            new Coordinate(0));
+
+        // construct plateau
+        if (concurrentPlateau) {
+            plateau = new ConcurrentPlateau(minPosition, maxPosition);
+        } else if (mappedOccupancy) {
+            plateau = new Plateau(minPosition, maxPosition, openMappedOccupancyIndex(maxX, maxY));
+        } else if (mortonOccupancy) {
+            plateau = new Plateau(minPosition, maxPosition, new MortonOccupancyIndex(0, 0, maxX, maxY));
+        } else {
+            plateau = new Plateau(minPosition, maxPosition);
+        }
+    }
+
+    /*
+     * Private function to open the mapped bitmap of a plateau.
+     */
+    private MappedOccupancyIndex openMappedOccupancyIndex(int maxX, int maxY) {
+        try {
+            if (occupancyFile == null) {
+                return MappedOccupancyIndex.openTemporary(0, 0, maxX, maxY);
+            }
+            return MappedOccupancyIndex.open(occupancyFile, true, 0, 0, maxX, maxY);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to create a rover and add it to rover-command map.
+     * See MissionHandler#onRover.
+     */
+    @Override
+    public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        long position = Position.pack(x, y);
+        placeRover(position, commands, roverIndex);
+        // bytes of a parser are packed many at a time, see CommandTape#getScanner.
+        CommandTape tape = commands instanceof ByteSequence ? ((ByteSequence) commands).toCommandTape()
+                                                             : CommandTape.of(commands);
+        if (fleet != null) {
+            fleet.add(x, y, direction, tape);
+        } else {
+            roverCommandMap.put(new Rover(new Position(position), direction), tape);
+        }
+    }
+
     /*
      * Private function to create rover and add entries to rover-command map.
      */
     private void createRoverAndAddToMap(String roverLine, String commandLine, int roverIndex)
         throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
     {
-        if (plateau == null) {
-            throw new RuntimeException("Plateau should be initialized before adding rovers.");
+        Rover rover = createAndPlaceRover(roverLine, commandLine, roverIndex);
+        if (fleet != null) {
+            long position = rover.getPackedPosition();
+            fleet.add(Position.x(position), Position.y(position), rover.getDirection(),
+                      CommandTape.of(commandLine));
+        } else {
+            roverCommandMap.put(rover, CommandTape.of(commandLine));
         }
+    }
 
+    /*
+     * Private function to create rover, check its position and command
+     * line, and mark its position unavailable on the plateau.
+     */
+    private Rover createAndPlaceRover(String roverLine, String commandLine, int roverIndex)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
         // crate rover from input line.
         Rover rover = createRoverFromString(roverLine, roverIndex);
+        placeRover(rover.getPackedPosition(), commandLine, roverIndex);
+        return rover;
+    }
+
+    /*
+     * Private function to check rover position and command line,
+     * and mark rover position unavailable on the plateau.
+     */
+    private void placeRover(long position, CharSequence commandLine, int roverIndex)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        if (plateau == null) {
+            throw new RuntimeException("Plateau should be initialized before adding rovers.");
+        }
 
         // check if rover position is valid or not.
-        checkValidityOfRoverPosition(rover.getPosition());
+        checkValidityOfRoverPosition(position);
 
         // check validity of command line.
-        if (commandLine == null || commandLine.contains(" ")) {
+        if (commandLine == null || containsSpace(commandLine)) {
             throw new InvalidInputException("Invalid commands for rover#" +
                                              roverIndex + ". Command: " + commandLine);
         }
-        roverCommandMap.put(rover, commandLine);
-        plateau.addUnavailablePosition(rover.getPosition());
+        plateau.addUnavailablePosition(position);
+    }
+
+    /*
+     * Private function to check if a command line contains a space.
+     */
+    private static boolean containsSpace(CharSequence commandLine) {
+        if (commandLine instanceof CommandTape) {
+            // a tape holds only L, R and M, and the first invalid command.
+            CommandTape tape = (CommandTape) commandLine;
+            return tape.hasError() && tape.getErrorCommand() == ' ';
+        }
+        for (int i = 0; i < commandLine.length(); i++) {
+            if (commandLine.charAt(i) == ' ') {
+                return true;
+            }
+        }
+        return false;
     }
 
     /*
@@ -198,7 +762,7 @@ public class MarsRoverSimulator {
             // create position from first two values in input string.
             int x = Integer.parseInt(roverCoordinatesAndDirection[0]);
             int y = Integer.parseInt(roverCoordinatesAndDirection[1]);
-            Position position = new Position(new Coordinate(x), new Coordinate(y));
+            Position position = new Position(x, y);
 
             // get direction from third value in input string.
             Direction direction = Direction.getDirectionFromString(roverCoordinatesAndDirection[2]);
@@ -212,35 +776,318 @@ public class MarsRoverSimulator {
         }
     }
 
+    /*
+     * Private function to execute a compiled program for a rover.
+     * When the effect of the program shows the rover never leaves the
+     * plateau, bounds are not checked at all. Otherwise a straight move
+     * is checked against plateau bounds once, with a range check, and
+     * for collisions once, with a row or column query. When a step
+     * fails, rover is left at the failing position and the same exception
+     * as for command by command execution is thrown.
+     */
+    private void executeProgram(Rover rover, CommandProgram program) throws WrongCommandException,
+        InvalidInputException, RoverFallAndCrashException, RoverCollisionException
+    {
+        executeProgram(rover, program, false, null);
+    }
+
+    /*
+     * Private function to execute a compiled program for a rover, see above.
+     * With snapshot set, the plateau is only read, so that rovers which
+     * do not interact can execute at the same time: the start position of
+     * the rover stays unavailable on the plateau and is not an obstacle
+     * for the rover itself, and the caller moves the rover on the plateau.
+     * When a path is given, the cells checked for each run are recorded in it.
+     */
+    private void executeProgram(Rover rover, CommandProgram program, boolean snapshot, RoverPath path)
+        throws WrongCommandException, InvalidInputException, RoverFallAndCrashException,
+        RoverCollisionException
+    {
+        long ownPosition = rover.getPackedPosition();
+        boolean staysOnPlateau = staysOnPlateau(rover, program);
+        for (int i = 0; i < program.getSegmentCount(); i++) {
+            int segment = program.getSegment(i);
+            if (!CommandProgram.isMove(segment)) {
+                rover.turn(CommandProgram.getQuarterTurns(segment));
+                continue;
+            }
+            int steps = CommandProgram.getSteps(segment);
+            Direction direction = rover.getDirection();
+            long startPosition = rover.getPackedPosition();
+            int safeSteps = steps;
+            if (!staysOnPlateau) {
+                safeSteps = (int) Math.min(steps, plateau.getDistanceToEdge(startPosition, direction));
+            }
+
+            // check the part of the run on the plateau for collisions
+            // first, then the first step off the plateau if run does not fit.
+            int blockedStep = plateau.getStepsToUnavailablePosition(startPosition, direction, safeSteps);
+            if (snapshot && blockedStep > 0
+                && Position.move(startPosition, direction, blockedStep) == ownPosition) {
+                int nextBlockedStep = plateau.getStepsToUnavailablePosition(ownPosition, direction,
+                                                                           safeSteps - blockedStep);
+                blockedStep = nextBlockedStep > 0 ? blockedStep + nextBlockedStep : 0;
+            }
+            if (path != null) {
+                path.add(startPosition, direction, blockedStep > 0 ? blockedStep : safeSteps);
+            }
+            if (blockedStep > 0) {
+                long position = Position.move(startPosition, direction, blockedStep);
+                rover.moveTo(position);
+                checkValidityOfRoverPosition(position);
+            }
+            if (safeSteps < steps) {
+                long position = Position.move(startPosition, direction, safeSteps + 1);
+                rover.moveTo(position);
+                checkValidityOfRoverPosition(position);
+            }
+            rover.move(steps);
+            if (!snapshot) {
+                plateau.updateUnavailablePosition(startPosition, rover.getPackedPosition());
+            }
+        }
+        if (program.hasError()) {
+            throw new WrongCommandException("Wrong command : " + program.getErrorCommand());
+        }
+    }
+
+    /*
+     * Private function to execute a command line chunk by chunk.
+     */
+    private void executeCommandChunks(Rover rover, ChunkedMissionReader reader, int roverIndex)
+        throws IOException, InvalidInputException, WrongCommandException,
+        RoverFallAndCrashException, RoverCollisionException
+    {
+        CommandProgram.Builder builder = new CommandProgram.Builder();
+        long commandsRead = 0;
+        ByteSequence chunk = reader.nextCommandChunk();
+        while (chunk != null) {
+            // the chunk is packed many bytes at a time, then folded a word at a time.
+            int errorIndex = builder.append(chunk.toCommandTape());
+            if (errorIndex >= 0) {
+                char command = chunk.charAt(errorIndex);
+                if (command == ' ') {
+                    // the commands before the space are executed, whatever the chunk they are in.
+                    executeProgram(rover, builder.build(-1, '\0'));
+                    throw new InvalidInputException("Invalid commands for rover#" + roverIndex +
+                                                    ". Space in command at index " +
+                                                    (commandsRead + errorIndex));
+                }
+                // index of the error is only informative, it is capped for lines over 2G commands.
+                int index = (int) Math.min(commandsRead + errorIndex, Integer.MAX_VALUE);
+                executeProgram(rover, builder.build(index, command));
+            }
+            executeProgram(rover, builder.drain());
+            commandsRead += chunk.length();
+            chunk = reader.nextCommandChunk();
+        }
+        executeProgram(rover, builder.build(-1, '\0'));
+    }
+
+    /*
+     * Private function to check, in constant time, if a rover stays on the
+     * plateau for the whole program, from the bounding box of its path.
+     */
+    private boolean staysOnPlateau(Rover rover, CommandProgram program) {
+        ProgramEffect effect = program.getEffect(rover.getDirection());
+        long x = Position.x(rover.getPackedPosition());
+        long y = Position.y(rover.getPackedPosition());
+        return plateau.isAreaReachable(x + effect.getMinX(), y + effect.getMinY(),
+                                       x + effect.getMaxX(), y + effect.getMaxY());
+    }
+
     /*
      * Private function to check validity of rover position.
      */
-    private void checkValidityOfRoverPosition(Position position)
+    private void checkValidityOfRoverPosition(long position)
         throws RoverCollisionException, RoverFallAndCrashException
     {
         if (!plateau.isPositionReachable(position)) {
             throw new RoverFallAndCrashException("Rover fell off the plateau. " +
-                                                  "Rover's new position:" + position +
+                                                  "Rover's new position:" + Position.toString(position) +
                                                   ", Plateau : " + plateau);
         }
         if (!plateau.isPositionAvailable(position)) {
             throw new RoverCollisionException("Rover collided with another rover. " +
-                                              "Position: " + position);
+                                              "Position: " + Position.toString(position));
+        }
+    }
+
+    /*
+     * Class to execute the rovers of a wave against the plateau,
+     * splitting the wave in halves until few rovers are left.
+     */
+    private final class WaveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /*
+         * Number of rovers below which a task executes them itself.
+         */
+        private static final int MIN_ROVERS = 16;
+
+        private final Rover[] rovers;
+        private final CommandProgram[] programs;
+        private final boolean[] failed;
+        private final RoverPath[] paths;
+        private final int[] wave;
+        private final int from;
+        private final int to;
+
+        /*
+         * Constructor. When paths is not null, the path of each rover is recorded in it.
+         */
+        WaveTask(Rover[] rovers, CommandProgram[] programs, boolean[] failed, RoverPath[] paths,
+                 int[] wave, int from, int to)
+        {
+            this.rovers = rovers;
+            this.programs = programs;
+            this.failed = failed;
+            this.paths = paths;
+            this.wave = wave;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MIN_ROVERS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new WaveTask(rovers, programs, failed, paths, wave, from, middle),
+                          new WaveTask(rovers, programs, failed, paths, wave, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int r = wave[i];
+                RoverPath path = null;
+                if (paths != null) {
+                    path = new RoverPath();
+                    paths[r] = path;
+                }
+                try {
+                    executeProgram(rovers[r], programs[r], true, path);
+                } catch (WrongCommandException | InvalidInputException
+                         | RoverFallAndCrashException | RoverCollisionException e) {
+                    failed[r] = true;
+                }
+            }
         }
     }
 
     /*
      * Main function.
-     * The input is read from a file named "input.dat".
+     * The input is read from a file named "input.dat", unless another
+     * file is given as argument. "-" reads the input from stdin.
+     * With "--stream", rovers are executed and printed one by one
+     * as they are read, and command lines are read in chunks,
+     * see processStream. Files in the binary mission format are
+     * recognized from their first bytes, except in streaming mode.
+     * With "--parallel", rovers which do not interact execute at the
+     * same time, see processRoverCommandsInParallel. With "--speculative",
+     * every rover executes at once and rovers whose path was changed
+     * execute again, see processRoverCommandsSpeculatively. With
+     * "--lockstep", rovers move simultaneously one command per tick,
+     * see processRoverCommandsInLockstep. With "--free-running", every
+     * rover runs on its own thread, see processRoverCommandsFreeRunning.
+     * With "--fleet", rovers are kept as columns of primitives, see
+     * processFleetCommands, and with "--off-heap" these columns are kept
+     * outside of the heap. With "--wide", coordinates are longs and the
+     * mission runs on a sparse WidePlateau, see WideMission. With
+     * "--mapped", unavailable positions are kept in a memory mapped bitmap,
+     * and with "--mapped=<file>" that bitmap is left in the file. With
+     * "--morton", they are kept in a bitmap tiled along a Z-order curve.
      */
     public static void main(String[] args) {
     	try {
-            // assume input is provide in text file "input.dat"
-    		FileInputStream inputStream = new FileInputStream("input.dat");
+    	    boolean stream = false;
+    	    boolean parallel = false;
+    	    boolean speculative = false;
+    	    boolean lockstep = false;
+    	    boolean freeRunning = false;
+    	    boolean fleet = false;
+    	    boolean offHeap = false;
+    	    boolean wide = false;
+    	    boolean mapped = false;
+    	    Path occupancyFile = null;
+    	    boolean morton = false;
+    	    String inputFile = "input.dat";
+    	    for (String arg : args) {
+    	        if (arg.equals("--stream")) {
+    	            stream = true;
+    	        } else if (arg.equals("--parallel")) {
+    	            parallel = true;
+    	        } else if (arg.equals("--speculative")) {
+    	            speculative = true;
+    	        } else if (arg.equals("--lockstep")) {
+    	            lockstep = true;
+    	        } else if (arg.equals("--free-running")) {
+    	            freeRunning = true;
+    	        } else if (arg.equals("--fleet")) {
+    	            fleet = true;
+    	        } else if (arg.equals("--off-heap")) {
+    	            fleet = true;
+    	            offHeap = true;
+    	        } else if (arg.equals("--wide")) {
+    	            wide = true;
+    	        } else if (arg.equals("--mapped")) {
+    	            mapped = true;
+    	        } else if (arg.startsWith("--mapped=")) {
+    	            mapped = true;
+    	            occupancyFile = Paths.get(arg.substring("--mapped=".length()));
+    	        } else if (arg.equals("--morton")) {
+    	            morton = true;
+    	        } else {
+    	            inputFile = arg;
+    	        }
+    	    }
+    	    boolean stdin = inputFile.equals("-");
+    	    if (stream) {
+    	        try (ReadableByteChannel channel = stdin ? Channels.newChannel(System.in)
+    	                                                 : FileChannel.open(Paths.get(inputFile))) {
+    	            MarsRoverSimulator simulator = new MarsRoverSimulator(null, System.out);
+    	            simulator.processStream(new ChunkedMissionReader(channel));
+    	        }
+    	        return;
+    	    }
+    	    InputStream inputStream = stdin ? System.in : new FileInputStream(inputFile);
     		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+    		if (wide) {
+    		    WideMission mission = new WideMission(reader, System.out);
+    		    mission.initialize();
+    		    mission.processRoverCommands();
+    		    mission.printOutput();
+    		    return;
+    		}
     		MarsRoverSimulator simulator = new MarsRoverSimulator(reader, System.out);
-    		simulator.initialize();
-    		simulator.processRoverCommands();
+    		// rovers running free then move on the plateau itself.
+    		simulator.setConcurrentPlateau(freeRunning);
+    		simulator.setMappedOccupancy(mapped, occupancyFile);
+    		simulator.setMortonOccupancy(morton);
+    		if (fleet) {
+    		    simulator.setFleet(new Fleet(1024, offHeap));
+    		}
+    		if (stdin) {
+    		    simulator.initialize();
+    		} else if (BinaryMissionReader.isBinaryMission(Paths.get(inputFile))) {
+    		    new BinaryMissionReader(Paths.get(inputFile)).parse(simulator);
+    		} else {
+    		    // files are memory mapped and parsed in parallel without creating Strings.
+    		    new ParallelMissionParser(Paths.get(inputFile)).parse(simulator);
+    		}
+    		if (fleet) {
+    		    // rovers of a fleet are only in the fleet.
+    		    simulator.processFleetCommands();
+    		} else if (parallel) {
+    		    simulator.processRoverCommandsInParallel();
+    		} else if (speculative) {
+    		    simulator.processRoverCommandsSpeculatively();
+    		} else if (lockstep) {
+    		    simulator.processRoverCommandsInLockstep();
+    		} else if (freeRunning) {
+    		    simulator.processRoverCommandsFreeRunning();
+    		} else {
+    		    simulator.processRoverCommands();
+    		}
     		simulator.printOutput();
     	} catch (Exception e) {
     	    System.out.println(e.getMessage());
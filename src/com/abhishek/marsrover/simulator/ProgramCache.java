@@ -0,0 +1,169 @@
+package com.abhishek.marsrover.simulator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.abhishek.marsrover.data.CommandTape;
+
+/*
+ * Class to share compiled command programs across a fleet.
+ * Rovers often carry identical command lines, so each distinct
+ * command line is compiled once and its effects for the four
+ * start directions are computed once. Lookups are keyed by the
+ * hash of the command line and confirmed by comparing the text.
+ *
+ * Fleets of distinct command lines would otherwise keep every program
+ * for the whole run, so the cache holds at most a number of segments:
+ * the least recently used programs are dropped beyond it, and a program
+ * larger than the whole cache is never kept.
+ */
+public class ProgramCache {
+
+    /*
+     * Default number of segments kept, 16 MB of programs.
+     */
+    public static final long DEFAULT_MAX_SEGMENTS = 1L << 22;
+
+    private final long maxSegments;
+
+    /*
+     * Number of segments of the cached programs.
+     */
+    private long segments;
+
+    /*
+     * Compiled programs by command line, least recently used first.
+     */
+    private final Map<CommandKey, CommandProgram> programs = new LinkedHashMap<>(16, 0.75f, true);
+
+    /*
+     * Number of lookups which found a compiled program.
+     */
+    private long hits;
+
+    /*
+     * Number of lookups which had to compile the command line.
+     */
+    private long misses;
+
+    /*
+     * Constructor for a cache of at most DEFAULT_MAX_SEGMENTS segments.
+     */
+    public ProgramCache() {
+        this(DEFAULT_MAX_SEGMENTS);
+    }
+
+    /*
+     * Constructor for a cache of at most maxSegments segments.
+     */
+    public ProgramCache(long maxSegments) {
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("Invalid maximum number of segments: " + maxSegments);
+        }
+        this.maxSegments = maxSegments;
+    }
+
+    /*
+     * Public function to get compiled program for a command line.
+     */
+    public CommandProgram get(CharSequence commands) {
+        CommandKey key = new CommandKey(commands);
+        CommandProgram program = programs.get(key);
+        if (program != null) {
+            hits++;
+            return program;
+        }
+        misses++;
+        program = CommandProgram.compile(commands);
+        if (program.getSegmentCount() <= maxSegments) {
+            segments += program.getSegmentCount();
+            Iterator<CommandProgram> eldest = programs.values().iterator();
+            while (segments > maxSegments) {
+                segments -= eldest.next().getSegmentCount();
+                eldest.remove();
+            }
+            programs.put(key, program);
+        }
+        return program;
+    }
+
+    /*
+     * Getter functions.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /*
+     * Function to get number of distinct command lines cached.
+     */
+    public int size() {
+        return programs.size();
+    }
+
+    /*
+     * Function to get number of segments of the cached programs.
+     */
+    public long getSegmentCount() {
+        return segments;
+    }
+
+    @Override
+    public String toString() {
+        return "ProgramCache [size=" + size() + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    /*
+     * Class to compare command lines by content, whatever the
+     * implementation of CharSequence holding them. Packed tapes
+     * keep their hash and are compared word by word.
+     */
+    private static final class CommandKey {
+
+        private final CharSequence commands;
+        private final int hash;
+
+        CommandKey(CharSequence commands) {
+            this.commands = commands;
+            if (commands instanceof CommandTape) {
+                this.hash = commands.hashCode();
+                return;
+            }
+            int h = 0;
+            for (int i = 0; i < commands.length(); i++) {
+                h = 31 * h + commands.charAt(i);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CommandKey)) {
+                return false;
+            }
+            CommandKey other = (CommandKey) o;
+            if (hash != other.hash || commands.length() != other.commands.length()) {
+                return false;
+            }
+            if (commands instanceof CommandTape && other.commands instanceof CommandTape) {
+                return commands.equals(other.commands);
+            }
+            for (int i = 0; i < commands.length(); i++) {
+                if (commands.charAt(i) != other.commands.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
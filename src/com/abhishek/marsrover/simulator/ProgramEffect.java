@@ -0,0 +1,127 @@
+package com.abhishek.marsrover.simulator;
+
+import com.abhishek.marsrover.data.Direction;
+
+/*
+ * Class to represent the effect of a command program on a rover
+ * which starts at (0, 0) heading a given direction: its final
+ * displacement and heading, and the bounding box of every cell
+ * it passes through. Offsets are longs, so they cannot overflow
+ * for any program which fits in memory.
+ */
+public final class ProgramEffect {
+
+    /*
+     * Net displacement of the rover.
+     */
+    private final long dx;
+    private final long dy;
+
+    /*
+     * Heading of the rover after the program.
+     */
+    private final Direction finalDirection;
+
+    /*
+     * Bounding box of the visited cells, relative to the start.
+     * Minimums are never positive and maximums never negative.
+     */
+    private final long minX;
+    private final long maxX;
+    private final long minY;
+    private final long maxY;
+
+    /*
+     * Private constructor, effects are created by of.
+     */
+    private ProgramEffect(long dx, long dy, Direction finalDirection,
+                          long minX, long maxX, long minY, long maxY)
+    {
+        this.dx = dx;
+        this.dy = dy;
+        this.finalDirection = finalDirection;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /*
+     * Static function to compute the effect of a program for a start direction.
+     * Only segments before an invalid command are taken into account,
+     * since the rover stops there.
+     */
+    public static ProgramEffect of(CommandProgram program, Direction startDirection) {
+        long x = 0;
+        long y = 0;
+        long minX = 0;
+        long maxX = 0;
+        long minY = 0;
+        long maxY = 0;
+        Direction direction = startDirection;
+        for (int i = 0; i < program.getSegmentCount(); i++) {
+            int segment = program.getSegment(i);
+            if (!CommandProgram.isMove(segment)) {
+                direction = direction.rotate(CommandProgram.getQuarterTurns(segment));
+                continue;
+            }
+            int steps = CommandProgram.getSteps(segment);
+            switch (direction) {
+            case N:
+                y += steps;
+                maxY = Math.max(maxY, y);
+                break;
+            case E:
+                x += steps;
+                maxX = Math.max(maxX, x);
+                break;
+            case S:
+                y -= steps;
+                minY = Math.min(minY, y);
+                break;
+            case W:
+                x -= steps;
+                minX = Math.min(minX, x);
+                break;
+            }
+        }
+        return new ProgramEffect(x, y, direction, minX, maxX, minY, maxY);
+    }
+
+    /*
+     * Getter functions.
+     */
+    public long getDx() {
+        return dx;
+    }
+
+    public long getDy() {
+        return dy;
+    }
+
+    public Direction getFinalDirection() {
+        return finalDirection;
+    }
+
+    public long getMinX() {
+        return minX;
+    }
+
+    public long getMaxX() {
+        return maxX;
+    }
+
+    public long getMinY() {
+        return minY;
+    }
+
+    public long getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + dx + ", " + dy + ") " + finalDirection.name() +
+               " [" + minX + ".." + maxX + "] x [" + minY + ".." + maxY + "]";
+    }
+}
@@ -0,0 +1,64 @@
+package com.abhishek.marsrover.simulator;
+
+import java.util.Arrays;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.model.LineOccupancyIndex;
+
+/*
+ * Class to record the straight runs of a rover, so that it can be
+ * checked later, with one query per run, whether any cell the rover
+ * passed through is among a set of cells.
+ */
+final class RoverPath {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /*
+     * Runs as pairs of longs: packed start position, then
+     * number of steps shifted by two bits or'ed with the direction.
+     */
+    private long[] runs = new long[8];
+
+    /*
+     * Number of longs used in runs.
+     */
+    private int size;
+
+    /*
+     * Function to record a run of steps from a position, not counting the position.
+     */
+    void add(long start, Direction direction, int steps) {
+        if (steps <= 0) {
+            return;
+        }
+        if (size + 2 > runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[size++] = start;
+        runs[size++] = ((long) steps << 2) | direction.ordinal();
+    }
+
+    /*
+     * Function to get number of recorded runs.
+     */
+    int getRunCount() {
+        return size / 2;
+    }
+
+    /*
+     * Function to check if a recorded run passes through an occupied cell of the index.
+     */
+    boolean crosses(LineOccupancyIndex cells) {
+        for (int i = 0; i < size; i += 2) {
+            long start = runs[i];
+            Direction direction = DIRECTIONS[(int) (runs[i + 1] & 3)];
+            int steps = (int) (runs[i + 1] >>> 2);
+            if (cells.getStepsToFirstOccupied(Position.x(start), Position.y(start), direction, steps) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,256 @@
+package com.abhishek.marsrover.simulator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.TransitionTable;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.WidePlateau;
+
+/*
+ * Class to simulate a mission on a WidePlateau, whose coordinates are
+ * longs. Input is the same text as for MarsRoverSimulator, with long
+ * values for the upper right coordinates and for rover positions.
+ * Results and errors are the same as for
+ * MarsRoverSimulator#processRoverCommands.
+ *
+ * Rovers are held as columns of primitives and their commands as packed
+ * tapes, so that memory is proportional to the number of rovers and
+ * commands, and not to the size of the plateau. Runs of moves are
+ * checked against the plateau in one go.
+ */
+public class WideMission {
+
+    private static final String REGEX = "\\s+";
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    private WidePlateau plateau;
+
+    /*
+     * Rovers, in the order of the input: coordinates, heading as the
+     * ordinal of its direction, and commands.
+     */
+    private int size;
+    private long[] xs = new long[16];
+    private long[] ys = new long[16];
+    private byte[] headings = new byte[16];
+    private CommandTape[] tapes = new CommandTape[16];
+
+    private final ProgramCache programCache = new ProgramCache();
+
+    /*
+     * Public constructor.
+     */
+    public WideMission(BufferedReader input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /*
+     * Public function to initialize plateau and rovers from input.
+     */
+    public void initialize() throws InvalidInputException,
+        RoverCollisionException, RoverFallAndCrashException
+    {
+        try {
+            createPlateau(input.readLine());
+            int roverCount = 1; // used to indicate which rover has wrong inputs.
+            String roverLine = input.readLine();
+            while (roverLine != null && roverLine.length() > 0) {
+                addRover(roverLine, input.readLine(), roverCount);
+                roverLine = input.readLine();
+                roverCount++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Public function to make every rover execute its commands, in order.
+     */
+    public void processRoverCommands() throws WrongCommandException,
+        RoverCollisionException, RoverFallAndCrashException
+    {
+        for (int rover = 0; rover < size; rover++) {
+            execute(rover, programCache.get(tapes[rover]));
+        }
+    }
+
+    /*
+     * Public function to print position of every rover.
+     */
+    public void printOutput() {
+        for (int rover = 0; rover < size; rover++) {
+            output.println(toString(rover));
+        }
+    }
+
+    /*
+     * Getter functions.
+     */
+    public WidePlateau getPlateau() {
+        return plateau;
+    }
+
+    public int getRoverCount() {
+        return size;
+    }
+
+    /*
+     * Function to stringify a rover, as Rover#toString.
+     */
+    public String toString(int rover) {
+        return xs[rover] + " " + ys[rover] + " " + DIRECTIONS[headings[rover]].name();
+    }
+
+    /*
+     * Private function to create plateau from string input.
+     */
+    private void createPlateau(String plateauLine) throws InvalidInputException {
+        if (plateauLine == null || plateauLine.length() == 0) {
+            throw new InvalidInputException("Line to define plateau is null or empty.");
+        }
+
+        String[] maxCoordinateValues = plateauLine.split(REGEX);
+        if (maxCoordinateValues.length != 2) {
+            throw new InvalidInputException("Invalid values of upper right coordinates: " +
+                                             plateauLine);
+        }
+
+        try {
+            long maxX = Long.parseLong(maxCoordinateValues[0]);
+            long maxY = Long.parseLong(maxCoordinateValues[1]);
+            plateau = new WidePlateau(0, 0, maxX, maxY);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included.
+            throw new InvalidInputException("Invalid values of upper right coordinates. " +
+                                            "Error message: " + e.getMessage());
+        }
+    }
+
+    /*
+     * Private function to create a rover from its two input lines,
+     * check it and mark its position unavailable on the plateau.
+     */
+    private void addRover(String roverLine, String commandLine, int roverIndex)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String[] roverCoordinatesAndDirection = roverLine.split(REGEX);
+        if (roverCoordinatesAndDirection.length != 3) {
+            throw new InvalidInputException("Invalid information to initialize rover #" +
+                                            roverIndex + ". Info provided: " + roverLine);
+        }
+
+        long x;
+        long y;
+        try {
+            x = Long.parseLong(roverCoordinatesAndDirection[0]);
+            y = Long.parseLong(roverCoordinatesAndDirection[1]);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Rover position is not valid for rover #" +
+                                            roverIndex + ". Error message: " + e.getMessage());
+        }
+        Direction direction = Direction.getDirectionFromString(roverCoordinatesAndDirection[2]);
+
+        checkValidityOfRoverPosition(x, y);
+        if (commandLine == null || commandLine.indexOf(' ') >= 0) {
+            throw new InvalidInputException("Invalid commands for rover#" +
+                                             roverIndex + ". Command: " + commandLine);
+        }
+        plateau.addUnavailablePosition(x, y);
+
+        if (size == xs.length) {
+            int capacity = size << 1;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            headings = Arrays.copyOf(headings, capacity);
+            tapes = Arrays.copyOf(tapes, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        headings[size] = (byte) direction.ordinal();
+        tapes[size] = CommandTape.of(commandLine);
+        size++;
+    }
+
+    /*
+     * Private function to execute a compiled program for a rover.
+     * A straight move is checked against plateau bounds with a range
+     * check, and for collisions with one query. When a step fails, rover
+     * is left at the failing position and the plateau keeps the start of
+     * the failing run.
+     */
+    private void execute(int rover, CommandProgram program) throws WrongCommandException,
+        RoverCollisionException, RoverFallAndCrashException
+    {
+        for (int i = 0; i < program.getSegmentCount(); i++) {
+            int segment = program.getSegment(i);
+            if (!CommandProgram.isMove(segment)) {
+                headings[rover] = (byte) ((headings[rover] + CommandProgram.getQuarterTurns(segment)) & 3);
+                continue;
+            }
+            int steps = CommandProgram.getSteps(segment);
+            Direction direction = DIRECTIONS[headings[rover]];
+            long x = xs[rover];
+            long y = ys[rover];
+            long safeSteps = Math.min(steps, plateau.getDistanceToEdge(x, y, direction));
+
+            // check the part of the run on the plateau for collisions
+            // first, then the first step off the plateau if run does not fit.
+            long blockedStep = plateau.getStepsToUnavailablePosition(x, y, direction, safeSteps);
+            if (blockedStep > 0) {
+                moveTo(rover, direction, blockedStep);
+                checkValidityOfRoverPosition(xs[rover], ys[rover]);
+            }
+            if (safeSteps < steps) {
+                moveTo(rover, direction, safeSteps + 1);
+                checkValidityOfRoverPosition(xs[rover], ys[rover]);
+            }
+            moveTo(rover, direction, steps);
+            plateau.updateUnavailablePosition(x, y, xs[rover], ys[rover]);
+        }
+        if (program.hasError()) {
+            throw new WrongCommandException("Wrong command : " + program.getErrorCommand());
+        }
+    }
+
+    /*
+     * Private function to move a rover a number of steps in a direction.
+     * Coordinates of the plateau are bounded, so that a run from a
+     * position of the plateau cannot overflow.
+     */
+    private void moveTo(int rover, Direction direction, long steps) {
+        int transition = TransitionTable.forCode(direction.ordinal(), CommandTape.CODE_MOVE);
+        xs[rover] += TransitionTable.getStepX(transition) * steps;
+        ys[rover] += TransitionTable.getStepY(transition) * steps;
+    }
+
+    /*
+     * Private function to check validity of rover position.
+     */
+    private void checkValidityOfRoverPosition(long x, long y)
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        if (!plateau.isPositionReachable(x, y)) {
+            throw new RoverFallAndCrashException("Rover fell off the plateau. " +
+                                                  "Rover's new position:" + x + " " + y +
+                                                  ", Plateau : " + plateau);
+        }
+        if (!plateau.isPositionAvailable(x, y)) {
+            throw new RoverCollisionException("Rover collided with another rover. " +
+                                              "Position: " + x + " " + y);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.abhishek.marsrover.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CommandScannerTest {
+
+    @Test
+    public void testGetScanner_withVectorModule_usesVectorApi() {
+        String expected = isVectorScannerSupported() ? "VectorCommandScanner" : "ScalarCommandScanner";
+        assertThat(CommandTape.getScanner().getClass().getSimpleName(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void testPack_withValidCommands_packsWords() {
+        byte[] bytes = "MRLMMMMMMMMMMMMMMMMMMMMMMMMMMMMMLR".getBytes(StandardCharsets.US_ASCII);
+        for (CommandScanner scanner : new CommandScanner[] {CommandTape.getScanner(), new ScalarCommandScanner()}) {
+            long[] words = {-1, -1, -1};
+            assertThat(scanner.pack(bytes, 0, bytes.length, words, 1), is(equalTo(-1)));
+            assertThat(words[0], is(equalTo(-1L)));
+            assertThat(words[1], is(equalTo(0x34L)));
+            assertThat(words[2], is(equalTo(7L)));
+        }
+    }
+
+    @Test
+    public void testPack_withInvalidCommand_returnsItsIndexAndClearsLaterBits() {
+        byte[] bytes = "MMMMRRRRLLLLMMMMRRRRLLLLMMMMRRRRLLLLMXRRR".getBytes(StandardCharsets.US_ASCII);
+        for (CommandScanner scanner : new CommandScanner[] {CommandTape.getScanner(), new ScalarCommandScanner()}) {
+            long[] words = {-1, -1};
+            assertThat(scanner.pack(bytes, 0, bytes.length, words, 0), is(equalTo(37)));
+            assertThat(words[1], is(equalTo(CommandTape.of("LLLLM").getWord(0))));
+        }
+    }
+
+    @Test
+    public void testPack_withRandomBytes_matchesScalarScanner() {
+        Random random = new Random(5);
+        CommandScanner scalar = new ScalarCommandScanner();
+        for (int n = 0; n < 2000; n++) {
+            byte[] bytes = new byte[random.nextInt(300)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = random.nextInt(500) == 0 ? (byte) random.nextInt(256) : (byte) "LRM".charAt(random.nextInt(3));
+            }
+            int offset = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+            int length = bytes.length - offset;
+            long[] expected = new long[(length + 31) / 32];
+            long[] words = new long[(length + 31) / 32];
+            assertThat(CommandTape.getScanner().pack(bytes, offset, length, words, 0),
+                       is(equalTo(scalar.pack(bytes, offset, length, expected, 0))));
+            assertThat(words, is(equalTo(expected)));
+        }
+    }
+
+    /*
+     * Checks if the vector scanner was compiled from src-vector, and runs
+     * with its module on hardware with vectors of 256 bits. The scanner
+     * class only links when the module is present.
+     */
+    private static boolean isVectorScannerSupported() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            Method supported = Class.forName("com.abhishek.marsrover.data.VectorCommandScanner")
+                .getDeclaredMethod("isSupported");
+            return (Boolean) supported.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.abhishek.marsrover.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CommandTapeTest {
+
+    @Test
+    public void testOf_withValidCommands_keepsCommandLine() {
+        CommandTape tape = CommandTape.of("LMLMLMLMM");
+        assertThat(tape.length(), is(equalTo(9)));
+        assertThat(tape.hasError(), is(false));
+        assertThat(tape.toString(), is(equalTo("LMLMLMLMM")));
+    }
+
+    @Test
+    public void testOf_withCommandsOverSeveralWords_packsTwoBitsPerCommand() {
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            commands.append(i % 2 == 0 ? 'M' : 'R');
+        }
+        commands.append('L');
+        CommandTape tape = CommandTape.of(commands);
+        assertThat(tape.getWordCount(), is(equalTo(2)));
+        assertThat(tape.getWord(0), is(equalTo(0x4444444444444444L)));
+        assertThat(tape.getWord(1), is(equalTo(0x34444L)));
+        assertThat(tape.getCode(40), is(equalTo(CommandTape.CODE_LEFT)));
+        assertThat(tape.toString(), is(equalTo(commands.toString())));
+    }
+
+    @Test
+    public void testOf_withInvalidCommand_keepsCommandsBeforeItAndTheCommand() {
+        CommandTape tape = CommandTape.of("MMRXMM");
+        assertThat(tape.hasError(), is(true));
+        assertThat(tape.getCommandCount(), is(equalTo(3)));
+        assertThat(tape.getErrorCommand(), is(equalTo('X')));
+        assertThat(tape.toString(), is(equalTo("MMRX")));
+    }
+
+    @Test
+    public void testOf_withNulCommand_reportsError() {
+        CommandTape tape = CommandTape.of("M\0");
+        assertThat(tape.hasError(), is(true));
+        assertThat(tape.length(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testHashCode_isSameAsHashOfString() {
+        assertThat(CommandTape.of("MMRMMRMRRM").hashCode(), is(equalTo("MMRMMRMRRM".hashCode())));
+        assertThat(CommandTape.of("").hashCode(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testEquals_withSameAndDifferentCommands() {
+        assertThat(CommandTape.of("MMRL"), is(equalTo(CommandTape.of(new StringBuilder("MMRL")))));
+        assertThat(CommandTape.of("MMRL"), is(not(equalTo(CommandTape.of("MMRR")))));
+        assertThat(CommandTape.of("MMX"), is(not(equalTo(CommandTape.of("MMY")))));
+        assertThat(CommandTape.of("MM"), is(not(equalTo(CommandTape.of("MMM")))));
+    }
+
+    @Test
+    public void testSubSequence_returnsTapeOfRange() {
+        assertThat(CommandTape.of("LMRMX").subSequence(1, 5).toString(), is(equalTo("MRMX")));
+    }
+
+    @Test
+    public void testFromWords_withWordsOfTape_returnsEqualTape() {
+        CommandTape tape = CommandTape.of("LMRMMRX");
+        CommandTape copy = CommandTape.fromWords(new long[] { tape.getWord(0) }, 6, true, 'X');
+        assertThat(copy, is(equalTo(tape)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFromWords_withCodeTwo_throwsException() {
+        CommandTape.fromWords(new long[] { 0x2L }, 1, false, '\0');
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFromWords_withBitsAfterLastCommand_throwsException() {
+        CommandTape.fromWords(new long[] { 0x10L }, 2, false, '\0');
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetWord_withIndexOutOfRange_throwsException() {
+        CommandTape.of("MMMM").getWord(1);
+    }
+
+    @Test
+    public void testOfByteBuffer_withRandomCommands_matchesCharSequence() {
+        Random random = new Random(3);
+        for (int n = 0; n < 500; n++) {
+            StringBuilder commands = new StringBuilder();
+            int length = random.nextInt(n % 10 == 0 ? 10000 : 100);
+            for (int i = 0; i < length; i++) {
+                commands.append(random.nextInt(2000) == 0 ? 'X' : "LRMMM".charAt(random.nextInt(5)));
+            }
+            byte[] bytes = ("#" + commands + "#").getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+            CommandTape expected = CommandTape.of(commands);
+            assertThat(CommandTape.of(ByteBuffer.wrap(bytes), 1, length), is(equalTo(expected)));
+            assertThat(CommandTape.of(direct, 1, length), is(equalTo(expected)));
+            assertThat(direct.position(), is(equalTo(bytes.length)));
+        }
+    }
+
+    @Test
+    public void testOfByteBuffer_withInvalidCommandInSecondChunk_keepsCommandsBeforeIt() {
+        byte[] bytes = new byte[10000];
+        Arrays.fill(bytes, (byte) 'M');
+        bytes[9000] = (byte) 0xE9;
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        CommandTape tape = CommandTape.of(direct, 0, bytes.length);
+        assertThat(tape.getCommandCount(), is(equalTo(9000)));
+        assertThat(tape.getErrorCommand(), is(equalTo('\u00E9')));
+        assertThat(tape.getWordCount(), is(equalTo(282)));
+    }
+}
@@ -51,6 +51,15 @@ public class CoordinateTest {
         assertThat(comparision < 0, is(true));
     }
 
+    @Test
+    public void testCompareTo_withExtremeCoordinates_doesNotOverflow() {
+        Coordinate max = new Coordinate(Integer.MAX_VALUE);
+        Coordinate min = new Coordinate(Integer.MIN_VALUE);
+        assertThat(max.compareTo(min) > 0, is(true));
+        assertThat(min.compareTo(max) < 0, is(true));
+        assertThat(max.compareTo(new Coordinate(-1)) > 0, is(true));
+    }
+
     @Test
     public void testCompareTo_withSmallerCoordinate_returnsPositiveInteger() {
         Coordinate testCoordinate = new Coordinate(SMALLER_VALUE);
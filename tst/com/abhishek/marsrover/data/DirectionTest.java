@@ -54,6 +54,15 @@ public class DirectionTest {
         assertThat(direction, is(equalTo(Direction.N)));
     }
 
+    @Test
+    public void testRotate_matchesRepeatedTurns() {
+        assertThat(direction.rotate(1), is(equalTo(Direction.E)));
+        assertThat(direction.rotate(2), is(equalTo(Direction.S)));
+        assertThat(direction.rotate(3), is(equalTo(Direction.W)));
+        assertThat(direction.rotate(-1), is(equalTo(Direction.W)));
+        assertThat(direction.rotate(4), is(equalTo(Direction.N)));
+    }
+
     @Test
     public void testGetDirectionFromString_returnsDirectionRepresentedByString()
         throws InvalidInputException
@@ -74,4 +83,11 @@ public class DirectionTest {
     {
         Direction.getDirectionFromString(SOME_RANDOM_STRING);
     }
+
+    @Test
+    public void testGetDirectionFromValue_returnsDirectionWithThatOrdinal() {
+        for (Direction direction : Direction.values()) {
+            assertThat(Direction.getDirectionFromValue(direction.ordinal()), is(equalTo(direction)));
+        }
+    }
 }
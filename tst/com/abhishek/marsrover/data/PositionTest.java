@@ -6,9 +6,6 @@ import static org.hamcrest.CoreMatchers.not;
 
 import static org.junit.Assert.assertThat;
 
-import org.easymock.EasyMock;
-import org.easymock.IMocksControl;
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -17,128 +14,112 @@ import com.abhishek.marsrover.exceptions.InvalidInputException;
 public class PositionTest {
 
     private static final int XVALUE = 1;
-    private static final int YVALUE = 1;
-    private Coordinate xCoordinate;
-    private Coordinate clonedXCoordinate;
-    private Coordinate clonedYCoordinate;
-    private Coordinate yCoordinate;
+    private static final int YVALUE = 2;
     private Position position;
-    private IMocksControl ctrl;
 
     @Before
     public void setup() {
-        ctrl = EasyMock.createControl();
-        xCoordinate = ctrl.createMock(Coordinate.class);
-        clonedXCoordinate = ctrl.createMock(Coordinate.class);
-        yCoordinate = ctrl.createMock(Coordinate.class);
-        clonedYCoordinate = ctrl.createMock(Coordinate.class);
-        position = new Position(xCoordinate, yCoordinate);
-    }
-
-    @After
-    public void verify() {
-        ctrl.verify();
+        position = new Position(new Coordinate(XVALUE), new Coordinate(YVALUE));
     }
 
     @Test
     public void testGetXCoordinate_returnsCoordinate() {
-        ctrl.replay();
-        assertThat(position.getXCoordinate(), is(xCoordinate));
+        assertThat(position.getXCoordinate(), is(equalTo(new Coordinate(XVALUE))));
+        assertThat(position.getX(), is(equalTo(XVALUE)));
     }
 
     @Test
     public void testGetYCoordinateValue_returnsYValue() {
-        ctrl.replay();
-        assertThat(position.getYCoordinate(), is(yCoordinate));
+        assertThat(position.getYCoordinate(), is(equalTo(new Coordinate(YVALUE))));
+        assertThat(position.getY(), is(equalTo(YVALUE)));
     }
 
     @Test
     public void testMove_towardsNorth_incrementsYValue() throws InvalidInputException {
-        yCoordinate.up();
-        EasyMock.expectLastCall();
-        ctrl.replay();
-
-        position.move(Direction.N);
+        assertThat(position.move(Direction.N), is(equalTo(new Position(XVALUE, YVALUE + 1))));
     }
 
     @Test
     public void testMove_towardsSouth_decrementsYValue() throws InvalidInputException {
-        yCoordinate.down();
-        EasyMock.expectLastCall();
-        ctrl.replay();
-
-        position.move(Direction.S);
+        assertThat(position.move(Direction.S), is(equalTo(new Position(XVALUE, YVALUE - 1))));
     }
 
     @Test
     public void testMove_towardsEast_incrementsXValue() throws InvalidInputException {
-        xCoordinate.up();
-        EasyMock.expectLastCall();
-        ctrl.replay();
-
-        position.move(Direction.E);
+        assertThat(position.move(Direction.E), is(equalTo(new Position(XVALUE + 1, YVALUE))));
     }
 
     @Test
     public void testMove_towardsWest_decrementsXValue() throws InvalidInputException {
-        xCoordinate.down();
-        EasyMock.expectLastCall();
-        ctrl.replay();
+        assertThat(position.move(Direction.W), is(equalTo(new Position(XVALUE - 1, YVALUE))));
+    }
 
-        position.move(Direction.W);
+    @Test
+    public void testMove_doesNotChangeOriginalPosition() throws InvalidInputException {
+        position.move(Direction.N);
+        assertThat(position, is(equalTo(new Position(XVALUE, YVALUE))));
     }
 
     @Test(expected=InvalidInputException.class)
     public void testMove_withNullDirection_throwsException() throws InvalidInputException {
-        ctrl.replay();
         position.move(null);
     }
 
     @Test
-    public void testClone_returnsNewPositionObjectWithSameCoordinateValues() {
-        EasyMock.expect(xCoordinate.clone()).andReturn(clonedXCoordinate);
-        EasyMock.expect(yCoordinate.clone()).andReturn(clonedYCoordinate);
-        EasyMock.expect(xCoordinate.getValue()).andReturn(XVALUE);
-        EasyMock.expect(clonedXCoordinate.getValue()).andReturn(XVALUE);
-        EasyMock.expect(yCoordinate.getValue()).andReturn(YVALUE);
-        EasyMock.expect(clonedYCoordinate.getValue()).andReturn(YVALUE);
-        ctrl.replay();
+    public void testPack_withNegativeValues_roundTrips() {
+        long packed = Position.pack(-XVALUE, -YVALUE);
+        assertThat(Position.x(packed), is(equalTo(-XVALUE)));
+        assertThat(Position.y(packed), is(equalTo(-YVALUE)));
+    }
 
-        Position clonedPosition = position.clone();
-        assertThat(clonedPosition.hashCode(), is(not(equalTo(position.hashCode()))));
-        assertThat(clonedPosition.getXCoordinate().getValue(), is(equalTo(position.getXCoordinate().getValue())));
-        assertThat(clonedPosition.getYCoordinate().getValue(), is(equalTo(position.getYCoordinate().getValue())));
+    @Test
+    public void testPackedMove_matchesPositionMove() throws InvalidInputException {
+        for (Direction direction : Direction.values()) {
+            long moved = Position.move(position.getValue(), direction);
+            assertThat(new Position(moved), is(equalTo(position.move(direction))));
+        }
     }
 
     @Test
-    public void testEquals_withSameValuesOfCoordinates_returnsTrue() {
-        Position testPosition = new Position(xCoordinate, yCoordinate);
-        ctrl.replay();
+    public void testPackedMove_withSteps_movesWholeRun() throws InvalidInputException {
+        long moved = Position.move(position.getValue(), Direction.S, 2);
+        assertThat(new Position(moved), is(equalTo(new Position(XVALUE, YVALUE - 2))));
+    }
 
+    @Test
+    public void testEquals_withSameValuesOfCoordinates_returnsTrue() {
+        Position testPosition = new Position(XVALUE, YVALUE);
         assertThat(position.equals(testPosition), is(true));
+        assertThat(position.hashCode(), is(equalTo(testPosition.hashCode())));
     }
 
     @Test
     public void testEquals_withDifferentXCoordinates_returnsFalse() {
-        Position testPosition = new Position(clonedXCoordinate, yCoordinate);
-    	ctrl.replay();
-
+        Position testPosition = new Position(XVALUE + 1, YVALUE);
         assertThat(position.equals(testPosition), is(false));
     }
 
     @Test
     public void testEquals_withDifferentYCoordinates_returnsFalse() {
-        Position testPosition = new Position(xCoordinate, clonedYCoordinate);
-        ctrl.replay();
+        Position testPosition = new Position(XVALUE, YVALUE + 1);
+        assertThat(position.equals(testPosition), is(false));
+    }
 
+    @Test
+    public void testEquals_withSwappedCoordinates_returnsFalse() {
+        Position testPosition = new Position(YVALUE, XVALUE);
         assertThat(position.equals(testPosition), is(false));
+        assertThat(position.hashCode(), is(not(equalTo(testPosition.hashCode()))));
     }
 
     @Test
     public void testEquals_withNonCoordinateObject_returnsFalse() {
         Object testObject = new Object();
-        ctrl.replay();
-
         assertThat(position.equals(testObject), is(false));
     }
+
+    @Test
+    public void testToString_returnsSpaceSeparatedValues() {
+        assertThat(position.toString(), is(equalTo(XVALUE + " " + YVALUE)));
+    }
 }
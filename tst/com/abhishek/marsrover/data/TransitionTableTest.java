@@ -0,0 +1,56 @@
+package com.abhishek.marsrover.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class TransitionTableTest {
+
+    @Test
+    public void testForCommand_withMove_stepsInHeading() {
+        int[][] steps = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+        for (int heading = 0; heading < 4; heading++) {
+            int transition = TransitionTable.forCommand(heading, 'M');
+            assertThat(TransitionTable.isError(transition), is(false));
+            assertThat(TransitionTable.isMove(transition), is(true));
+            assertThat(TransitionTable.getHeading(transition), is(equalTo(heading)));
+            assertThat(TransitionTable.getStepX(transition), is(equalTo(steps[heading][0])));
+            assertThat(TransitionTable.getStepY(transition), is(equalTo(steps[heading][1])));
+        }
+    }
+
+    @Test
+    public void testForCommand_withTurns_changesHeadingOnly() {
+        for (Direction direction : Direction.values()) {
+            int right = TransitionTable.forCommand(direction.ordinal(), 'R');
+            int left = TransitionTable.forCommand(direction.ordinal(), 'L');
+            assertThat(TransitionTable.isMove(right), is(false));
+            assertThat(TransitionTable.isMove(left), is(false));
+            assertThat(TransitionTable.getHeading(right), is(equalTo(direction.turnRight().ordinal())));
+            assertThat(TransitionTable.getHeading(left), is(equalTo(direction.turnLeft().ordinal())));
+        }
+    }
+
+    @Test
+    public void testForCommand_withInvalidCommands_returnsError() {
+        for (char command : new char[] {'X', 'm', ' ', '\0', '\u00E9', '\u4D4D'}) {
+            assertThat(TransitionTable.isError(TransitionTable.forCommand(0, command)), is(true));
+        }
+    }
+
+    @Test
+    public void testForCode_matchesCommandBytes() {
+        for (int heading = 0; heading < 4; heading++) {
+            assertThat(TransitionTable.forCode(heading, CommandTape.CODE_MOVE),
+                       is(equalTo(TransitionTable.forCommand(heading, 'M'))));
+            assertThat(TransitionTable.forCode(heading, CommandTape.CODE_RIGHT),
+                       is(equalTo(TransitionTable.forCommand(heading, 'R'))));
+            assertThat(TransitionTable.forCode(heading, CommandTape.CODE_LEFT),
+                       is(equalTo(TransitionTable.forCommand(heading, 'L'))));
+            assertThat(TransitionTable.isError(TransitionTable.forCode(heading, 2)), is(true));
+        }
+    }
+}
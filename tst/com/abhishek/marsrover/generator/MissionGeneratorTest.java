@@ -0,0 +1,137 @@
+package com.abhishek.marsrover.generator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.generator.MissionGenerator.Occurrence;
+import com.abhishek.marsrover.parser.TextMissionWriter;
+import com.abhishek.marsrover.simulator.MarsRoverSimulator;
+
+public class MissionGeneratorTest {
+
+    @Test
+    public void testGenerate_withSameSeed_generatesSameMission() throws Exception {
+        MissionGenerator.Builder builder = new MissionGenerator.Builder().plateau(50, 40).rovers(30);
+
+        String mission = generate(builder.seed(1).build());
+        assertThat(generate(builder.seed(1).build()), is(equalTo(mission)));
+        assertThat(generate(builder.seed(2).build()), is(not(equalTo(mission))));
+    }
+
+    @Test
+    public void testGenerate_withSettings_writesRoversInInputLayout() throws Exception {
+        MissionGenerator generator = new MissionGenerator.Builder().plateau(19, 9).rovers(25)
+            .commandLength(5, 8).commandMix(1, 0, 0).build();
+
+        String[] lines = generate(generator).split("\n");
+        assertThat(lines[0], is(equalTo("19 9")));
+        assertThat(lines.length, is(equalTo(1 + 2 * 25)));
+        Set<String> starts = new HashSet<>();
+        for (int i = 1; i < lines.length; i += 2) {
+            String[] start = lines[i].split(" ");
+            assertThat(lines[i], starts.add(start[0] + " " + start[1]), is(true));
+            assertThat(lines[i + 1], lines[i + 1].length() >= 5 && lines[i + 1].length() <= 8, is(true));
+            assertThat(lines[i + 1], lines[i + 1].matches("[MLR]*"), is(true));
+        }
+    }
+
+    @Test
+    public void testGetRoverCount_withDensity_coversShareOfPlateau() {
+        MissionGenerator generator = new MissionGenerator.Builder().plateau(99, 99).density(0.25).build();
+
+        assertThat(generator.getRoverCount(), is(equalTo(2500)));
+        assertThat(generator.getBlockSide(), is(equalTo(2)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuild_withMoreRoversThanPositions_throwsException() {
+        new MissionGenerator.Builder().plateau(2, 2).rovers(10).build();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuild_withCollisionAndFallGuaranteed_throwsException() {
+        new MissionGenerator.Builder().collisions(Occurrence.GUARANTEED).falls(Occurrence.GUARANTEED).build();
+    }
+
+    @Test
+    public void testGenerate_withFailuresForbidden_runsWithoutError() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            MissionGenerator generator = new MissionGenerator.Builder().seed(seed).plateau(60, 30)
+                .density(0.2).commandLength(0, 60).repeatedPrograms(0.5, 4).build();
+
+            run(generate(generator));
+        }
+    }
+
+    @Test
+    public void testGenerate_withCollisionGuaranteed_failsWithCollision() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            MissionGenerator generator = new MissionGenerator.Builder().seed(seed).plateau(40, 40)
+                .rovers(seed + 2).collisions(Occurrence.GUARANTEED).falls(Occurrence.FORBIDDEN).build();
+            try {
+                run(generate(generator));
+                fail("Expected RoverCollisionException for seed " + seed);
+            } catch (RoverCollisionException e) {
+                // expected.
+            }
+        }
+    }
+
+    @Test
+    public void testGenerate_withFallGuaranteed_failsWithFall() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            MissionGenerator generator = new MissionGenerator.Builder().seed(seed).plateau(40, 40)
+                .density(0.3).falls(Occurrence.GUARANTEED).build();
+            try {
+                run(generate(generator));
+                fail("Expected RoverFallAndCrashException for seed " + seed);
+            } catch (RoverFallAndCrashException e) {
+                // expected.
+            }
+        }
+    }
+
+    @Test
+    public void testGenerate_withRepeatedPrograms_reusesPoolPrograms() throws Exception {
+        MissionGenerator generator = new MissionGenerator.Builder().plateau(99, 99).rovers(200)
+            .commandLength(30, 30).repeatedPrograms(1, 3).build();
+
+        String[] lines = generate(generator).split("\n");
+        Set<String> programs = new HashSet<>();
+        for (int i = 2; i < lines.length; i += 2) {
+            programs.add(lines[i]);
+        }
+        assertThat(programs.size() <= 3, is(true));
+    }
+
+    private static String generate(MissionGenerator generator) throws Exception {
+        StringWriter text = new StringWriter();
+        try (TextMissionWriter writer = new TextMissionWriter(text)) {
+            generator.generate(writer);
+        }
+        return text.toString();
+    }
+
+    private static void run(String mission) throws Exception {
+        MarsRoverSimulator simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)),
+                                                              new PrintStream(new ByteArrayOutputStream()));
+        simulator.initialize();
+        simulator.processRoverCommands();
+    }
+}
@@ -0,0 +1,56 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BitSetOccupancyIndexTest {
+
+    private static final int MIN_VALUE = 0;
+    private static final int MAX_VALUE = 9;
+    private BitSetOccupancyIndex index;
+
+    @Before
+    public void setup() {
+        index = new BitSetOccupancyIndex(MIN_VALUE, MIN_VALUE, MAX_VALUE, MAX_VALUE);
+    }
+
+    @Test
+    public void testIsOccupied_withEmptyIndex_returnsFalse() {
+        assertThat(index.isOccupied(3, 4), is(false));
+    }
+
+    @Test
+    public void testOccupy_cellBecomesOccupied() {
+        index.occupy(3, 4);
+        assertThat(index.isOccupied(3, 4), is(true));
+        assertThat(index.isOccupied(4, 3), is(false));
+    }
+
+    @Test
+    public void testRelease_cellBecomesFree() {
+        index.occupy(MAX_VALUE, MAX_VALUE);
+        index.release(MAX_VALUE, MAX_VALUE);
+        assertThat(index.isOccupied(MAX_VALUE, MAX_VALUE), is(false));
+    }
+
+    @Test
+    public void testIsOccupied_withCellOutsideBounds_returnsFalse() {
+        index.occupy(MIN_VALUE, MIN_VALUE);
+        assertThat(index.isOccupied(MIN_VALUE - 1, MIN_VALUE), is(false));
+        assertThat(index.isOccupied(MAX_VALUE + 1, MIN_VALUE), is(false));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOccupy_withCellOutsideBounds_throwsException() {
+        index.occupy(MAX_VALUE + 1, MIN_VALUE);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_withInvertedBounds_throwsException() {
+        new BitSetOccupancyIndex(MAX_VALUE, MAX_VALUE, MIN_VALUE, MIN_VALUE);
+    }
+}
@@ -0,0 +1,194 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+
+public class ConcurrentPlateauTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testAddAndRemoveUnavailablePosition_updatesAvailability() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+
+        plateau.addUnavailablePosition(new Position(70, 3));
+        assertThat(plateau.isPositionAvailable(new Position(70, 3)), is(false));
+        assertThat(plateau.isPositionAvailable(new Position(70, 4)), is(true));
+        assertThat(plateau.tryAddUnavailablePosition(Position.pack(70, 3)), is(false));
+
+        plateau.removeUnavailablePosition(Position.pack(70, 3));
+        assertThat(plateau.isPositionAvailable(new Position(70, 3)), is(true));
+    }
+
+    @Test(expected=RuntimeException.class)
+    public void testRemoveUnavailablePosition_withPositionNotPresent_throwsException() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+
+        plateau.removeUnavailablePosition(Position.pack(1, 2));
+    }
+
+    @Test(expected=RuntimeException.class)
+    public void testUpdateUnavailablePosition_withPrevPositionNotPresent_throwsException() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+        plateau.addUnavailablePosition(Position.pack(1, 3));
+
+        plateau.updateUnavailablePosition(Position.pack(1, 2), Position.pack(1, 3));
+    }
+
+    @Test
+    public void testUpdateUnavailablePosition_acrossTiles_movesPosition() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+        plateau.addUnavailablePosition(Position.pack(63, 10));
+
+        plateau.updateUnavailablePosition(Position.pack(63, 10), Position.pack(64, 10));
+        assertThat(plateau.isPositionAvailable(Position.pack(63, 10)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(64, 10)), is(false));
+    }
+
+    @Test
+    public void testMoveIfAvailable_withUnavailableTarget_changesNothing() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+        plateau.addUnavailablePosition(Position.pack(10, 63));
+        plateau.addUnavailablePosition(Position.pack(10, 64));
+
+        assertThat(plateau.moveIfAvailable(Position.pack(10, 64), Position.pack(10, 63)), is(false));
+        assertThat(plateau.isPositionAvailable(Position.pack(10, 64)), is(false));
+        assertThat(plateau.moveIfAvailable(Position.pack(10, 64), Position.pack(10, 65)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(10, 64)), is(true));
+    }
+
+    @Test
+    public void testGetStepsToUnavailablePosition_withRandomPositions_matchesPlateau() {
+        Random random = new Random(11);
+        Position min = new Position(-70, 5);
+        Position max = new Position(230, 180);
+        ConcurrentPlateau concurrent = new ConcurrentPlateau(min, max);
+        Plateau plain = new Plateau(min, max);
+        for (int i = 0; i < 400; i++) {
+            long position = Position.pack(-70 + random.nextInt(301), 5 + random.nextInt(176));
+            concurrent.addUnavailablePosition(position);
+            plain.addUnavailablePosition(position);
+        }
+        for (int i = 0; i < 5000; i++) {
+            long position = Position.pack(-70 + random.nextInt(301), 5 + random.nextInt(176));
+            Direction direction = Direction.values()[random.nextInt(4)];
+            int steps = random.nextInt(10) == 0 ? Integer.MAX_VALUE : random.nextInt(300);
+            assertThat(Position.toString(position) + " " + direction + " " + steps,
+                       concurrent.getStepsToUnavailablePosition(position, direction, steps),
+                       is(equalTo(plain.getStepsToUnavailablePosition(position, direction, steps))));
+        }
+    }
+
+    @Test
+    public void testGetStepsToUnavailablePosition_onLargePlateau_skipsEmptyTiles() {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0),
+                                                          new Position(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        plateau.addUnavailablePosition(Position.pack(5, 10_000_000));
+
+        assertThat(plateau.getStepsToUnavailablePosition(Position.pack(5, 0), Direction.N, Integer.MAX_VALUE),
+                   is(equalTo(10_000_000)));
+        assertThat(plateau.isPositionAvailable(Position.pack(5, 10_000_000)), is(false));
+    }
+
+    @Test
+    public void testMoveIfAvailable_fromManyThreadsToSameCell_movesOneRover() throws Exception {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(199, 199));
+        // rovers around (64, 64), which is the corner of four tiles.
+        long[] starts = {Position.pack(63, 64), Position.pack(65, 64), Position.pack(64, 63), Position.pack(64, 65)};
+        for (long start : starts) {
+            plateau.addUnavailablePosition(start);
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Boolean>> moves = new ArrayList<>();
+        for (long start : starts) {
+            moves.add(executor.submit(() -> {
+                latch.await();
+                return plateau.moveIfAvailable(start, Position.pack(64, 64));
+            }));
+        }
+        latch.countDown();
+        int moved = 0;
+        for (Future<Boolean> move : moves) {
+            moved += move.get() ? 1 : 0;
+        }
+        assertThat(moved, is(equalTo(1)));
+    }
+
+    @Test
+    public void testMoves_fromManyThreadsAcrossTiles_keepEveryRover() throws Exception {
+        ConcurrentPlateau plateau = new ConcurrentPlateau(new Position(0, 0), new Position(255, 255));
+        int threads = 8;
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            tasks.add(() -> {
+                // each thread moves its rovers at random across shared tiles.
+                Random random = new Random(seed);
+                long[] rovers = new long[16];
+                for (int i = 0; i < rovers.length; i++) {
+                    do {
+                        rovers[i] = Position.pack(random.nextInt(256), random.nextInt(256));
+                    } while (!plateau.tryAddUnavailablePosition(rovers[i]));
+                }
+                for (int n = 0; n < 20000; n++) {
+                    int i = random.nextInt(rovers.length);
+                    Direction direction = Direction.values()[random.nextInt(4)];
+                    if (plateau.getStepsToUnavailablePosition(rovers[i], direction, 1) == 0
+                        && plateau.getDistanceToEdge(rovers[i], direction) > 0)
+                    {
+                        long target = Position.move(rovers[i], direction);
+                        if (plateau.moveIfAvailable(rovers[i], target)) {
+                            rovers[i] = target;
+                        }
+                    }
+                }
+                int unavailable = 0;
+                for (long rover : rovers) {
+                    unavailable += plateau.isPositionAvailable(rover) ? 0 : 1;
+                }
+                return unavailable;
+            });
+        }
+        int unavailable = 0;
+        for (Future<Integer> result : executor.invokeAll(tasks)) {
+            unavailable += result.get();
+        }
+        assertThat(unavailable, is(equalTo(threads * 16)));
+
+        int count = 0;
+        for (int x = 0; x < 256; x++) {
+            for (int y = 0; y < 256; y++) {
+                count += plateau.isPositionAvailable(Position.pack(x, y)) ? 0 : 1;
+            }
+        }
+        assertThat(count, is(equalTo(threads * 16)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+
+public class FleetTest {
+
+    @Test
+    public void testAdd_withRoverAndCommands_storesColumns() {
+        Fleet fleet = new Fleet(4, false);
+
+        int rover = fleet.add(3, -2, Direction.W, CommandTape.of("LMMRX"));
+        assertThat(rover, is(equalTo(0)));
+        assertThat(fleet.size(), is(equalTo(1)));
+        assertThat(fleet.getX(rover), is(equalTo(3)));
+        assertThat(fleet.getY(rover), is(equalTo(-2)));
+        assertThat(fleet.getPackedPosition(rover), is(equalTo(Position.pack(3, -2))));
+        assertThat(fleet.getDirection(rover), is(equalTo(Direction.W)));
+        assertThat(fleet.getCommandCount(rover), is(equalTo(4)));
+        assertThat(fleet.getCommandWord(rover, 0), is(equalTo(CommandTape.of("LMMR").getWord(0))));
+        assertThat(fleet.hasError(rover), is(true));
+        assertThat(fleet.getErrorCommand(rover), is(equalTo('X')));
+    }
+
+    @Test
+    public void testMoveTo_updatesPositionAndDirection() {
+        Fleet fleet = new Fleet(1, true);
+        int rover = fleet.add(0, 0, Direction.N, CommandTape.of(""));
+
+        fleet.moveTo(rover, Position.pack(4, 5), Direction.S.ordinal());
+        assertThat(fleet.toString(rover), is(equalTo("4 5 S")));
+        assertThat(fleet.hasError(rover), is(false));
+    }
+
+    @Test
+    public void testAdd_beyondCapacity_growsColumns() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            Fleet fleet = new Fleet(1, offHeap);
+            String commands = "MMRMMLMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMLMMMR";
+            for (int i = 0; i < 1000; i++) {
+                fleet.add(i, -i, Direction.values()[i % 4], CommandTape.of(commands.substring(i % 40)));
+            }
+            assertThat(fleet.size(), is(equalTo(1000)));
+            assertThat(fleet.isOffHeap(), is(offHeap));
+            for (int i = 0; i < 1000; i++) {
+                CommandTape tape = CommandTape.of(commands.substring(i % 40));
+                assertThat(fleet.toString(i), is(equalTo(i + " " + -i + " " + Direction.values()[i % 4])));
+                assertThat(fleet.getCommandCount(i), is(equalTo(tape.getCommandCount())));
+                for (int w = 0; w < tape.getWordCount(); w++) {
+                    assertThat(fleet.getCommandWord(i, w), is(equalTo(tape.getWord(w))));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HashOccupancyIndexTest {
+
+    private static final int CELL_COUNT = 10000;
+    private HashOccupancyIndex index;
+
+    @Before
+    public void setup() {
+        index = new HashOccupancyIndex();
+    }
+
+    @Test
+    public void testIsOccupied_withEmptyIndex_returnsFalse() {
+        assertThat(index.isOccupied(1, 2), is(false));
+    }
+
+    @Test
+    public void testOccupy_cellBecomesOccupied() {
+        index.occupy(1, 2);
+        assertThat(index.isOccupied(1, 2), is(true));
+        assertThat(index.isOccupied(2, 1), is(false));
+        assertThat(index.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testOccupy_sameCellTwice_storesItOnce() {
+        index.occupy(1, 2);
+        index.occupy(1, 2);
+        assertThat(index.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testRelease_cellBecomesFree() {
+        index.occupy(1, 2);
+        index.release(1, 2);
+        assertThat(index.isOccupied(1, 2), is(false));
+        assertThat(index.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testOccupy_withExtremeCoordinates_keepsCellsApart() {
+        index.occupy(Integer.MIN_VALUE, 0);
+        index.occupy(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertThat(index.isOccupied(Integer.MIN_VALUE, 0), is(true));
+        assertThat(index.isOccupied(Integer.MAX_VALUE, Integer.MAX_VALUE), is(true));
+        assertThat(index.isOccupied(0, 0), is(false));
+
+        index.release(Integer.MIN_VALUE, 0);
+        assertThat(index.isOccupied(Integer.MIN_VALUE, 0), is(false));
+    }
+
+    @Test
+    public void testRelease_withManyCells_keepsRemainingCellsReachable() {
+        for (int i = 0; i < CELL_COUNT; i++) {
+            index.occupy(i, i * 7);
+        }
+        for (int i = 0; i < CELL_COUNT; i += 2) {
+            index.release(i, i * 7);
+        }
+        for (int i = 0; i < CELL_COUNT; i++) {
+            assertThat(index.isOccupied(i, i * 7), is(i % 2 == 1));
+        }
+        assertThat(index.size(), is(equalTo(CELL_COUNT / 2)));
+    }
+}
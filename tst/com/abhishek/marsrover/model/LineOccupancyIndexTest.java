@@ -0,0 +1,128 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.Direction;
+
+public class LineOccupancyIndexTest {
+
+    private static final int MAX_VALUE = 20;
+    private LineOccupancyIndex index;
+
+    @Before
+    public void setup() {
+        index = new LineOccupancyIndex(0, 0, MAX_VALUE, MAX_VALUE);
+        index.occupy(5, 5);
+        index.occupy(9, 5);
+        index.occupy(5, 12);
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_withFreeRun_returnsZero() {
+        assertThat(index.getStepsToFirstOccupied(5, 5, Direction.E, 3), is(equalTo(0)));
+        assertThat(index.getStepsToFirstOccupied(5, 5, Direction.S, 5), is(equalTo(0)));
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_alongRow_returnsFirstBlockingStep() {
+        assertThat(index.getStepsToFirstOccupied(5, 5, Direction.E, 4), is(equalTo(4)));
+        assertThat(index.getStepsToFirstOccupied(0, 5, Direction.E, MAX_VALUE), is(equalTo(5)));
+        assertThat(index.getStepsToFirstOccupied(MAX_VALUE, 5, Direction.W, MAX_VALUE), is(equalTo(11)));
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_alongColumn_returnsFirstBlockingStep() {
+        assertThat(index.getStepsToFirstOccupied(5, 5, Direction.N, MAX_VALUE), is(equalTo(7)));
+        assertThat(index.getStepsToFirstOccupied(5, MAX_VALUE, Direction.S, MAX_VALUE), is(equalTo(8)));
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_fromUnoccupiedCell_skipsNothing() {
+        assertThat(index.getStepsToFirstOccupied(7, 5, Direction.E, 2), is(equalTo(2)));
+        assertThat(index.getStepsToFirstOccupied(7, 5, Direction.W, 2), is(equalTo(2)));
+    }
+
+    @Test
+    public void testRelease_cellNoLongerBlocksRuns() {
+        index.release(9, 5);
+        assertThat(index.getStepsToFirstOccupied(5, 5, Direction.E, MAX_VALUE), is(equalTo(0)));
+        assertThat(index.getStepsToFirstOccupied(9, 0, Direction.N, MAX_VALUE), is(equalTo(0)));
+    }
+
+    @Test
+    public void testOccupy_withManyCellsInOneRow_keepsThemSorted() {
+        for (int x = MAX_VALUE; x >= 0; x -= 2) {
+            index.occupy(x, 0);
+        }
+        for (int x = 1; x < MAX_VALUE; x += 2) {
+            assertThat(index.getStepsToFirstOccupied(x, 0, Direction.E, MAX_VALUE), is(equalTo(1)));
+            assertThat(index.getStepsToFirstOccupied(x, 0, Direction.W, MAX_VALUE), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_onHugePlateau_usesSparseLines() {
+        LineOccupancyIndex hugeIndex = new LineOccupancyIndex(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        hugeIndex.occupy(Integer.MAX_VALUE, 7);
+        assertThat(hugeIndex.getStepsToFirstOccupied(Integer.MAX_VALUE - 3, 7, Direction.E, 10), is(equalTo(3)));
+        assertThat(hugeIndex.getStepsToFirstOccupied(Integer.MAX_VALUE, 0, Direction.N, 10), is(equalTo(7)));
+    }
+
+    @Test
+    public void testRelease_withEveryCellOfLines_dropsTheLines() {
+        LineOccupancyIndex hugeIndex = new LineOccupancyIndex(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (int i = 0; i < 1000; i++) {
+            hugeIndex.occupy(i * 7919, i);
+            hugeIndex.release(i * 7919, i);
+        }
+        hugeIndex.occupy(3, 4);
+        index.release(5, 5);
+        index.release(9, 5);
+        index.release(5, 12);
+        assertThat(hugeIndex.getLineCount(), is(equalTo(2)));
+        assertThat(index.getLineCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_withRandomUpdatesOfLongLines_matchesSortedSets() {
+        // few lines of many cells, so that lines are split into blocks and merged again.
+        for (int maxValue : new int[] {2000, Integer.MAX_VALUE}) {
+            Random random = new Random(maxValue);
+            LineOccupancyIndex lines = new LineOccupancyIndex(0, 0, maxValue, 3);
+            List<TreeSet<Integer>> rows = new ArrayList<>();
+            for (int y = 0; y <= 3; y++) {
+                rows.add(new TreeSet<>());
+            }
+            for (int n = 0; n < 50000; n++) {
+                int y = random.nextInt(4);
+                int x = random.nextInt(2000);
+                // cells are mostly occupied first, and mostly released later.
+                if (random.nextInt(50000) > n) {
+                    lines.occupy(x, y);
+                    rows.get(y).add(x);
+                } else {
+                    lines.release(x, y);
+                    rows.get(y).remove(x);
+                }
+                int steps = random.nextInt(300);
+                Integer next = rows.get(y).higher(x);
+                Integer previous = rows.get(y).lower(x);
+                assertThat(lines.getStepsToFirstOccupied(x, y, Direction.E, steps),
+                           is(equalTo(next != null && next - x <= steps ? next - x : 0)));
+                assertThat(lines.getStepsToFirstOccupied(x, y, Direction.W, steps),
+                           is(equalTo(previous != null && x - previous <= steps ? x - previous : 0)));
+            }
+        }
+    }
+}
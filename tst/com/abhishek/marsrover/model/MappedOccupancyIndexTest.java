@@ -0,0 +1,142 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.abhishek.marsrover.data.Direction;
+
+public class MappedOccupancyIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testOccupyAndRelease_updatesCells() throws Exception {
+        MappedOccupancyIndex index = MappedOccupancyIndex.openTemporary(-5, -5, 100, 50);
+
+        index.occupy(-5, -5);
+        index.occupy(100, 50);
+        assertThat(index.isOccupied(-5, -5), is(true));
+        assertThat(index.isOccupied(100, 50), is(true));
+        assertThat(index.isOccupied(-4, -5), is(false));
+        assertThat(index.isOccupied(101, 50), is(false));
+
+        index.release(-5, -5);
+        assertThat(index.isOccupied(-5, -5), is(false));
+        assertThat(index.isOccupied(100, 50), is(true));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOccupy_withCellOutsideIndex_throwsException() throws Exception {
+        MappedOccupancyIndex.openTemporary(0, 0, 9, 9).occupy(10, 0);
+    }
+
+    @Test
+    public void testOccupy_withRandomCells_matchesBitSetIndex() throws Exception {
+        MappedOccupancyIndex mapped = MappedOccupancyIndex.openTemporary(-20, 3, 200, 90);
+        BitSetOccupancyIndex bitSet = new BitSetOccupancyIndex(-20, 3, 200, 90);
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            int x = -20 + random.nextInt(221);
+            int y = 3 + random.nextInt(88);
+            if (random.nextBoolean()) {
+                mapped.occupy(x, y);
+                bitSet.occupy(x, y);
+            } else {
+                mapped.release(x, y);
+                bitSet.release(x, y);
+            }
+        }
+        for (int x = -20; x <= 200; x++) {
+            for (int y = 3; y <= 90; y++) {
+                assertThat(mapped.isOccupied(x, y), is(equalTo(bitSet.isOccupied(x, y))));
+            }
+        }
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_withRandomRuns_matchesLineIndex() throws Exception {
+        MappedOccupancyIndex mapped = MappedOccupancyIndex.openTemporary(-20, 3, 200, 90);
+        LineOccupancyIndex lines = new LineOccupancyIndex(-20, 3, 200, 90);
+        Random random = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            int x = -20 + random.nextInt(221);
+            int y = 3 + random.nextInt(88);
+            mapped.occupy(x, y);
+            lines.occupy(x, y);
+        }
+        for (int i = 0; i < 20000; i++) {
+            int x = -20 + random.nextInt(221);
+            int y = 3 + random.nextInt(88);
+            Direction direction = Direction.values()[random.nextInt(4)];
+            int steps = random.nextInt(250);
+            assertThat(direction + " " + steps + " from " + x + " " + y,
+                       mapped.getStepsToFirstOccupied(x, y, direction, steps),
+                       is(equalTo(lines.getStepsToFirstOccupied(x, y, direction, steps))));
+        }
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_acrossWords_findsNearestCell() throws Exception {
+        MappedOccupancyIndex index = MappedOccupancyIndex.openTemporary(0, 0, 299, 2);
+        index.occupy(250, 1);
+        index.occupy(10, 1);
+        assertThat(index.getStepsToFirstOccupied(20, 1, Direction.E, 300), is(equalTo(230)));
+        assertThat(index.getStepsToFirstOccupied(20, 1, Direction.E, 229), is(equalTo(0)));
+        assertThat(index.getStepsToFirstOccupied(240, 1, Direction.W, 300), is(equalTo(230)));
+        assertThat(index.getStepsToFirstOccupied(240, 1, Direction.W, 229), is(equalTo(0)));
+        assertThat(index.getStepsToFirstOccupied(250, 0, Direction.N, 5), is(equalTo(1)));
+        assertThat(index.getStepsToFirstOccupied(250, 2, Direction.S, 5), is(equalTo(1)));
+    }
+
+    @Test
+    public void testOpen_withExistingFile_keepsOccupiedCells() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("plateau.bits");
+        MappedOccupancyIndex index = MappedOccupancyIndex.open(file, true, 0, 0, 999, 999);
+        index.occupy(7, 700);
+        index.force();
+
+        MappedOccupancyIndex reopened = MappedOccupancyIndex.open(file, false, 0, 0, 999, 999);
+        assertThat(reopened.isOccupied(7, 700), is(true));
+        assertThat(reopened.isOccupied(700, 7), is(false));
+
+        MappedOccupancyIndex cleared = MappedOccupancyIndex.open(file, true, 0, 0, 999, 999);
+        assertThat(cleared.isOccupied(7, 700), is(false));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOpen_withFileOfOtherPlateau_throwsException() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("plateau.bits");
+        MappedOccupancyIndex.open(file, true, 0, 0, 999, 999);
+
+        MappedOccupancyIndex.open(file, false, 0, 0, 999, 998);
+    }
+
+    @Test
+    public void testOccupy_onPlateauLargerThanChunk_usesEveryChunk() throws Exception {
+        // 100k x 100k cells take 1.25 GB of bits, in two chunks of the sparse file.
+        MappedOccupancyIndex index = MappedOccupancyIndex.openTemporary(0, 0, 99_999, 99_999);
+
+        index.occupy(0, 0);
+        index.occupy(99_999, 99_999);
+        index.occupy(50_000, 85_900);
+        assertThat(index.isOccupied(0, 0), is(true));
+        assertThat(index.isOccupied(99_999, 99_999), is(true));
+        assertThat(index.isOccupied(50_000, 85_900), is(true));
+        assertThat(index.isOccupied(99_998, 99_999), is(false));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOpen_withPlateauTooLarge_throwsException() throws Exception {
+        MappedOccupancyIndex.openTemporary(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,79 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MortonOccupancyIndexTest {
+
+    @Test
+    public void testOccupyAndRelease_updatesCells() {
+        MortonOccupancyIndex index = new MortonOccupancyIndex(0, 0, 9, 9);
+
+        index.occupy(3, 4);
+        assertThat(index.isOccupied(3, 4), is(true));
+        assertThat(index.isOccupied(4, 3), is(false));
+
+        index.release(3, 4);
+        assertThat(index.isOccupied(3, 4), is(false));
+    }
+
+    @Test
+    public void testIsOccupied_withCellInPadding_returnsFalse() {
+        MortonOccupancyIndex index = new MortonOccupancyIndex(0, 0, 9, 9);
+
+        // (10, 0) is in the padding of the first tile, outside of the plateau.
+        assertThat(index.isOccupied(10, 0), is(false));
+        index.release(10, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOccupy_withCellOutsideIndex_throwsException() {
+        new MortonOccupancyIndex(0, 0, 9, 9).occupy(0, 10);
+    }
+
+    @Test
+    public void testOccupy_withRandomCells_matchesBitSetIndex() {
+        // bounds across several tiles, not aligned on tiles.
+        MortonOccupancyIndex morton = new MortonOccupancyIndex(-70, 5, 230, 180);
+        BitSetOccupancyIndex bitSet = new BitSetOccupancyIndex(-70, 5, 230, 180);
+        Random random = new Random(9);
+        for (int i = 0; i < 30000; i++) {
+            int x = -70 + random.nextInt(301);
+            int y = 5 + random.nextInt(176);
+            if (random.nextInt(3) == 0) {
+                morton.release(x, y);
+                bitSet.release(x, y);
+            } else {
+                morton.occupy(x, y);
+                bitSet.occupy(x, y);
+            }
+        }
+        for (int x = -70; x <= 230; x++) {
+            for (int y = 5; y <= 180; y++) {
+                assertThat(x + " " + y, morton.isOccupied(x, y), is(equalTo(bitSet.isOccupied(x, y))));
+            }
+        }
+    }
+
+    @Test
+    public void testOccupy_withExtremeBounds_keepsCellsApart() {
+        MortonOccupancyIndex index = new MortonOccupancyIndex(Integer.MAX_VALUE - 100, Integer.MIN_VALUE,
+                                                              Integer.MAX_VALUE, Integer.MIN_VALUE + 100);
+
+        index.occupy(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        assertThat(index.isOccupied(Integer.MAX_VALUE, Integer.MIN_VALUE), is(true));
+        assertThat(index.isOccupied(Integer.MAX_VALUE - 1, Integer.MIN_VALUE), is(false));
+        assertThat(index.isOccupied(Integer.MIN_VALUE, Integer.MIN_VALUE), is(false));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_withPlateauTooLarge_throwsException() {
+        new MortonOccupancyIndex(0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+}
@@ -1,5 +1,6 @@
 package com.abhishek.marsrover.model;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 
 import static org.junit.Assert.assertThat;
@@ -10,38 +11,18 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
-import com.abhishek.marsrover.data.Coordinate;
+import com.abhishek.marsrover.data.Direction;
 import com.abhishek.marsrover.data.Position;
 
 public class PlateauTest {
 
-    private Position minPosition;
-    private Position maxPosition;
-    private Position prevPosition;
-    private Position nextPosition;
-    private Coordinate xCoordinate;
-    private Coordinate yCoordinate;
-    private Coordinate maxXCoordinate;
-    private Coordinate maxYCoordinate;
-    private Coordinate minXCoordinate;
-    private Coordinate minYCoordinate;
-    private Plateau plateau;
+    private static final int MIN_VALUE = 0;
+    private static final int MAX_VALUE = 5;
     private IMocksControl ctrl;
 
-	@Before
+    @Before
     public void setup() {
         ctrl = EasyMock.createControl();
-        minPosition = ctrl.createMock(Position.class);
-        maxPosition = ctrl.createMock(Position.class);
-        prevPosition = ctrl.createMock(Position.class);
-        nextPosition = ctrl.createMock(Position.class);
-        xCoordinate = ctrl.createMock(Coordinate.class);
-        yCoordinate = ctrl.createMock(Coordinate.class);
-        maxXCoordinate = ctrl.createMock(Coordinate.class);
-        maxYCoordinate = ctrl.createMock(Coordinate.class);
-        minXCoordinate = ctrl.createMock(Coordinate.class);
-        minYCoordinate = ctrl.createMock(Coordinate.class);
-        plateau = new Plateau(minPosition, maxPosition);
     }
 
     @After
@@ -51,126 +32,219 @@ public class PlateauTest {
 
     @Test
     public void testAddUnavailablePosition_positionBecomesUnavailable() {
-    	EasyMock.expect(prevPosition.clone()).andReturn(prevPosition);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        plateau.addUnavailablePosition(prevPosition);
-        assertThat(plateau.isPositionAvailable(prevPosition), is(false));
+        realPlateau.addUnavailablePosition(createPosition(1, 2));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(false));
     }
 
     @Test
     public void testUpdateUnavailablePosition_makesPrevPositionAvailable_makesNewPositionUnavailable() {
-        EasyMock.expect(prevPosition.clone()).andReturn(prevPosition);
-        EasyMock.expect(nextPosition.clone()).andReturn(nextPosition);
-
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        plateau.addUnavailablePosition(prevPosition);
-        assertThat(plateau.isPositionAvailable(prevPosition), is(false));
+        realPlateau.addUnavailablePosition(createPosition(1, 2));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(false));
 
-        plateau.updateUnavailablePosition(prevPosition, nextPosition);
-        assertThat(plateau.isPositionAvailable(prevPosition), is(true));
-        assertThat(plateau.isPositionAvailable(nextPosition), is(false));
+        realPlateau.updateUnavailablePosition(createPosition(1, 2), createPosition(1, 3));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(true));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 3)), is(false));
     }
 
     @Test(expected=RuntimeException.class)
     public void testUpdateUnavailablePosition_withPrevPositionNotPresent_throwsException() {
         ctrl.replay();
-        plateau.updateUnavailablePosition(prevPosition, nextPosition);
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        realPlateau.updateUnavailablePosition(createPosition(1, 2), createPosition(1, 3));
+    }
+
+    @Test
+    public void testRemoveUnavailablePosition_makesPositionAvailable() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        realPlateau.addUnavailablePosition(createPosition(1, 2));
+        realPlateau.removeUnavailablePosition(Position.pack(1, 2));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(true));
+        assertThat(realPlateau.getStepsToUnavailablePosition(Position.pack(1, 0), Direction.N, 5), is(equalTo(0)));
+    }
+
+    @Test(expected=RuntimeException.class)
+    public void testRemoveUnavailablePosition_withPositionNotPresent_throwsException() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        realPlateau.removeUnavailablePosition(Position.pack(1, 2));
     }
 
     @Test
     public void testIsAvailable_withUnavailablePosition_returnsFalse() {
-    	EasyMock.expect(prevPosition.clone()).andReturn(prevPosition);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        plateau.addUnavailablePosition(prevPosition);
-        assertThat(plateau.isPositionAvailable(prevPosition), is(false));
+        realPlateau.addUnavailablePosition(createPosition(1, 2));
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(false));
     }
 
     @Test
     public void testIsAvailable_withAvailablePosition_returnsTrue() {
-        EasyMock.expect(prevPosition.clone()).andReturn(prevPosition);
-    	ctrl.replay();
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        plateau.addUnavailablePosition(prevPosition);
-        assertThat(plateau.isPositionAvailable(nextPosition), is(true));
+        realPlateau.addUnavailablePosition(createPosition(1, 2));
+        assertThat(realPlateau.isPositionAvailable(createPosition(2, 1)), is(true));
+    }
+
+    @Test
+    public void testIsAvailable_onPlateauTooLargeForBitset_usesHashIndex() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        realPlateau.addUnavailablePosition(createPosition(Integer.MAX_VALUE, 0));
+        assertThat(realPlateau.isPositionAvailable(createPosition(Integer.MAX_VALUE, 0)), is(false));
+        assertThat(realPlateau.isPositionAvailable(createPosition(0, Integer.MAX_VALUE)), is(true));
+    }
+
+    @Test
+    public void testIsAvailable_withGivenOccupancyIndex_usesThatIndex() {
+        OccupancyIndex index = ctrl.createMock(OccupancyIndex.class);
+        EasyMock.expect(index.isOccupied(1, 2)).andReturn(true);
+        ctrl.replay();
+        Plateau realPlateau = new Plateau(createPosition(MIN_VALUE, MIN_VALUE), createPosition(MAX_VALUE, MAX_VALUE), index);
+
+        assertThat(realPlateau.isPositionAvailable(createPosition(1, 2)), is(false));
     }
 
     @Test
     public void testIsReachable_withXPositionBelowMinValue_returnsFalse() {
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(maxPosition.getXCoordinate()).andReturn(maxXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(maxPosition.getYCoordinate()).andReturn(maxYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(minPosition.getXCoordinate()).andReturn(minXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        assertThat(plateau.isPositionReachable(nextPosition), is(false));
+        assertThat(realPlateau.isPositionReachable(createPosition(MIN_VALUE - 1, 1)), is(false));
     }
 
     @Test
     public void testIsReachable_withYPositionBelowMinValue_returnsFalse() {
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(maxPosition.getXCoordinate()).andReturn(maxXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(maxPosition.getYCoordinate()).andReturn(maxYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(minPosition.getXCoordinate()).andReturn(minXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(minPosition.getYCoordinate()).andReturn(minYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        assertThat(plateau.isPositionReachable(nextPosition), is(false));
+        assertThat(realPlateau.isPositionReachable(createPosition(1, MIN_VALUE - 1)), is(false));
     }
 
     @Test
     public void testIsReachable_withXPositionAboveMaxValue_returnsFalse() {
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(maxPosition.getXCoordinate()).andReturn(maxXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(1);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        assertThat(plateau.isPositionReachable(nextPosition), is(false));
+        assertThat(realPlateau.isPositionReachable(createPosition(MAX_VALUE + 1, 1)), is(false));
     }
 
     @Test
     public void testIsReachable_withYPositionAboveMaxValue_returnsFalse() {
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(maxPosition.getXCoordinate()).andReturn(maxXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(maxPosition.getYCoordinate()).andReturn(maxYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(1);
         ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
 
-        assertThat(plateau.isPositionReachable(nextPosition), is(false));
+        assertThat(realPlateau.isPositionReachable(createPosition(1, MAX_VALUE + 1)), is(false));
     }
 
     @Test
     public void testIsReachable_withPositionBetweenMaxAndMinPositions_returnsTrue() {
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(maxPosition.getXCoordinate()).andReturn(maxXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(maxPosition.getYCoordinate()).andReturn(maxYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(-1);
-        EasyMock.expect(nextPosition.getXCoordinate()).andReturn(xCoordinate);
-        EasyMock.expect(minPosition.getXCoordinate()).andReturn(minXCoordinate);
-        EasyMock.expect(xCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(1);
-        EasyMock.expect(nextPosition.getYCoordinate()).andReturn(yCoordinate);
-        EasyMock.expect(minPosition.getYCoordinate()).andReturn(minYCoordinate);
-        EasyMock.expect(yCoordinate.compareTo(EasyMock.anyObject(Coordinate.class))).andReturn(1);
-        ctrl.replay();
-
-        assertThat(plateau.isPositionReachable(nextPosition), is(true));
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        assertThat(realPlateau.isPositionReachable(createPosition(1, 1)), is(true));
+        assertThat(realPlateau.isPositionReachable(createPosition(MIN_VALUE, MIN_VALUE)), is(true));
+        assertThat(realPlateau.isPositionReachable(createPosition(MAX_VALUE, MAX_VALUE)), is(true));
+    }
+
+    @Test
+    public void testIsReachable_withPackedPositionNearIntegerLimits_returnsFalse() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        assertThat(realPlateau.isPositionReachable(Position.pack(Integer.MIN_VALUE, 1)), is(false));
+        assertThat(realPlateau.isPositionReachable(Position.pack(1, Integer.MAX_VALUE)), is(false));
+    }
+
+    @Test
+    public void testGetStepsToUnavailablePosition_followsUpdatedPositions() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+        long start = Position.pack(0, 2);
+
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, MAX_VALUE), is(equalTo(0)));
+        realPlateau.addUnavailablePosition(Position.pack(4, 2));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, MAX_VALUE), is(equalTo(4)));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, 3), is(equalTo(0)));
+        realPlateau.updateUnavailablePosition(Position.pack(4, 2), Position.pack(4, 3));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, MAX_VALUE), is(equalTo(0)));
+    }
+
+    @Test
+    public void testGetStepsToUnavailablePosition_withMappedIndex_checksRunsOnBitmap() throws Exception {
+        ctrl.replay();
+        Plateau realPlateau = new Plateau(createPosition(MIN_VALUE, MIN_VALUE), createPosition(MAX_VALUE, MAX_VALUE),
+                                          MappedOccupancyIndex.openTemporary(MIN_VALUE, MIN_VALUE,
+                                                                             MAX_VALUE, MAX_VALUE));
+        long start = Position.pack(0, 2);
+
+        realPlateau.addUnavailablePosition(Position.pack(4, 2));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, MAX_VALUE), is(equalTo(4)));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, 3), is(equalTo(0)));
+        realPlateau.updateUnavailablePosition(Position.pack(4, 2), Position.pack(4, 3));
+        assertThat(realPlateau.getStepsToUnavailablePosition(start, Direction.E, MAX_VALUE), is(equalTo(0)));
+        assertThat(realPlateau.getStepsToUnavailablePosition(Position.pack(4, 0), Direction.N, MAX_VALUE),
+                   is(equalTo(3)));
+        realPlateau.removeUnavailablePosition(Position.pack(4, 3));
+        assertThat(realPlateau.getStepsToUnavailablePosition(Position.pack(4, 0), Direction.N, MAX_VALUE),
+                   is(equalTo(0)));
+    }
+
+    @Test
+    public void testIsAreaReachable_withAreaInsidePlateau_returnsTrue() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        assertThat(realPlateau.isAreaReachable(MIN_VALUE, MIN_VALUE, MAX_VALUE, MAX_VALUE), is(true));
+    }
+
+    @Test
+    public void testIsAreaReachable_withAreaCrossingEdge_returnsFalse() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        assertThat(realPlateau.isAreaReachable(1, 1, MAX_VALUE + 1, 1), is(false));
+        assertThat(realPlateau.isAreaReachable(1, MIN_VALUE - 1, 1, 1), is(false));
+        assertThat(realPlateau.isAreaReachable(1, 1, 1, Long.MAX_VALUE), is(false));
+    }
+
+    @Test
+    public void testGetDistanceToEdge_returnsStepsLeftInEachDirection() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+        long position = Position.pack(1, 2);
+
+        assertThat(realPlateau.getDistanceToEdge(position, Direction.N), is(equalTo(3L)));
+        assertThat(realPlateau.getDistanceToEdge(position, Direction.E), is(equalTo(4L)));
+        assertThat(realPlateau.getDistanceToEdge(position, Direction.S), is(equalTo(2L)));
+        assertThat(realPlateau.getDistanceToEdge(position, Direction.W), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testGetDistanceToEdge_withUnreachablePosition_returnsNegative() {
+        ctrl.replay();
+        Plateau realPlateau = createRealPlateau(MAX_VALUE, MAX_VALUE);
+
+        assertThat(realPlateau.getDistanceToEdge(Position.pack(MAX_VALUE + 1, 1), Direction.W) < 0, is(true));
+    }
+
+    private static Plateau createRealPlateau(int maxX, int maxY) {
+        return new Plateau(createPosition(MIN_VALUE, MIN_VALUE), createPosition(maxX, maxY));
+    }
+
+    private static Position createPosition(int x, int y) {
+        return new Position(x, y);
     }
 }
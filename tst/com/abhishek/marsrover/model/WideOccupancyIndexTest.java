@@ -0,0 +1,81 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WideOccupancyIndexTest {
+
+    private static final long TRILLION = 1_000_000_000_000L;
+    private WideOccupancyIndex index;
+
+    @Before
+    public void setup() {
+        index = new WideOccupancyIndex();
+    }
+
+    @Test
+    public void testOccupy_withLongCoordinates_keepsCellsApart() {
+        assertThat(index.occupy(TRILLION, 3), is(true));
+        assertThat(index.occupy(3, TRILLION), is(true));
+        assertThat(index.occupy(TRILLION, 3), is(false));
+        assertThat(index.isOccupied(TRILLION, 3), is(true));
+        assertThat(index.isOccupied(3, TRILLION), is(true));
+        assertThat(index.isOccupied(TRILLION + (1L << 32), 3), is(false));
+        assertThat(index.size(), is(equalTo(2)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOccupy_withEmptyMarker_throwsException() {
+        index.occupy(Long.MIN_VALUE, 0);
+    }
+
+    @Test
+    public void testRelease_withRandomCells_matchesHashSet() {
+        Random random = new Random(5);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            long x = random.nextInt(64) * TRILLION;
+            long y = random.nextInt(64) - 32;
+            if (random.nextBoolean()) {
+                assertThat(index.occupy(x, y), is(expected.add(x + " " + y)));
+            } else {
+                assertThat(index.release(x, y), is(expected.remove(x + " " + y)));
+            }
+        }
+        assertThat(index.size(), is(equalTo(expected.size())));
+        for (String cell : expected) {
+            String[] values = cell.split(" ");
+            assertThat(index.isOccupied(Long.parseLong(values[0]), Long.parseLong(values[1])), is(true));
+        }
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_withShortRun_returnsFirstStep() {
+        index.occupy(TRILLION, 5);
+        index.occupy(TRILLION, 9);
+        assertThat(index.getStepsToFirstOccupied(TRILLION, 0, 0, 1, 10), is(equalTo(5L)));
+        assertThat(index.getStepsToFirstOccupied(TRILLION, 0, 0, 1, 4), is(equalTo(0L)));
+        assertThat(index.getStepsToFirstOccupied(TRILLION, 7, 0, -1, 4), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testGetStepsToFirstOccupied_withLongRun_scansOccupiedCells() {
+        index.occupy(-TRILLION, 7);
+        index.occupy(TRILLION, 7);
+        index.occupy(TRILLION / 2, 7);
+        index.occupy(TRILLION / 4, 8);
+        assertThat(index.getStepsToFirstOccupied(0, 7, 1, 0, 2 * TRILLION), is(equalTo(TRILLION / 2)));
+        assertThat(index.getStepsToFirstOccupied(0, 7, -1, 0, 2 * TRILLION), is(equalTo(TRILLION)));
+        assertThat(index.getStepsToFirstOccupied(0, 7, -1, 0, TRILLION - 1), is(equalTo(0L)));
+        assertThat(index.getStepsToFirstOccupied(TRILLION / 4, 0, 0, 1, TRILLION), is(equalTo(8L)));
+    }
+}
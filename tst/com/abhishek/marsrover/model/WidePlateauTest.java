@@ -0,0 +1,79 @@
+package com.abhishek.marsrover.model;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.Direction;
+
+public class WidePlateauTest {
+
+    private static final long TRILLION = 1_000_000_000_000L;
+
+    @Test
+    public void testIsPositionReachable_withLongCoordinates_checksBounds() {
+        WidePlateau plateau = new WidePlateau(0, 0, TRILLION, TRILLION);
+        assertThat(plateau.isPositionReachable(TRILLION, TRILLION), is(true));
+        assertThat(plateau.isPositionReachable(TRILLION + 1, 0), is(false));
+        assertThat(plateau.isPositionReachable(0, -1), is(false));
+        assertThat(plateau.isPositionReachable(Long.MAX_VALUE, Long.MIN_VALUE), is(false));
+    }
+
+    @Test
+    public void testGetDistanceToEdge_withLargestPlateau_doesNotOverflow() {
+        long max = WidePlateau.MAX_COORDINATE;
+        WidePlateau plateau = new WidePlateau(-max, -max, max, max);
+        assertThat(plateau.getDistanceToEdge(-max, 0, Direction.E), is(equalTo(2 * max)));
+        assertThat(plateau.getDistanceToEdge(0, max, Direction.S), is(equalTo(2 * max)));
+        assertThat(plateau.getDistanceToEdge(0, max, Direction.N), is(equalTo(0L)));
+        assertThat(plateau.getDistanceToEdge(Long.MAX_VALUE, 0, Direction.W), is(equalTo(-1L)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_withCoordinateTooLarge_throwsException() {
+        new WidePlateau(0, 0, Long.MAX_VALUE, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_withMinAboveMax_throwsException() {
+        new WidePlateau(0, 5, 10, 4);
+    }
+
+    @Test
+    public void testUpdateUnavailablePosition_movesPosition() {
+        WidePlateau plateau = new WidePlateau(0, 0, TRILLION, TRILLION);
+        plateau.addUnavailablePosition(TRILLION, 1);
+
+        plateau.updateUnavailablePosition(TRILLION, 1, TRILLION, 2);
+        assertThat(plateau.isPositionAvailable(TRILLION, 1), is(true));
+        assertThat(plateau.isPositionAvailable(TRILLION, 2), is(false));
+        assertThat(plateau.getUnavailablePositionCount(), is(equalTo(1)));
+    }
+
+    @Test(expected=RuntimeException.class)
+    public void testRemoveUnavailablePosition_withPositionNotPresent_throwsException() {
+        WidePlateau plateau = new WidePlateau(0, 0, TRILLION, TRILLION);
+        plateau.removeUnavailablePosition(1, 2);
+    }
+
+    @Test
+    public void testGetStepsToUnavailablePosition_returnsFirstBlockedStep() {
+        WidePlateau plateau = new WidePlateau(0, 0, TRILLION, TRILLION);
+        plateau.addUnavailablePosition(TRILLION - 3, TRILLION);
+
+        assertThat(plateau.getStepsToUnavailablePosition(0, TRILLION, Direction.E, TRILLION),
+                   is(equalTo(TRILLION - 3)));
+        assertThat(plateau.getStepsToUnavailablePosition(TRILLION, TRILLION, Direction.W, TRILLION),
+                   is(equalTo(3L)));
+        assertThat(plateau.getStepsToUnavailablePosition(0, TRILLION, Direction.N, 0), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testToString_printsBounds() {
+        assertThat(new WidePlateau(0, 0, TRILLION, 5).toString(),
+                   is(equalTo("[ (0 0) ... (1000000000000 5) ]")));
+    }
+}
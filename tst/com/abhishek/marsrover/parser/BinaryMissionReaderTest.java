@@ -0,0 +1,152 @@
+package com.abhishek.marsrover.parser;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+public class BinaryMissionReaderTest {
+
+    private static final String SAMPLE_MISSION = "5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n";
+
+    @Test
+    public void testParse_withConvertedSampleMission_reportsSameMission()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        assertThat(roundTrip(SAMPLE_MISSION), is(equalTo(SAMPLE_MISSION)));
+    }
+
+    @Test
+    public void testParse_withExtremeValuesAndEmptyCommands_reportsSameMission()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        String mission = "2147483647 0\n-2147483648 -1 W\n\n300 -300 S\nRRRRRRRRRRRRRRRRRRRRRRRRRRRRRRRRRRM\n";
+        assertThat(roundTrip(mission), is(equalTo(mission)));
+    }
+
+    @Test
+    public void testParse_withInvalidCommand_reportsWholeLine()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        String mission = "5 5\n1 2 N\nMMXRR\n3 3 E\nM M\n1 1 S\nMMX M\n";
+        assertThat(roundTrip(mission), is(equalTo(mission)));
+    }
+
+    @Test
+    public void testParse_withMissingCommandLine_reportsNull()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        final CharSequence[] commands = { "" };
+        BinaryMissionReader.parse(convert("5 5\n1 2 N\n"), new MissionHandler() {
+            @Override
+            public void onPlateau(int maxX, int maxY) {
+            }
+
+            @Override
+            public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence line) {
+                commands[0] = line;
+            }
+        });
+        assertThat(commands[0] == null, is(true));
+    }
+
+    @Test
+    public void testParse_handsCommandsOverAsTapes()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        final CharSequence[] commands = new CharSequence[1];
+        BinaryMissionReader.parse(convert(SAMPLE_MISSION), new MissionHandler() {
+            @Override
+            public void onPlateau(int maxX, int maxY) {
+            }
+
+            @Override
+            public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence line) {
+                commands[0] = line;
+            }
+        });
+        assertThat(commands[0], is(instanceOf(CommandTape.class)));
+        assertThat(commands[0].toString(), is(equalTo("MMRMMRMRRM")));
+    }
+
+    @Test
+    public void testParse_withWrongMagic_throwsException()
+        throws RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        assertParseFails(ByteBuffer.wrap(SAMPLE_MISSION.getBytes()), "Not a binary mission");
+    }
+
+    @Test
+    public void testParse_withUnknownVersion_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        ByteBuffer buffer = convert(SAMPLE_MISSION);
+        buffer.put(4, (byte) 3);
+        assertParseFails(buffer, "Unsupported binary mission version: 3");
+    }
+
+    @Test
+    public void testParse_withTruncatedMission_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        ByteBuffer buffer = convert(SAMPLE_MISSION);
+        for (int limit = 0; limit < buffer.capacity(); limit++) {
+            buffer.limit(limit);
+            assertParseFails(buffer, "");
+        }
+    }
+
+    @Test
+    public void testParse_withInvalidCommandCode_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        ByteBuffer buffer = convert("5 5\n1 2 N\nMMMM\n");
+        // last byte holds the four moves, code 2 is not a command.
+        buffer.put(buffer.limit() - 2, (byte) 0x02);
+        assertParseFails(buffer, "Invalid commands of rover record");
+    }
+
+    private static void assertParseFails(ByteBuffer buffer, String message)
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        try {
+            BinaryMissionReader.parse(buffer, new TextMissionWriter(new StringWriter()));
+            fail("Parsing should have failed");
+        } catch (InvalidInputException e) {
+            assertThat(e.getMessage().startsWith(message), is(true));
+        }
+    }
+
+    private static String roundTrip(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        StringWriter text = new StringWriter();
+        BinaryMissionReader.parse(convert(mission), new TextMissionWriter(text));
+        return text.toString();
+    }
+
+    private static ByteBuffer convert(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryMissionWriter writer = new BinaryMissionWriter(bytes)) {
+            MappedMissionParser.parse(ByteBuffer.wrap(mission.getBytes()), writer);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+}
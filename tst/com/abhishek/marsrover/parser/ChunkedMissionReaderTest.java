@@ -0,0 +1,109 @@
+package com.abhishek.marsrover.parser;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+
+public class ChunkedMissionReaderTest {
+
+    @Test
+    public void testReadLine_withUnixAndWindowsLineEndings_returnsLines()
+        throws IOException, InvalidInputException
+    {
+        ChunkedMissionReader reader = createReader("5 5\r\n1 2 N\nlast", 16);
+
+        assertThat(reader.readLine(), is(equalTo("5 5")));
+        assertThat(reader.readLine(), is(equalTo("1 2 N")));
+        assertThat(reader.readLine(), is(equalTo("last")));
+        assertThat(reader.readLine(), is(nullValue()));
+    }
+
+    @Test(expected = InvalidInputException.class)
+    public void testReadLine_withLineLongerThanBuffer_throwsException()
+        throws IOException, InvalidInputException
+    {
+        createReader("1 2 N and more\n", 8).readLine();
+    }
+
+    @Test
+    public void testNextCommandChunk_withEveryBufferSize_returnsWholeLine()
+        throws IOException, InvalidInputException
+    {
+        String commands = "LMLMLMLMMRRMMLMRMMMLR";
+        for (int bufferSize = 8; bufferSize < 32; bufferSize++) {
+            ChunkedMissionReader reader = createReader("1 2 N\r\n" + commands + "\r\n3 3 E\r\n", bufferSize);
+            assertThat(reader.readLine(), is(equalTo("1 2 N")));
+            assertThat(readCommandLine(reader), is(equalTo(commands)));
+            assertThat(reader.readLine(), is(equalTo("3 3 E")));
+        }
+    }
+
+    @Test
+    public void testNextCommandChunk_withSmallBuffer_returnsChunksOfBufferSize()
+        throws IOException
+    {
+        ChunkedMissionReader reader = createReader("MMMMMMMMMM\n", 4);
+
+        assertThat(reader.beginCommandLine(), is(true));
+        assertThat(reader.nextCommandChunk().toString(), is(equalTo("MMMM")));
+        assertThat(reader.nextCommandChunk().toString(), is(equalTo("MMMM")));
+        assertThat(reader.nextCommandChunk().toString(), is(equalTo("MM")));
+        assertThat(reader.nextCommandChunk(), is(nullValue()));
+    }
+
+    @Test
+    public void testNextCommandChunk_withLastLineWithoutTerminator_returnsLine()
+        throws IOException
+    {
+        ChunkedMissionReader reader = createReader("MMRM\r", 8);
+
+        assertThat(readCommandLine(reader), is(equalTo("MMRM")));
+        assertThat(reader.beginCommandLine(), is(false));
+    }
+
+    @Test
+    public void testBeginCommandLine_withEmptyLine_returnsNoChunk() throws IOException {
+        ChunkedMissionReader reader = createReader("\n", 8);
+
+        assertThat(reader.beginCommandLine(), is(true));
+        assertThat(reader.nextCommandChunk(), is(nullValue()));
+        assertThat(reader.beginCommandLine(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadLine_beforeCommandLineEnds_throwsException()
+        throws IOException, InvalidInputException
+    {
+        ChunkedMissionReader reader = createReader("MMMMMMMM\n1 2 N\n", 4);
+        reader.beginCommandLine();
+        reader.nextCommandChunk();
+        reader.readLine();
+    }
+
+    private static String readCommandLine(ChunkedMissionReader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        assertThat(reader.beginCommandLine(), is(true));
+        ByteSequence chunk = reader.nextCommandChunk();
+        while (chunk != null) {
+            builder.append(chunk);
+            chunk = reader.nextCommandChunk();
+        }
+        return builder.toString();
+    }
+
+    private static ChunkedMissionReader createReader(String input, int bufferSize) {
+        byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+        return new ChunkedMissionReader(Channels.newChannel(new ByteArrayInputStream(bytes)), bufferSize);
+    }
+}
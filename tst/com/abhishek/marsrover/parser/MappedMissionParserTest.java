@@ -0,0 +1,160 @@
+package com.abhishek.marsrover.parser;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+public class MappedMissionParserTest {
+
+    private static final String SAMPLE_MISSION = "5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RecordingHandler handler;
+
+    @Before
+    public void setup() {
+        handler = new RecordingHandler();
+    }
+
+    @Test
+    public void testParse_withSampleFile_reportsPlateauAndRovers()
+        throws IOException, InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        File file = folder.newFile("input.dat");
+        Files.write(file.toPath(), SAMPLE_MISSION.getBytes(StandardCharsets.US_ASCII));
+
+        new MappedMissionParser(file.toPath()).parse(handler);
+
+        assertThat(handler.events.toString(),
+                   is(equalTo("[plateau 5 5, rover#1 1 2 N LMLMLMLMM, rover#2 3 3 E MMRMMRMRRM]")));
+    }
+
+    @Test
+    public void testParse_withWindowsLineEndingsAndExtraSpaces_reportsSameValues()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        parse("5  5 \r\n1\t2 N\r\nMM\r\n");
+        assertThat(handler.events.toString(), is(equalTo("[plateau 5 5, rover#1 1 2 N MM]")));
+    }
+
+    @Test
+    public void testParse_withSignedNumbers_parsesThem()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        parse("+5 2147483647\n-1 -2147483648 W\n\n");
+        assertThat(handler.events.toString(),
+                   is(equalTo("[plateau 5 2147483647, rover#1 -1 -2147483648 W ]")));
+    }
+
+    @Test
+    public void testParse_withEmptyLineAfterRovers_stopsReading()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        parse("5 5\n1 2 N\nM\n\n3 3 E\nM\n");
+        assertThat(handler.events.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testParse_withMissingCommandLine_reportsNullCommands()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        parse("5 5\n1 2 N\n");
+        assertThat(handler.lastCommands, is(nullValue()));
+    }
+
+    @Test(expected=InvalidInputException.class)
+    public void testParse_withEmptyInput_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        parse("");
+    }
+
+    @Test
+    public void testParse_withInvalidPlateauValue_reportsLineAndColumn()
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        assertError("5 b\n", "Invalid values of upper right coordinates at line 1, column 3");
+        assertError("5\n", "Invalid values of upper right coordinates at line 1, column 2");
+        assertError("5 5 5\n", "Invalid values of upper right coordinates at line 1, column 5");
+        assertError("5 99999999999\n", "at line 1, column 3: number is out of range");
+    }
+
+    @Test
+    public void testParse_withInvalidRoverLine_reportsRoverNumberLineAndColumn()
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        assertError("5 5\n1 2 N\nM\n1 2 X\nM\n", "rover #2 at line 4, column 5: unknown direction");
+        assertError("5 5\n1 2 NE\nM\n", "rover #1 at line 2, column 5: unknown direction");
+        assertError("5 5\n a 2 N\nM\n", "rover #1 at line 2, column 1: expected a number");
+        assertError("5 5\n1 2\nM\n", "rover #1 at line 2, column 4: expected another value");
+    }
+
+    @Test
+    public void testByteSequence_viewsBytesWithoutCopy() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxLMRyy".getBytes(StandardCharsets.US_ASCII));
+        ByteSequence sequence = new ByteSequence(buffer, 2, 3);
+        assertThat(sequence.length(), is(equalTo(3)));
+        assertThat(sequence.charAt(1), is(equalTo('M')));
+        assertThat(sequence.subSequence(1, 3).toString(), is(equalTo("MR")));
+        buffer.put(3, (byte) 'L');
+        assertThat(sequence.toString(), is(equalTo("LLR")));
+    }
+
+    private void parse(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        MappedMissionParser.parse(ByteBuffer.wrap(mission.getBytes(StandardCharsets.US_ASCII)), handler);
+    }
+
+    private void assertError(String mission, String expectedMessagePart)
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        try {
+            parse(mission);
+            fail("Parsing should have failed for: " + mission);
+        } catch (InvalidInputException e) {
+            assertThat(e.getMessage(), containsString(expectedMessagePart));
+        }
+    }
+
+    private static class RecordingHandler implements MissionHandler {
+
+        private final List<String> events = new ArrayList<>();
+        private CharSequence lastCommands;
+
+        @Override
+        public void onPlateau(int maxX, int maxY) {
+            events.add("plateau " + maxX + " " + maxY);
+        }
+
+        @Override
+        public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands) {
+            events.add("rover#" + roverIndex + " " + x + " " + y + " " + direction + " " + commands);
+            lastCommands = commands;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.abhishek.marsrover.parser;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.simulator.MarsRoverSimulator;
+
+public class MissionConverterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testToBinaryAndToText_withLongCommandLines_restoresMissionInLessSpace()
+        throws IOException, InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        StringBuilder mission = new StringBuilder("100 100\n");
+        for (int i = 0; i < 50; i++) {
+            mission.append(i).append(' ').append(2 * i).append(' ').append("NESW".charAt(i % 4)).append('\n');
+            for (int j = 0; j < 100; j++) {
+                mission.append("LMRM".charAt((i + j) % 4));
+            }
+            mission.append('\n');
+        }
+        File text = folder.newFile("input.dat");
+        File binary = folder.newFile("input.bin");
+        File restored = folder.newFile("restored.dat");
+        Files.write(text.toPath(), mission.toString().getBytes(StandardCharsets.US_ASCII));
+
+        MissionConverter.toBinary(text.toPath(), binary.toPath());
+        MissionConverter.toText(binary.toPath(), restored.toPath());
+
+        assertThat(BinaryMissionReader.isBinaryMission(binary.toPath()), is(true));
+        assertThat(BinaryMissionReader.isBinaryMission(text.toPath()), is(false));
+        assertThat(Files.readAllLines(restored.toPath()), is(equalTo(Files.readAllLines(text.toPath()))));
+        assertThat(binary.length() * 3 < text.length(), is(true));
+    }
+
+    @Test
+    public void testToBinaryAndToText_withInvalidCommandLines_failsAsTextMission() throws IOException {
+        String[] missions = {
+            "5 5\n1 2 N\nMMX M\n",
+            "5 5\n1 2 N\nM M\n",
+            "5 5\n1 2 N\nMMXM\n",
+            "5 5\n1 2 N\nLMLMLMLMM\n3 3 E\n",
+        };
+        for (int i = 0; i < missions.length; i++) {
+            File text = folder.newFile("input" + i + ".dat");
+            File binary = folder.newFile("input" + i + ".bin");
+            File restored = folder.newFile("restored" + i + ".dat");
+            Files.write(text.toPath(), missions[i].getBytes(StandardCharsets.US_ASCII));
+
+            String textResult = runMission(text.toPath(), false);
+            assertThat(textResult.startsWith("com.abhishek.marsrover.exceptions."), is(true));
+            try {
+                MissionConverter.toBinary(text.toPath(), binary.toPath());
+                MissionConverter.toText(binary.toPath(), restored.toPath());
+            } catch (InvalidInputException | RoverCollisionException | RoverFallAndCrashException e) {
+                throw new AssertionError(e);
+            }
+
+            assertThat(runMission(binary.toPath(), true), is(equalTo(textResult)));
+            assertThat(runMission(restored.toPath(), false), is(equalTo(textResult)));
+        }
+    }
+
+    /*
+     * Runs a mission, and returns its output or the exception it failed with.
+     */
+    private static String runMission(Path mission, boolean binary) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BufferedReader reader = Files.newBufferedReader(mission, StandardCharsets.ISO_8859_1)) {
+            MarsRoverSimulator simulator = new MarsRoverSimulator(reader, new PrintStream(output));
+            if (binary) {
+                new BinaryMissionReader(mission).parse(simulator);
+            } else {
+                simulator.initialize();
+            }
+            simulator.processRoverCommands();
+            simulator.printOutput();
+        } catch (Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,204 @@
+package com.abhishek.marsrover.parser;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+public class ParallelMissionParserTest {
+
+    private static final int ROVER_COUNT = 500;
+    private static final int SMALL_RANGE_SIZE = 16;
+
+    private static ForkJoinPool pool;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setupPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testParse_withManySmallRanges_reportsSameRoversAsSequentialParser()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(ROVER_COUNT, "\n");
+        assertThat(parseInParallel(mission), is(equalTo(parseSequentially(mission))));
+    }
+
+    @Test
+    public void testParse_withWindowsLineEndingsAndEmptyCommands_reportsSameRovers()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(ROVER_COUNT, "\r\n").replace("\r\nLM\r\n", "\r\n\r\n");
+        assertThat(parseInParallel(mission), is(equalTo(parseSequentially(mission))));
+    }
+
+    @Test
+    public void testParse_withEmptyLineInTheMiddle_stopsThere()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(10, "\n") + "\n" + createMission(10, "\n").substring(10) + "1 1 X\n";
+        List<String> events = parseInParallel(mission);
+        assertThat(events, is(equalTo(parseSequentially(mission))));
+        assertThat(events.size(), is(equalTo(11)));
+    }
+
+    @Test
+    public void testParse_withMissingLastCommandLine_reportsNullCommands()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(20, "\n") + "4 4 N";
+        List<String> events = parseInParallel(mission);
+        assertThat(events.get(events.size() - 1), is(equalTo("rover#21 4 4 N null")));
+    }
+
+    @Test
+    public void testParse_withInvalidRoverInLaterRange_reportsSameErrorAfterEarlierRovers()
+        throws RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(ROVER_COUNT, "\n") + "1 2 Q\nM\n" + createMission(10, "\n").substring(10);
+        String sequentialError = null;
+        List<String> sequentialEvents = new ArrayList<>();
+        try {
+            MappedMissionParser.parse(toBuffer(mission), new RecordingHandler(sequentialEvents));
+            fail("Sequential parsing should have failed");
+        } catch (InvalidInputException e) {
+            sequentialError = e.getMessage();
+        }
+
+        List<String> events = new ArrayList<>();
+        try {
+            ParallelMissionParser.parse(toBuffer(mission), new RecordingHandler(events), pool, SMALL_RANGE_SIZE);
+            fail("Parallel parsing should have failed");
+        } catch (InvalidInputException e) {
+            assertThat(e.getMessage(), is(equalTo(sequentialError)));
+        }
+        assertThat(events, is(equalTo(sequentialEvents)));
+        assertThat(events.size(), is(equalTo(ROVER_COUNT + 1)));
+    }
+
+    @Test
+    public void testParse_withValidCommands_handsPackedTapes()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        final List<CharSequence> commands = new ArrayList<>();
+        ParallelMissionParser.parse(toBuffer(createMission(ROVER_COUNT, "\n")), new MissionHandler() {
+            @Override
+            public void onPlateau(int maxX, int maxY) {
+            }
+
+            @Override
+            public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence line) {
+                commands.add(line);
+            }
+        }, pool, SMALL_RANGE_SIZE);
+        assertThat(commands.size(), is(equalTo(ROVER_COUNT)));
+        for (CharSequence line : commands) {
+            assertThat(line, is(instanceOf(CommandTape.class)));
+        }
+    }
+
+    @Test
+    public void testParse_withInvalidCommandsInLaterRanges_reportsWholeLines()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        String mission = createMission(ROVER_COUNT, "\n").replace("\nLM\n", "\nLMX M\n")
+                                                          .replace("\nMMMM\n", "\nMM MM\n");
+        List<String> events = parseInParallel(mission);
+        assertThat(events, is(equalTo(parseSequentially(mission))));
+        assertThat(events.contains("rover#4 3 0 W LMX M"), is(true));
+    }
+
+    @Test
+    public void testParse_withFile_reportsRovers()
+        throws IOException, InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        File file = folder.newFile("input.dat");
+        String mission = createMission(ROVER_COUNT, "\n");
+        Files.write(file.toPath(), mission.getBytes(StandardCharsets.US_ASCII));
+
+        List<String> events = new ArrayList<>();
+        new ParallelMissionParser(file.toPath(), pool).parse(new RecordingHandler(events));
+        assertThat(events, is(equalTo(parseSequentially(mission))));
+    }
+
+    private static String createMission(int rovers, String lineEnd) {
+        StringBuilder builder = new StringBuilder("1000 1000").append(lineEnd);
+        for (int i = 0; i < rovers; i++) {
+            builder.append(i % 1000).append(' ').append(i / 1000).append(' ')
+                   .append("NESW".charAt(i % 4)).append(lineEnd);
+            builder.append(i % 3 == 0 ? "LM" : "MMRMMLMMMMMMMM".substring(i % 7)).append(lineEnd);
+        }
+        return builder.toString();
+    }
+
+    private static List<String> parseInParallel(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        List<String> events = new ArrayList<>();
+        ParallelMissionParser.parse(toBuffer(mission), new RecordingHandler(events), pool, SMALL_RANGE_SIZE);
+        return events;
+    }
+
+    private static List<String> parseSequentially(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        List<String> events = new ArrayList<>();
+        MappedMissionParser.parse(toBuffer(mission), new RecordingHandler(events));
+        return events;
+    }
+
+    private static ByteBuffer toBuffer(String mission) {
+        return ByteBuffer.wrap(mission.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static class RecordingHandler implements MissionHandler {
+
+        private final List<String> events;
+
+        RecordingHandler(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onPlateau(int maxX, int maxY) {
+            events.add("plateau " + maxX + " " + maxY);
+        }
+
+        @Override
+        public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commands) {
+            events.add("rover#" + roverIndex + " " + x + " " + y + " " + direction + " " + commands);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.abhishek.marsrover.scaling;
+
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.generator.MissionGenerator;
+import com.abhishek.marsrover.parser.MappedMissionParser;
+import com.abhishek.marsrover.parser.MissionHandler;
+import com.abhishek.marsrover.parser.TextMissionWriter;
+import com.abhishek.marsrover.simulator.MarsRoverSimulator;
+
+/*
+ * Scaling suite of the simulator. Missions of growing size are generated,
+ * and each phase of a run is measured at every size: parse (the mapped
+ * parser alone), initialize, execute (processRoverCommands) and output
+ * (printOutput). A straight line is fitted to the logarithms of time and
+ * of allocated bytes against size, and its slope is the exponent of the
+ * growth. The test fails when a phase grows faster than its declared
+ * complexity, e.g. a scan of every rover for each rover makes initialize
+ * quadratic in rovers, with a slope close to 2. Fixed costs flatten the
+ * slope over the small sizes, so the slope between the last two sizes
+ * is checked as well, and a phase which only turns quadratic at the
+ * largest sizes fails too.
+ *
+ * Rovers go from 10^3 to 10^6 with a few commands each, and commands from
+ * 10^3 to 10^8 in total, spread over 10^3 rovers. Missions are made by the
+ * MissionGenerator, so nothing is downloaded. Largest sizes are lowered with
+ * -Dmarsrover.scaling.maxRovers and -Dmarsrover.scaling.maxCommands.
+ */
+public class ScalingSuiteTest {
+
+    /*
+     * Phases of a run, in order.
+     */
+    private static final String[] PHASES = {"parse", "initialize", "execute", "output"};
+
+    /*
+     * Declared exponent of every phase, in rovers and in commands: all linear.
+     */
+    private static final double DECLARED_EXPONENT = 1.0;
+
+    /*
+     * Slack over the declared exponent. Time is noisy and its small sizes
+     * are dominated by fixed costs, allocated bytes are nearly exact.
+     */
+    private static final double TIME_TOLERANCE = 0.35;
+    private static final double BYTES_TOLERANCE = 0.15;
+
+    /*
+     * Runs at each size, the least time and bytes of which are kept.
+     */
+    private static final int RUNS = 3;
+
+    private static final int COMMANDS_PER_ROVER = 8;
+
+    private static final int ROVERS_FOR_COMMANDS = 1000;
+
+    private static final long MAX_ROVERS = Long.getLong("marsrover.scaling.maxRovers", 1_000_000);
+    private static final long MAX_COMMANDS = Long.getLong("marsrover.scaling.maxCommands", 100_000_000);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void setupClass() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    @Test
+    public void testPhases_withGrowingRoverCount_growLinearly() throws Exception {
+        List<Long> sizes = new ArrayList<>();
+        for (long rovers = 1000; rovers <= MAX_ROVERS; rovers *= 10) {
+            sizes.add(rovers);
+        }
+        checkGrowth("rovers", sizes, false);
+    }
+
+    @Test
+    public void testPhases_withGrowingCommandCount_growLinearly() throws Exception {
+        List<Long> sizes = new ArrayList<>();
+        for (long commands = 1000; commands <= MAX_COMMANDS; commands *= 10) {
+            sizes.add(commands);
+        }
+        checkGrowth("commands", sizes, true);
+    }
+
+    @Test
+    public void testFitExponent_withKnownGrowth_returnsExponent() {
+        double[] sizes = {1e3, 1e4, 1e5, 1e6};
+        double[] linear = new double[sizes.length];
+        double[] quadratic = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            linear[i] = 5 * sizes[i] + 200;
+            quadratic[i] = sizes[i] * sizes[i];
+        }
+        assertExponent(fitExponent(sizes, linear), 1.0);
+        assertExponent(fitExponent(sizes, quadratic), 2.0);
+    }
+
+    @Test
+    public void testFitExponent_withLateQuadraticGrowth_exceedsOnLastSizes() {
+        // fixed costs, then linear up to 10^5, and quadratic from there.
+        double[] sizes = {1e3, 1e4, 1e5, 1e6};
+        double[] values = {1e6 + 100 * 1e3, 1e6 + 100 * 1e4, 1e6 + 100 * 1e5, 100 * 1e6 * 1e6 / 1e5};
+        double limit = DECLARED_EXPONENT + TIME_TOLERANCE;
+        assertThat(fitExponent(sizes, values) < limit, is(true));
+        assertThat(fitExponent(lastTwo(sizes), lastTwo(values)) > limit, is(true));
+    }
+
+    /*
+     * Private function to measure every phase at every size, and fail
+     * with a table of the measures when a phase grows too fast. Sizes
+     * are measured from the smallest, and the fit is checked from the
+     * third one on, so that a quadratic phase fails before it runs at
+     * the largest sizes.
+     */
+    private void checkGrowth(String axis, List<Long> sizes, boolean commandAxis) throws Exception {
+        // the smallest mission first warms up the code of every phase.
+        for (int i = 0; i < 5; i++) {
+            measure(createMission(sizes.get(0), commandAxis));
+        }
+
+        double[][] times = new double[PHASES.length][sizes.size()];
+        double[][] bytes = new double[PHASES.length][sizes.size()];
+        for (int s = 0; s < sizes.size(); s++) {
+            Path mission = createMission(sizes.get(s), commandAxis);
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                times[phase][s] = Double.MAX_VALUE;
+                bytes[phase][s] = Double.MAX_VALUE;
+            }
+            for (int run = 0; run < RUNS; run++) {
+                long[][] measures = measure(mission);
+                for (int phase = 0; phase < PHASES.length; phase++) {
+                    times[phase][s] = Math.min(times[phase][s], measures[phase][0]);
+                    bytes[phase][s] = Math.min(bytes[phase][s], measures[phase][1]);
+                }
+            }
+            Files.delete(mission);
+            if (s >= 2 || s == sizes.size() - 1) {
+                checkFit(axis, sizes.subList(0, s + 1), times, bytes);
+            }
+        }
+    }
+
+    /*
+     * Private function to fit the exponents of every phase on the sizes
+     * measured so far, and fail when one is above its declared complexity.
+     */
+    private static void checkFit(String axis, List<Long> sizes, double[][] times, double[][] bytes) {
+        double[] points = new double[sizes.size()];
+        for (int s = 0; s < points.length; s++) {
+            points[s] = sizes.get(s);
+        }
+        StringBuilder report = new StringBuilder();
+        boolean failed = false;
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            double[] phaseTimes = Arrays.copyOf(times[phase], points.length);
+            double[] phaseBytes = Arrays.copyOf(bytes[phase], points.length);
+            double timeExponent = fitExponent(points, phaseTimes);
+            double bytesExponent = threads == null ? 0 : fitExponent(points, phaseBytes);
+            double lastTimeExponent = fitExponent(lastTwo(points), lastTwo(phaseTimes));
+            double lastBytesExponent = threads == null ? 0 : fitExponent(lastTwo(points), lastTwo(phaseBytes));
+            boolean phaseFailed = Math.max(timeExponent, lastTimeExponent) > DECLARED_EXPONENT + TIME_TOLERANCE
+                                  || Math.max(bytesExponent, lastBytesExponent) > DECLARED_EXPONENT + BYTES_TOLERANCE;
+            failed |= phaseFailed;
+            report.append(String.format("%n%-10s time exponent %.2f (last %.2f), bytes exponent %.2f (last %.2f)%s",
+                                        PHASES[phase], timeExponent, lastTimeExponent, bytesExponent,
+                                        lastBytesExponent, phaseFailed ? "  <- faster than O(" + axis + ")" : ""));
+            for (int s = 0; s < points.length; s++) {
+                report.append(String.format("%n    %,13d %s: %,10.2f ms, %,15.0f bytes", sizes.get(s), axis,
+                                            phaseTimes[s] / 1e6, phaseBytes[s]));
+            }
+        }
+        if (failed) {
+            fail("Phases grow faster than declared:" + report);
+        }
+    }
+
+    /*
+     * Private function to write a mission of a size, in rovers or in
+     * commands. Rovers take one position out of 16 and never fail.
+     */
+    private Path createMission(long size, boolean commandAxis) throws Exception {
+        int rovers = (int) (commandAxis ? ROVERS_FOR_COMMANDS : size);
+        int commands = (int) (commandAxis ? size / ROVERS_FOR_COMMANDS : COMMANDS_PER_ROVER);
+        int side = (int) Math.sqrt(rovers * 16.0);
+        MissionGenerator generator = new MissionGenerator.Builder().seed(size).plateau(side - 1, side - 1)
+            .rovers(rovers).commandLength(commands, commands).build();
+        Path mission = folder.newFile().toPath();
+        try (TextMissionWriter writer = new TextMissionWriter(Files.newBufferedWriter(mission,
+                                                                                      StandardCharsets.ISO_8859_1))) {
+            generator.generate(writer);
+        }
+        return mission;
+    }
+
+    /*
+     * Private function to run every phase on a mission, returns the
+     * time in nanoseconds and allocated bytes of each phase.
+     */
+    private static long[][] measure(Path mission) throws Exception {
+        long[][] measures = new long[PHASES.length][2];
+        PrintStream output = new PrintStream(OutputStream.nullOutputStream());
+
+        long[] start = start();
+        new MappedMissionParser(mission).parse(new CountingHandler());
+        stop(start, measures[0]);
+
+        try (BufferedReader reader = Files.newBufferedReader(mission, StandardCharsets.ISO_8859_1)) {
+            MarsRoverSimulator simulator = new MarsRoverSimulator(reader, output);
+            start = start();
+            simulator.initialize();
+            stop(start, measures[1]);
+
+            start = start();
+            simulator.processRoverCommands();
+            stop(start, measures[2]);
+
+            start = start();
+            simulator.printOutput();
+            stop(start, measures[3]);
+        }
+        return measures;
+    }
+
+    private static long[] start() {
+        return new long[] {System.nanoTime(), allocatedBytes()};
+    }
+
+    private static void stop(long[] start, long[] measure) {
+        measure[0] = System.nanoTime() - start[0];
+        measure[1] = allocatedBytes() - start[1];
+    }
+
+    private static long allocatedBytes() {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+     * Private function to fit a straight line to the logarithms of values
+     * against sizes, by least squares, and return its slope. Values are
+     * taken as at least 1, so that phases which do not allocate fit.
+     */
+    private static double fitExponent(double[] sizes, double[] values) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            meanX += Math.log(sizes[i]) / sizes.length;
+            meanY += Math.log(Math.max(values[i], 1)) / sizes.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double dx = Math.log(sizes[i]) - meanX;
+            covariance += dx * (Math.log(Math.max(values[i], 1)) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    /*
+     * Private function to get the values of the last two sizes.
+     */
+    private static double[] lastTwo(double[] values) {
+        return Arrays.copyOfRange(values, Math.max(values.length - 2, 0), values.length);
+    }
+
+    private static void assertExponent(double exponent, double expected) {
+        if (Math.abs(exponent - expected) > 0.05) {
+            fail("Expected exponent " + expected + " but was " + exponent);
+        }
+    }
+
+    /*
+     * Class of a handler which only counts what it receives,
+     * so that parsing is measured alone.
+     */
+    private static final class CountingHandler implements MissionHandler {
+
+        private long commands;
+
+        @Override
+        public void onPlateau(int maxX, int maxY) {
+            commands = 0;
+        }
+
+        @Override
+        public void onRover(int roverIndex, int x, int y, Direction direction, CharSequence commandLine) {
+            commands += commandLine == null ? 0 : commandLine.length();
+        }
+    }
+}
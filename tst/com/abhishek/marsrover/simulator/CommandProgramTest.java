@@ -0,0 +1,130 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+
+public class CommandProgramTest {
+
+    @Test
+    public void testCompile_withEmptyCommandLine_returnsEmptyProgram() {
+        CommandProgram program = CommandProgram.compile("");
+        assertThat(program.getSegmentCount(), is(equalTo(0)));
+        assertThat(program.hasError(), is(false));
+    }
+
+    @Test
+    public void testCompile_withConsecutiveMoves_foldsIntoOneSegment() {
+        CommandProgram program = CommandProgram.compile("MMMMMMMM");
+        assertThat(program.toString(), is(equalTo("M8")));
+    }
+
+    @Test
+    public void testCompile_withConsecutiveTurns_foldsIntoNetRotation() {
+        assertThat(CommandProgram.compile("LLRRLR").toString(), is(equalTo("")));
+        assertThat(CommandProgram.compile("L").toString(), is(equalTo("R3")));
+        assertThat(CommandProgram.compile("RRLRR").toString(), is(equalTo("R3")));
+    }
+
+    @Test
+    public void testCompile_withCancellingTurnsBetweenMoves_mergesMoves() {
+        CommandProgram program = CommandProgram.compile("MMLRMM");
+        assertThat(program.toString(), is(equalTo("M4")));
+    }
+
+    @Test
+    public void testCompile_withSampleCommandLine_returnsSegments() {
+        CommandProgram program = CommandProgram.compile("MMRMMRMRRM");
+        assertThat(program.toString(), is(equalTo("M2 R1 M2 R1 M1 R2 M1")));
+        assertThat(program.getSegmentCount(), is(equalTo(7)));
+        assertThat(CommandProgram.isMove(program.getSegment(0)), is(true));
+        assertThat(CommandProgram.getSteps(program.getSegment(0)), is(equalTo(2)));
+        assertThat(CommandProgram.isMove(program.getSegment(5)), is(false));
+        assertThat(CommandProgram.getQuarterTurns(program.getSegment(5)), is(equalTo(2)));
+    }
+
+    @Test
+    public void testCompile_withInvalidCommand_keepsSegmentsBeforeIt() {
+        CommandProgram program = CommandProgram.compile("MMRX");
+        assertThat(program.hasError(), is(true));
+        assertThat(program.getErrorIndex(), is(equalTo(3)));
+        assertThat(program.getErrorCommand(), is(equalTo('X')));
+        assertThat(program.toString(), is(equalTo("M2 R1 !X@3")));
+    }
+
+    @Test
+    public void testCompile_withLongCommandLine_scalesWithSegments() {
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            commands.append("MMMMMMMMMMR");
+        }
+        CommandProgram program = CommandProgram.compile(commands);
+        assertThat(program.getSegmentCount(), is(equalTo(2000)));
+    }
+
+    @Test
+    public void testBuilderDrain_withRunsSplitAcrossChunks_keepsPendingRun() {
+        CommandProgram.Builder builder = new CommandProgram.Builder();
+        builder.append("MMR");
+        assertThat(builder.drain().toString(), is(equalTo("")));
+        builder.append("LMMRM");
+        assertThat(builder.drain().toString(), is(equalTo("M4 R1")));
+        builder.append("M");
+        assertThat(builder.build(-1, '\0').toString(), is(equalTo("M2")));
+    }
+
+    @Test
+    public void testCompile_withTape_returnsSameSegmentsAsCommandLine() {
+        Random random = new Random(42);
+        String[] lines = { "", "M", "MMRX", "MMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMR", "LLRRLRM" };
+        for (String line : lines) {
+            assertThat(CommandProgram.compile(CommandTape.of(line)).toString(),
+                       is(equalTo(CommandProgram.compile(line).toString())));
+        }
+        for (int n = 0; n < 200; n++) {
+            StringBuilder commands = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                commands.append("MMMMLR".charAt(random.nextInt(6)));
+            }
+            assertThat(CommandProgram.compile(CommandTape.of(commands)).toString(),
+                       is(equalTo(CommandProgram.compile(commands).toString())));
+        }
+    }
+
+    @Test
+    public void testGetMaxSegmentCount_withRandomTapes_boundsSegments() {
+        Random random = new Random(7);
+        assertThat(CommandProgram.getMaxSegmentCount(CommandTape.of("MRMLMRM")), is(equalTo(7)));
+        assertThat(CommandProgram.getMaxSegmentCount(CommandTape.of("MRRLMLLM")), is(equalTo(5)));
+        assertThat(CommandProgram.getMaxSegmentCount(CommandTape.of("MMMMMMMM")), is(equalTo(1)));
+        // a run of turns across two words is counted once.
+        assertThat(CommandProgram.getMaxSegmentCount(CommandTape.of("MMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMRLM")),
+                   is(equalTo(3)));
+        for (int n = 0; n < 200; n++) {
+            StringBuilder commands = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                commands.append("MLR".charAt(random.nextInt(3)));
+            }
+            if (random.nextBoolean()) {
+                commands.append('X');
+            }
+            CommandTape tape = CommandTape.of(commands);
+            int segmentCount = CommandProgram.compile(tape).getSegmentCount();
+            assertThat(segmentCount <= CommandProgram.getMaxSegmentCount(tape), is(true));
+        }
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetSegment_withIndexOutOfRange_throwsException() {
+        CommandProgram.compile("M").getSegment(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ExecutionWavesTest {
+
+    @Test
+    public void testOf_withDisjointBoxes_returnsOneWave() {
+        ExecutionWaves waves = ExecutionWaves.of(new long[] { 0, 10, 20 }, new long[] { 0, 0, 0 },
+                                                 new long[] { 2, 12, 22 }, new long[] { 2, 2, 2 });
+        assertThat(waves.getWaveCount(), is(equalTo(1)));
+        assertThat(Arrays.toString(waves.getWave(0)), is(equalTo("[0, 1, 2]")));
+    }
+
+    @Test
+    public void testOf_withOverlappingBoxes_putsLaterRoverInLaterWave() {
+        // rover 1 overlaps rover 0, rover 2 overlaps rover 1 only.
+        ExecutionWaves waves = ExecutionWaves.of(new long[] { 0, 2, 4, 40 }, new long[] { 0, 0, 0, 40 },
+                                                 new long[] { 2, 4, 6, 41 }, new long[] { 2, 2, 2, 41 });
+        assertThat(waves.getWaveCount(), is(equalTo(3)));
+        assertThat(Arrays.toString(waves.getWave(0)), is(equalTo("[0, 3]")));
+        assertThat(Arrays.toString(waves.getWave(1)), is(equalTo("[1]")));
+        assertThat(Arrays.toString(waves.getWave(2)), is(equalTo("[2]")));
+    }
+
+    @Test
+    public void testOf_withHugeBox_makesRoverABarrier() {
+        ExecutionWaves waves = ExecutionWaves.of(new long[] { 0, 10, 0, 30 }, new long[] { 0, 0, 0, 0 },
+                                                 new long[] { 1, 11, 1L << 40, 31 }, new long[] { 1, 1, 1L << 40, 1 });
+        assertThat(waves.getWaveCount(), is(equalTo(3)));
+        assertThat(Arrays.toString(waves.getWave(0)), is(equalTo("[0, 1]")));
+        assertThat(Arrays.toString(waves.getWave(1)), is(equalTo("[2]")));
+        assertThat(Arrays.toString(waves.getWave(2)), is(equalTo("[3]")));
+    }
+
+    @Test
+    public void testOf_withManyRandomBoxes_ordersEveryOverlappingPair() {
+        int count = 2000;
+        long[] minX = new long[count];
+        long[] minY = new long[count];
+        long[] maxX = new long[count];
+        long[] maxY = new long[count];
+        Random random = new Random(7);
+        for (int i = 0; i < count; i++) {
+            minX[i] = random.nextInt(2000) - 1000;
+            minY[i] = random.nextInt(2000) - 1000;
+            maxX[i] = minX[i] + random.nextInt(40);
+            maxY[i] = minY[i] + random.nextInt(40);
+        }
+        ExecutionWaves waves = ExecutionWaves.of(minX, minY, maxX, maxY);
+        int[] waveOf = new int[count];
+        for (int w = 0; w < waves.getWaveCount(); w++) {
+            for (int rover : waves.getWave(w)) {
+                waveOf[rover] = w;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                if (minX[i] <= maxX[j] && minX[j] <= maxX[i] && minY[i] <= maxY[j] && minY[j] <= maxY[i]) {
+                    assertThat("rovers " + i + " and " + j, waveOf[i] < waveOf[j], is(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOf_withNoRovers_returnsNoWave() {
+        assertThat(ExecutionWaves.of(new long[0], new long[0], new long[0], new long[0]).getWaveCount(),
+                   is(equalTo(0)));
+    }
+}
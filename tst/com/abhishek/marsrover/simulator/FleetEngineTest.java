@@ -0,0 +1,106 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.Fleet;
+import com.abhishek.marsrover.model.Plateau;
+
+public class FleetEngineTest {
+
+    private Plateau plateau;
+    private Fleet fleet;
+
+    @Before
+    public void setup() {
+        plateau = new Plateau(new Position(0, 0), new Position(99, 99));
+        fleet = new Fleet(4, false);
+    }
+
+    @Test
+    public void testRun_withSampleInput_movesRovers() throws Exception {
+        addRover(1, 2, Direction.N, "LMLMLMLMM");
+        addRover(3, 3, Direction.E, "MMRMMRMRRM");
+
+        new FleetEngine(plateau, fleet).run();
+        assertThat(fleet.toString(0), is(equalTo("1 3 N")));
+        assertThat(fleet.toString(1), is(equalTo("5 1 E")));
+        assertThat(plateau.isPositionAvailable(Position.pack(1, 2)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(5, 1)), is(false));
+    }
+
+    @Test
+    public void testRun_withRunsAcrossWords_movesWholeRuns() throws Exception {
+        // 40 moves span two words, then turns in the second word.
+        addRover(0, 0, Direction.N, repeat('M', 40) + "RR" + repeat('M', 10) + "L" + repeat('M', 30));
+
+        new FleetEngine(plateau, fleet).run();
+        assertThat(fleet.toString(0), is(equalTo("30 30 E")));
+    }
+
+    @Test
+    public void testRun_withCollisionInsideRun_leavesRoverAtCollision() throws Exception {
+        addRover(5, 5, Direction.N, "");
+        addRover(5, 0, Direction.N, repeat('M', 50));
+
+        try {
+            new FleetEngine(plateau, fleet).run();
+            fail("Expected RoverCollisionException");
+        } catch (RoverCollisionException e) {
+            assertThat(e.getMessage(), is(equalTo("Rover collided with another rover. Position: 5 5")));
+        }
+        assertThat(fleet.toString(1), is(equalTo("5 5 N")));
+        assertThat(plateau.isPositionAvailable(Position.pack(5, 0)), is(false));
+    }
+
+    @Test
+    public void testRun_withLongRunOffPlateau_reportsFirstStepOff() throws Exception {
+        addRover(98, 0, Direction.W, "RRMMMMM");
+
+        try {
+            new FleetEngine(plateau, fleet).run();
+            fail("Expected RoverFallAndCrashException");
+        } catch (RoverFallAndCrashException e) {
+            assertThat(e.getMessage().startsWith("Rover fell off the plateau. Rover's new position:100 0"), is(true));
+        }
+        assertThat(fleet.toString(0), is(equalTo("100 0 E")));
+    }
+
+    @Test
+    public void testRun_withInvalidCommand_throwsAfterValidCommands() throws Exception {
+        addRover(0, 0, Direction.N, "MRMXM");
+
+        try {
+            new FleetEngine(plateau, fleet).run();
+            fail("Expected WrongCommandException");
+        } catch (WrongCommandException e) {
+            assertThat(e.getMessage(), is(equalTo("Wrong command : X")));
+        }
+        assertThat(fleet.toString(0), is(equalTo("1 1 E")));
+    }
+
+    private void addRover(int x, int y, Direction direction, String commands) {
+        fleet.add(x, y, direction, CommandTape.of(commands));
+        plateau.addUnavailablePosition(Position.pack(x, y));
+    }
+
+    private static String repeat(char command, int count) {
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            commands.append(command);
+        }
+        return commands.toString();
+    }
+}
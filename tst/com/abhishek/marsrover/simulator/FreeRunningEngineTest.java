@@ -0,0 +1,163 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.ConcurrentPlateau;
+import com.abhishek.marsrover.model.Plateau;
+import com.abhishek.marsrover.model.Rover;
+
+public class FreeRunningEngineTest {
+
+    private ExecutorService executor;
+    private Plateau plateau;
+
+    @Before
+    public void setup() {
+        // a thread per rover, so that waiting rovers do not hold up others.
+        executor = Executors.newCachedThreadPool();
+        plateau = new Plateau(new Position(0, 0), new Position(9, 9));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRun_withIndependentRovers_executesAllCommands() throws Exception {
+        Rover[] rovers = {createRover(1, 2, Direction.N), createRover(3, 3, Direction.E)};
+
+        FreeRunningEngine engine = createEngine(0, rovers, "LMLMLMLMM", "MMRMMRMRRM");
+        engine.run();
+        assertThat(rovers[0].toString(), is(equalTo("1 3 N")));
+        assertThat(rovers[1].toString(), is(equalTo("5 1 E")));
+        assertThat(engine.getBlockedClaimCount(), is(equalTo(0L)));
+        assertThat(plateau.isPositionAvailable(Position.pack(1, 2)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(5, 1)), is(false));
+    }
+
+    @Test
+    public void testRun_withRoverBehindAnother_waitsForCellToBeReleased() throws Exception {
+        Rover[] rovers = {createRover(0, 0, Direction.E), createRover(1, 0, Direction.E)};
+
+        createEngine(5000, rovers, "MMM", "MMMM").run();
+        assertThat(rovers[0].toString(), is(equalTo("3 0 E")));
+        assertThat(rovers[1].toString(), is(equalTo("5 0 E")));
+    }
+
+    @Test
+    public void testRun_withRoversHeadOn_failsBothAtDeadline() throws Exception {
+        Rover[] rovers = {createRover(2, 2, Direction.E), createRover(3, 2, Direction.W)};
+
+        FreeRunningEngine engine = createEngine(20, rovers, "M", "M");
+        String message = runAndGetError(engine, RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 3 2")));
+        assertThat(rovers[0].toString(), is(equalTo("2 2 E")));
+        assertThat(rovers[1].toString(), is(equalTo("3 2 W")));
+        assertThat(engine.getBlockedClaimCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testRun_withRoverBlockedByParkedRover_failsWithoutWait() throws Exception {
+        Rover[] rovers = {createRover(5, 5, Direction.N), createRover(5, 3, Direction.N)};
+
+        String message = runAndGetError(createEngine(0, rovers, "", "MMRM"), RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 5 5")));
+        assertThat(rovers[1].toString(), is(equalTo("5 4 N")));
+    }
+
+    @Test
+    public void testRun_withFailingRover_letsOtherRoversFinish() throws Exception {
+        Rover[] rovers = {createRover(0, 1, Direction.S), createRover(5, 5, Direction.N)};
+
+        String message = runAndGetError(createEngine(0, rovers, "MMM", "MMXM"), RoverFallAndCrashException.class);
+        assertThat(message.startsWith("Rover fell off the plateau. Rover's new position:0 -1"), is(true));
+        assertThat(rovers[0].toString(), is(equalTo("0 0 S")));
+        assertThat(rovers[1].toString(), is(equalTo("5 7 N")));
+    }
+
+    @Test
+    public void testRun_withInvalidCommand_throwsAfterValidCommands() throws Exception {
+        Rover[] rovers = {createRover(0, 0, Direction.N)};
+
+        String message = runAndGetError(createEngine(0, rovers, "MRMXM"), WrongCommandException.class);
+        assertThat(message, is(equalTo("Wrong command : X")));
+        assertThat(rovers[0].toString(), is(equalTo("1 1 E")));
+    }
+
+    @Test
+    public void testRun_withConcurrentPlateau_movesRoversOnPlateau() throws Exception {
+        plateau = new ConcurrentPlateau(new Position(0, 0), new Position(99, 99));
+        Rover[] rovers = {createRover(62, 0, Direction.E), createRover(63, 0, Direction.E)};
+
+        createEngine(5000, rovers, "MMMMM", "MMMMM").run();
+        assertThat(rovers[0].toString(), is(equalTo("67 0 E")));
+        assertThat(rovers[1].toString(), is(equalTo("68 0 E")));
+        assertThat(plateau.isPositionAvailable(Position.pack(62, 0)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(67, 0)), is(false));
+        assertThat(plateau.isPositionAvailable(Position.pack(68, 0)), is(false));
+    }
+
+    @Test
+    public void testRun_withUnexpectedErrorInRover_throwsIt() throws Exception {
+        plateau = new ConcurrentPlateau(new Position(0, 0), new Position(9, 9));
+        // not marked on the plateau, so releasing its cell fails.
+        Rover[] rovers = {new Rover(new Position(1, 1), Direction.N), createRover(5, 5, Direction.E)};
+
+        String message = runAndGetError(createEngine(0, rovers, "M", "M"), RuntimeException.class);
+        assertThat(message.startsWith("Invalid state of plateau."), is(true));
+        assertThat(rovers[1].toString(), is(equalTo("6 5 E")));
+    }
+
+    @Test
+    public void testNewRoverExecutor_runsTasks() throws Exception {
+        ExecutorService roverExecutor = FreeRunningEngine.newRoverExecutor();
+        try {
+            assertThat(roverExecutor.submit(() -> 42).get(), is(equalTo(42)));
+        } finally {
+            roverExecutor.shutdown();
+        }
+    }
+
+    private FreeRunningEngine createEngine(long waitMillis, Rover[] rovers, String... commands) {
+        CommandTape[] tapes = new CommandTape[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            tapes[i] = CommandTape.of(commands[i]);
+        }
+        return new FreeRunningEngine(plateau, rovers, tapes, executor, waitMillis);
+    }
+
+    private Rover createRover(int x, int y, Direction direction) {
+        Rover rover = new Rover(new Position(x, y), direction);
+        plateau.addUnavailablePosition(rover.getPackedPosition());
+        return rover;
+    }
+
+    private String runAndGetError(FreeRunningEngine engine, Class<? extends Exception> type) throws Exception {
+        try {
+            engine.run();
+        } catch (Exception e) {
+            assertThat(e.getClass().getName(), is(equalTo(type.getName())));
+            return e.getMessage();
+        }
+        fail("Expected " + type.getSimpleName());
+        return null;
+    }
+}
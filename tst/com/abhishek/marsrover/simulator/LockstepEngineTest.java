@@ -0,0 +1,198 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.Plateau;
+import com.abhishek.marsrover.model.Rover;
+
+public class LockstepEngineTest {
+
+    private ForkJoinPool pool;
+    private Plateau plateau;
+
+    @Before
+    public void setup() {
+        pool = new ForkJoinPool(4);
+        plateau = new Plateau(new Position(0, 0), new Position(9, 9));
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRun_withTrainOfRovers_followsIntoVacatedCells() throws Exception {
+        Rover[] rovers = {createRover(3, 0, Direction.E), createRover(2, 0, Direction.E), createRover(1, 0, Direction.E)};
+        LockstepEngine engine = createEngine(rovers, "MMM", "MMM", "MMM");
+
+        engine.run();
+        assertThat(rovers[0].toString(), is(equalTo("6 0 E")));
+        assertThat(rovers[1].toString(), is(equalTo("5 0 E")));
+        assertThat(rovers[2].toString(), is(equalTo("4 0 E")));
+        assertThat(engine.getTickCount(), is(equalTo(3L)));
+        assertThat(plateau.isPositionAvailable(Position.pack(1, 0)), is(true));
+        assertThat(plateau.isPositionAvailable(Position.pack(6, 0)), is(false));
+    }
+
+    @Test
+    public void testRun_withRoversMovingInRing_movesAll() throws Exception {
+        Rover[] rovers = {createRover(0, 0, Direction.N), createRover(0, 1, Direction.E),
+                          createRover(1, 1, Direction.S), createRover(1, 0, Direction.W)};
+
+        createEngine(rovers, "M", "M", "M", "M").run();
+        assertThat(rovers[0].toString(), is(equalTo("0 1 N")));
+        assertThat(rovers[1].toString(), is(equalTo("1 1 E")));
+        assertThat(rovers[2].toString(), is(equalTo("1 0 S")));
+        assertThat(rovers[3].toString(), is(equalTo("0 0 W")));
+    }
+
+    @Test
+    public void testRun_withRoversSwappingCells_throwsCollisionAtStartOfTick() throws Exception {
+        Rover[] rovers = {createRover(2, 2, Direction.E), createRover(3, 2, Direction.W)};
+
+        String message = runAndGetError(createEngine(rovers, "M", "M"), RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 3 2")));
+        assertThat(rovers[0].toString(), is(equalTo("2 2 E")));
+        assertThat(rovers[1].toString(), is(equalTo("3 2 W")));
+    }
+
+    @Test
+    public void testRun_withRoversArrivingOnSameCell_throwsCollisionOfFirstRover() throws Exception {
+        Rover[] rovers = {createRover(5, 4, Direction.N), createRover(4, 5, Direction.E)};
+
+        String message = runAndGetError(createEngine(rovers, "RLM", "LRM"), RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 5 5")));
+        // turns of the first two ticks are kept.
+        assertThat(rovers[0].toString(), is(equalTo("5 4 N")));
+        assertThat(rovers[1].toString(), is(equalTo("4 5 E")));
+        assertThat(plateau.isPositionAvailable(Position.pack(5, 5)), is(true));
+    }
+
+    @Test
+    public void testRun_withRoverMovingIntoTurningRover_throwsCollision() throws Exception {
+        Rover[] rovers = {createRover(5, 5, Direction.N), createRover(5, 4, Direction.N)};
+
+        String message = runAndGetError(createEngine(rovers, "R", "M"), RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 5 5")));
+    }
+
+    @Test
+    public void testRun_withRoverMovingIntoParkedRover_throwsCollision() throws Exception {
+        Rover[] rovers = {createRover(5, 5, Direction.N), createRover(5, 3, Direction.N)};
+
+        String message = runAndGetError(createEngine(rovers, "", "MM"), RoverCollisionException.class);
+        assertThat(message, is(equalTo("Rover collided with another rover. Position: 5 5")));
+        assertThat(rovers[1].toString(), is(equalTo("5 4 N")));
+    }
+
+    @Test
+    public void testRun_withRoverLeavingPlateau_throwsFall() throws Exception {
+        Rover[] rovers = {createRover(0, 1, Direction.S)};
+
+        String message = runAndGetError(createEngine(rovers, "MM"), RoverFallAndCrashException.class);
+        assertThat(message.startsWith("Rover fell off the plateau. Rover's new position:0 -1"), is(true));
+        assertThat(rovers[0].toString(), is(equalTo("0 0 S")));
+    }
+
+    @Test
+    public void testRun_withInvalidCommand_throwsAfterValidCommands() throws Exception {
+        Rover[] rovers = {createRover(0, 0, Direction.N)};
+
+        String message = runAndGetError(createEngine(rovers, "MRMXM"), WrongCommandException.class);
+        assertThat(message, is(equalTo("Wrong command : X")));
+        assertThat(rovers[0].toString(), is(equalTo("1 1 E")));
+    }
+
+    @Test
+    public void testRun_withErrorsInSameTick_throwsErrorOfLowestRover() throws Exception {
+        Rover[] rovers = {createRover(0, 0, Direction.N), createRover(9, 9, Direction.E),
+                          createRover(5, 5, Direction.N)};
+
+        String message = runAndGetError(createEngine(rovers, "X", "M", "Q"), WrongCommandException.class);
+        assertThat(message, is(equalTo("Wrong command : X")));
+
+        plateau = new Plateau(new Position(0, 0), new Position(9, 9));
+        rovers = new Rover[] {createRover(9, 9, Direction.E), createRover(0, 0, Direction.N)};
+        message = runAndGetError(createEngine(rovers, "M", "X"), RoverFallAndCrashException.class);
+        assertThat(message.startsWith("Rover fell off the plateau. Rover's new position:10 9"), is(true));
+    }
+
+    @Test
+    public void testRun_withManyRovers_matchesSingleThread() throws Exception {
+        String[] commands = new String[10000];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = i % 3 == 0 ? "MMRMMLMM" : "LLRRMM";
+        }
+        String single = runColumns(new ForkJoinPool(1), commands);
+        String parallel = runColumns(pool, commands);
+        assertThat(parallel, is(equalTo(single)));
+    }
+
+    /*
+     * Function to run rovers standing in columns of a large plateau, heading north.
+     */
+    private String runColumns(ForkJoinPool pool, String[] commands) throws Exception {
+        plateau = new Plateau(new Position(0, 0), new Position(999, 999));
+        Rover[] rovers = new Rover[commands.length];
+        for (int i = 0; i < rovers.length; i++) {
+            rovers[i] = new Rover(new Position(i % 1000, i / 1000), Direction.N);
+            plateau.addUnavailablePosition(rovers[i].getPackedPosition());
+        }
+        StringBuilder builder = new StringBuilder();
+        try {
+            new LockstepEngine(plateau, rovers, tapes(commands), pool).run();
+        } catch (RoverCollisionException | RoverFallAndCrashException | WrongCommandException e) {
+            builder.append(e.getMessage()).append('\n');
+        }
+        for (Rover rover : rovers) {
+            builder.append(rover).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private LockstepEngine createEngine(Rover[] rovers, String... commands) {
+        return new LockstepEngine(plateau, rovers, tapes(commands), pool);
+    }
+
+    private CommandTape[] tapes(String... commands) {
+        CommandTape[] tapes = new CommandTape[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            tapes[i] = CommandTape.of(commands[i]);
+        }
+        return tapes;
+    }
+
+    private Rover createRover(int x, int y, Direction direction) {
+        Rover rover = new Rover(new Position(x, y), direction);
+        plateau.addUnavailablePosition(rover.getPackedPosition());
+        return rover;
+    }
+
+    private String runAndGetError(LockstepEngine engine, Class<? extends Exception> type) throws Exception {
+        try {
+            engine.run();
+        } catch (Exception e) {
+            assertThat(e.getClass().getName(), is(equalTo(type.getName())));
+            return e.getMessage();
+        }
+        fail("Expected " + type.getSimpleName());
+        return null;
+    }
+}
@@ -1,8 +1,23 @@
 package com.abhishek.marsrover.simulator;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -14,6 +29,9 @@ import com.abhishek.marsrover.exceptions.InvalidInputException;
 import com.abhishek.marsrover.exceptions.RoverCollisionException;
 import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
 import com.abhishek.marsrover.exceptions.WrongCommandException;
+import com.abhishek.marsrover.model.Fleet;
+import com.abhishek.marsrover.parser.ChunkedMissionReader;
+import com.abhishek.marsrover.parser.MappedMissionParser;
 
 public class MarsRoverSimulatorTest {
 
@@ -312,4 +330,409 @@ public class MarsRoverSimulatorTest {
         simulator.initialize();
         simulator.processRoverCommands();
     }
+
+    @Test
+    public void testProcessRoverCommands_withSampleInput_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        String output = runMission("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n");
+        assertThat(output, is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessRoverCommands_withLongStraightRun_reportsFirstStepOffPlateau()
+        throws InvalidInputException, RoverCollisionException, WrongCommandException
+    {
+        ctrl.replay();
+        try {
+            runMission("5 5\n1 2 E\nMMMMMMMMMMMM\n");
+            fail("Rover should have fallen off the plateau");
+        } catch (RoverFallAndCrashException e) {
+            assertThat(e.getMessage().contains("Rover's new position:6 2,"), is(true));
+        }
+    }
+
+    @Test
+    public void testProcessRoverCommands_withCollisionInsideStraightRun_reportsCollisionPosition()
+        throws InvalidInputException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        try {
+            // rover two blocks the run before the run would leave the plateau.
+            runMission("5 5\n0 2 E\nMMMMMMMMM\n3 2 N\nL\n");
+            fail("Rover should have collided");
+        } catch (RoverCollisionException e) {
+            assertThat(e.getMessage(), is(equalTo("Rover collided with another rover. Position: 3 2")));
+        }
+    }
+
+    @Test(expected=RoverFallAndCrashException.class)
+    public void testProcessRoverCommands_withFallBeforeInvalidCommand_throwsFallException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        runMission("5 5\n1 2 N\nMMMMX\n");
+    }
+
+    @Test
+    public void testProcessRoverCommands_withRepeatedCommandLines_sharesCompiledPrograms()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n0 0 N\nMMR\n1 0 N\nMMR\n2 0 N\nMMR\n")),
+            new PrintStream(new ByteArrayOutputStream()));
+        simulator.initialize();
+        simulator.processRoverCommands();
+        assertThat(simulator.getProgramCache().getMisses(), is(equalTo(1L)));
+        assertThat(simulator.getProgramCache().getHits(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testProcessStream_withSampleInput_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n")),
+            new PrintStream(bytes));
+        simulator.processStream();
+        assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessStream_withFailingSecondRover_printsFirstRoverBeforeFailing()
+        throws InvalidInputException, RoverCollisionException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n1 2 N\nM\n3 3 E\nMMMM\n")),
+            new PrintStream(bytes));
+        try {
+            simulator.processStream();
+            fail("Second rover should have fallen off the plateau");
+        } catch (RoverFallAndCrashException e) {
+            assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator())));
+        }
+    }
+
+    @Test(expected=RoverCollisionException.class)
+    public void testProcessStream_withRoverStoppingOnLaterStartPosition_failsPlacement()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n1 2 N\nM\n1 3 E\nM\n")),
+            new PrintStream(new ByteArrayOutputStream()));
+        simulator.processStream();
+    }
+
+    @Test
+    public void testProcessStreamWithReader_withSampleInputAndSmallBuffer_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        assertThat(runChunkedMission("5 5\r\n1 2 N\r\nLMLMLMLMM\r\n3 3 E\r\nMMRMMRMRRM\r\n", 8),
+                   is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessStreamWithReader_withCommandLineMuchLongerThanBuffer_executesWholeLine()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            commands.append("MMMMRMMMMR");
+        }
+        commands.append("MM");
+        assertThat(runChunkedMission("5 5\n0 0 N\n" + commands + "\n", 64),
+                   is(equalTo("0 2 N" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessStreamWithReader_withInvalidCommandInLaterChunk_throwsWrongCommand()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        ctrl.replay();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, output);
+        try {
+            // rover would fall off the plateau for the commands after the invalid one.
+            simulator.processStream(createChunkedReader("5 5\n0 0 N\nMMMMMRMMMMXMMMMM\n", 8));
+            fail("Rover should have failed on the invalid command");
+        } catch (WrongCommandException e) {
+            assertThat(e.getMessage(), is(equalTo("Wrong command : X")));
+        }
+    }
+
+    @Test(expected=InvalidInputException.class)
+    public void testProcessStreamWithReader_withSpaceInCommands_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        runChunkedMission("5 5\n1 2 N\nMMM R\n", 8);
+    }
+
+    @Test
+    public void testProcessStreamWithReader_withSpaceAfterFallingCommands_failsWhateverTheBuffer()
+        throws InvalidInputException, RoverCollisionException, WrongCommandException
+    {
+        ctrl.replay();
+        // the rover falls on the sixth move, before the space, in a chunk of its own or not.
+        for (int bufferSize : new int[] {8, 16, 64}) {
+            try {
+                runChunkedMission("5 5\n0 0 N\nMMMMMMM M\n", bufferSize);
+                fail("Rover should have fallen before the space with a buffer of " + bufferSize);
+            } catch (RoverFallAndCrashException e) {
+                assertThat(e.getMessage().startsWith("Rover fell off the plateau. Rover's new position:0 6,"),
+                           is(true));
+            }
+        }
+    }
+
+    @Test(expected=InvalidInputException.class)
+    public void testProcessStreamWithReader_withMissingCommandLine_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        runChunkedMission("5 5\n1 2 N\n", 8);
+    }
+
+    @Test
+    public void testProcessRoverCommandsInParallel_withSampleInput_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        assertThat(runMissionInParallel("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n", new ForkJoinPool(4)),
+                   is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessRoverCommandsInLockstep_withRoverFollowingAnother_movesBoth()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n0 0 E\nMM\n1 0 E\nMML\n")), new PrintStream(bytes));
+        simulator.initialize();
+        // sequentially, the first rover would hit the second one.
+        simulator.processRoverCommandsInLockstep(new ForkJoinPool(2));
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("2 0 E" + System.lineSeparator() + "3 0 N" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessRoverCommandsFreeRunning_withSampleInput_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n")), new PrintStream(bytes));
+        simulator.initialize();
+        simulator.processRoverCommandsFreeRunning();
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+        assertThat(simulator.getBlockedClaimCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testProcessRoverCommandsFreeRunning_withConcurrentPlateau_movesRoversOnPlateau()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n")), new PrintStream(bytes));
+        simulator.setConcurrentPlateau(true);
+        simulator.initialize();
+        simulator.processRoverCommandsFreeRunning();
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessFleetCommands_withSampleInput_printsExpectedPositions()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, new PrintStream(bytes));
+        simulator.setFleet(new Fleet(2, true));
+        MappedMissionParser.parse(ByteBuffer.wrap("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n".getBytes()),
+                                  simulator);
+        simulator.processFleetCommands();
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test
+    public void testProcessRoverCommandsSpeculatively_withIndependentRovers_executesEachOnce()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("9 9\n0 0 N\nMMRMM\n9 9 S\nMMRMM\n")), new PrintStream(bytes));
+        simulator.initialize();
+        simulator.processRoverCommandsSpeculatively(new ForkJoinPool(2));
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("2 2 E" + System.lineSeparator() + "7 7 W" + System.lineSeparator())));
+        assertThat(simulator.getReexecutedRoverCount(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testProcessRoverCommandsSpeculatively_withPathThroughEarlierRoverStart_executesAgain()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // second rover is blocked by the first one in the snapshot, but not once it has moved.
+        MarsRoverSimulator simulator = new MarsRoverSimulator(
+            new BufferedReader(new StringReader("9 9\n0 2 E\nMMMM\n0 0 N\nMMMM\n")), new PrintStream(bytes));
+        simulator.initialize();
+        simulator.processRoverCommandsSpeculatively(new ForkJoinPool(2));
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("4 2 E" + System.lineSeparator() + "0 4 N" + System.lineSeparator())));
+        assertThat(simulator.getReexecutedRoverCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testParallelModes_withRandomMissions_matchSequentialExecution() {
+        ctrl.replay();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(7);
+        for (int n = 0; n < 200; n++) {
+            int side = 5 + random.nextInt(30);
+            StringBuilder mission = new StringBuilder(side + " " + side + "\n");
+            Set<String> starts = new HashSet<>();
+            int rovers = 1 + random.nextInt(side * 2);
+            for (int i = 0; i < rovers; i++) {
+                String start = random.nextInt(side + 1) + " " + random.nextInt(side + 1);
+                if (!starts.add(start)) {
+                    continue;
+                }
+                mission.append(start).append(' ').append("NESW".charAt(random.nextInt(4))).append('\n');
+                int length = random.nextInt(12);
+                for (int j = 0; j < length; j++) {
+                    mission.append(random.nextInt(200) == 0 ? 'X' : "LRMMM".charAt(random.nextInt(5)));
+                }
+                mission.append('\n');
+            }
+            String sequential = describeRun(mission.toString(), "sequential", null);
+            assertThat(mission.toString(), describeRun(mission.toString(), "parallel", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "speculative", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "concurrentPlateau", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "fleet", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "offHeapFleet", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "mappedOccupancy", pool),
+                       is(equalTo(sequential)));
+            assertThat(mission.toString(), describeRun(mission.toString(), "mortonOccupancy", pool),
+                       is(equalTo(sequential)));
+        }
+    }
+
+    @Test
+    public void testOnRover_withCommandsFromMappedParser_processesCommands()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ctrl.replay();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, new PrintStream(bytes));
+        MappedMissionParser.parse(ByteBuffer.wrap("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n".getBytes()),
+                                  simulator);
+        simulator.processRoverCommands();
+        simulator.printOutput();
+        assertThat(bytes.toString(), is(equalTo("1 3 N" + System.lineSeparator() + "5 1 E" + System.lineSeparator())));
+    }
+
+    @Test(expected=InvalidInputException.class)
+    public void testOnRover_withCommandsContainingSpace_throwsException()
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException
+    {
+        ctrl.replay();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, output);
+        MappedMissionParser.parse(ByteBuffer.wrap("5 5\n1 2 N\nM R\n".getBytes()), simulator);
+    }
+
+    private static String runMission(String mission)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)),
+                                                              new PrintStream(bytes));
+        simulator.initialize();
+        simulator.processRoverCommands();
+        simulator.printOutput();
+        return bytes.toString();
+    }
+
+    private static String runChunkedMission(String mission, int bufferSize)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(null, new PrintStream(bytes));
+        simulator.processStream(createChunkedReader(mission, bufferSize));
+        return bytes.toString();
+    }
+
+    private static ChunkedMissionReader createChunkedReader(String mission, int bufferSize) {
+        return new ChunkedMissionReader(Channels.newChannel(new ByteArrayInputStream(mission.getBytes())),
+                                        bufferSize);
+    }
+
+    private static String runMissionInParallel(String mission, ForkJoinPool pool)
+        throws InvalidInputException, RoverCollisionException, RoverFallAndCrashException, WrongCommandException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)),
+                                                              new PrintStream(bytes));
+        simulator.initialize();
+        simulator.processRoverCommandsInParallel(pool);
+        simulator.printOutput();
+        return bytes.toString();
+    }
+
+    /*
+     * Runs a mission in a mode, and describes the error
+     * and the positions of every rover afterwards.
+     */
+    private static String describeRun(String mission, String mode, ForkJoinPool pool) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MarsRoverSimulator simulator = new MarsRoverSimulator(new BufferedReader(new StringReader(mission)),
+                                                              new PrintStream(bytes));
+        String error = "";
+        boolean fleet = mode.equals("fleet") || mode.equals("offHeapFleet");
+        simulator.setConcurrentPlateau(mode.equals("concurrentPlateau"));
+        simulator.setMappedOccupancy(mode.equals("mappedOccupancy"), null);
+        simulator.setMortonOccupancy(mode.equals("mortonOccupancy"));
+        if (fleet) {
+            simulator.setFleet(new Fleet(4, mode.equals("offHeapFleet")));
+        }
+        try {
+            simulator.initialize();
+            if (fleet) {
+                simulator.processFleetCommands();
+            } else if (mode.equals("parallel")) {
+                simulator.processRoverCommandsInParallel(pool);
+            } else if (mode.equals("speculative")) {
+                simulator.processRoverCommandsSpeculatively(pool);
+            } else {
+                simulator.processRoverCommands();
+            }
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        simulator.printOutput();
+        return error + System.lineSeparator() + bytes;
+    }
 }
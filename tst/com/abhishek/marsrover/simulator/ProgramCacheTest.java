@@ -0,0 +1,78 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.CommandTape;
+
+public class ProgramCacheTest {
+
+    private ProgramCache cache;
+
+    @Before
+    public void setup() {
+        cache = new ProgramCache();
+    }
+
+    @Test
+    public void testGet_withNewCommandLine_countsMiss() {
+        CommandProgram program = cache.get("MMRM");
+        assertThat(program.toString(), is(equalTo("M2 R1 M1")));
+        assertThat(cache.getMisses(), is(equalTo(1L)));
+        assertThat(cache.getHits(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testGet_withRepeatedCommandLine_returnsSameProgramAndCountsHit() {
+        CommandProgram program = cache.get("MMRM");
+        assertThat(cache.get(new String("MMRM")) == program, is(true));
+        assertThat(cache.getMisses(), is(equalTo(1L)));
+        assertThat(cache.getHits(), is(equalTo(1L)));
+        assertThat(cache.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testGet_withDifferentCommandLines_compilesEach() {
+        cache.get("MMRM");
+        cache.get("MMLM");
+        assertThat(cache.getMisses(), is(equalTo(2L)));
+        assertThat(cache.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testGet_withTapeOfCachedCommandLine_countsHit() {
+        CommandProgram program = cache.get("MMRM");
+        assertThat(cache.get(CommandTape.of("MMRM")) == program, is(true));
+        assertThat(cache.get(CommandTape.of("MMRM")) == program, is(true));
+        assertThat(cache.getHits(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testGet_withMoreSegmentsThanMaximum_dropsLeastRecentlyUsed() {
+        cache = new ProgramCache(6);
+        CommandProgram first = cache.get("MMRM");
+        cache.get("MMLM");
+        cache.get("MMRM");
+        cache.get("RMM");
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.getSegmentCount(), is(equalTo(5L)));
+        assertThat(cache.get("MMRM") == first, is(true));
+        cache.get("MMLM");
+        assertThat(cache.getMisses(), is(equalTo(4L)));
+        assertThat(cache.getHits(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testGet_withProgramLargerThanCache_doesNotKeepIt() {
+        cache = new ProgramCache(2);
+        cache.get("MMRM");
+        cache.get("MMRM");
+        assertThat(cache.size(), is(equalTo(0)));
+        assertThat(cache.getMisses(), is(equalTo(2L)));
+    }
+}
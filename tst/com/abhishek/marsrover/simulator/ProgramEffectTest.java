@@ -0,0 +1,54 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.Direction;
+
+public class ProgramEffectTest {
+
+    private static final String SAMPLE_COMMANDS = "MMRMMRMRRM";
+
+    @Test
+    public void testOf_withSampleCommandsHeadingEast_returnsDisplacementAndHeading() {
+        ProgramEffect effect = ProgramEffect.of(CommandProgram.compile(SAMPLE_COMMANDS), Direction.E);
+        // 3 3 E ends at 5 1 E in the sample mission.
+        assertThat(effect.getDx(), is(equalTo(2L)));
+        assertThat(effect.getDy(), is(equalTo(-2L)));
+        assertThat(effect.getFinalDirection(), is(equalTo(Direction.E)));
+    }
+
+    @Test
+    public void testOf_withSampleCommandsHeadingEast_returnsBoundingBox() {
+        ProgramEffect effect = ProgramEffect.of(CommandProgram.compile(SAMPLE_COMMANDS), Direction.E);
+        assertThat(effect.getMinX(), is(equalTo(0L)));
+        assertThat(effect.getMaxX(), is(equalTo(2L)));
+        assertThat(effect.getMinY(), is(equalTo(-2L)));
+        assertThat(effect.getMaxY(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testOf_withDifferentStartDirection_rotatesEffect() {
+        ProgramEffect effect = ProgramEffect.of(CommandProgram.compile(SAMPLE_COMMANDS), Direction.N);
+        assertThat(effect.getDx(), is(equalTo(2L)));
+        assertThat(effect.getDy(), is(equalTo(2L)));
+        assertThat(effect.getFinalDirection(), is(equalTo(Direction.N)));
+    }
+
+    @Test
+    public void testOf_withInvalidCommand_ignoresCommandsAfterIt() {
+        ProgramEffect effect = ProgramEffect.of(CommandProgram.compile("MMXMMMM"), Direction.W);
+        assertThat(effect.getDx(), is(equalTo(-2L)));
+        assertThat(effect.getMinX(), is(equalTo(-2L)));
+    }
+
+    @Test
+    public void testGetEffect_returnsSameEffectForSameDirection() {
+        CommandProgram program = CommandProgram.compile(SAMPLE_COMMANDS);
+        assertThat(program.getEffect(Direction.S) == program.getEffect(Direction.S), is(true));
+    }
+}
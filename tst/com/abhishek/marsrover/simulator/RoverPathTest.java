@@ -0,0 +1,48 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.abhishek.marsrover.data.Direction;
+import com.abhishek.marsrover.data.Position;
+import com.abhishek.marsrover.model.LineOccupancyIndex;
+
+public class RoverPathTest {
+
+    private RoverPath path;
+    private LineOccupancyIndex cells;
+
+    @Before
+    public void setup() {
+        path = new RoverPath();
+        // path from (2, 2) north to (2, 5), then east to (6, 5).
+        path.add(Position.pack(2, 2), Direction.N, 3);
+        path.add(Position.pack(2, 5), Direction.E, 4);
+        cells = new LineOccupancyIndex(0, 0, 9, 9);
+    }
+
+    @Test
+    public void testAdd_withNoSteps_recordsNoRun() {
+        path.add(Position.pack(6, 5), Direction.S, 0);
+        assertThat(path.getRunCount(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testCrosses_withCellOnARun_returnsTrue() {
+        cells.occupy(5, 5);
+        assertThat(path.crosses(cells), is(true));
+    }
+
+    @Test
+    public void testCrosses_withCellsOffThePath_returnsFalse() {
+        cells.occupy(2, 2);
+        cells.occupy(7, 5);
+        cells.occupy(3, 4);
+        assertThat(path.crosses(cells), is(false));
+    }
+}
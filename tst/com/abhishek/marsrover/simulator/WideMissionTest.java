@@ -0,0 +1,80 @@
+package com.abhishek.marsrover.simulator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.abhishek.marsrover.exceptions.InvalidInputException;
+import com.abhishek.marsrover.exceptions.RoverCollisionException;
+import com.abhishek.marsrover.exceptions.RoverFallAndCrashException;
+
+public class WideMissionTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    public void testProcessRoverCommands_withSampleInput_printsExpectedPositions() throws Exception {
+        WideMission mission = run("5 5\n1 2 N\nLMLMLMLMM\n3 3 E\nMMRMMRMRRM\n");
+        mission.printOutput();
+        assertThat(output.toString().replace("\r", ""), is(equalTo("1 3 N\n5 1 E\n")));
+    }
+
+    @Test
+    public void testProcessRoverCommands_onTrillionCellsPlateau_movesRovers() throws Exception {
+        WideMission mission = run("1000000000000 1000000000000\n" +
+                                  "999999999998 1000000000000 E\nMMRMM\n" +
+                                  "0 999999999999 S\nMMLMMM\n");
+        assertThat(mission.toString(0), is(equalTo("1000000000000 999999999998 S")));
+        assertThat(mission.toString(1), is(equalTo("3 999999999997 E")));
+        assertThat(mission.getPlateau().getUnavailablePositionCount(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testProcessRoverCommands_withRunOffPlateau_reportsFirstStepOff() throws Exception {
+        try {
+            run("1000000000000 1000000000000\n999999999999 0 E\nMMM\n");
+            fail("Expected RoverFallAndCrashException");
+        } catch (RoverFallAndCrashException e) {
+            assertThat(e.getMessage(), is(equalTo("Rover fell off the plateau. " +
+                                                  "Rover's new position:1000000000001 0, " +
+                                                  "Plateau : [ (0 0) ... (1000000000000 1000000000000) ]")));
+        }
+    }
+
+    @Test
+    public void testProcessRoverCommands_withRoverInRun_reportsCollision() throws Exception {
+        try {
+            run("1000000000000 1000000000000\n500000000000 7 N\n\n500000000000 0 N\nMMMMMMMMMM\n");
+            fail("Expected RoverCollisionException");
+        } catch (RoverCollisionException e) {
+            assertThat(e.getMessage(), is(equalTo("Rover collided with another rover. Position: 500000000000 7")));
+        }
+    }
+
+    @Test(expected=InvalidInputException.class)
+    public void testInitialize_withPlateauTooLarge_throwsException() throws Exception {
+        run("9223372036854775807 5\n");
+    }
+
+    @Test(expected=RoverFallAndCrashException.class)
+    public void testInitialize_withRoverOutsidePlateau_throwsException() throws Exception {
+        run("1000000000000 5\n-9223372036854775808 0 N\nM\n");
+    }
+
+    private WideMission run(String input) throws Exception {
+        WideMission mission = new WideMission(new BufferedReader(new StringReader(input)),
+                                              new PrintStream(output));
+        mission.initialize();
+        mission.processRoverCommands();
+        return mission;
+    }
+}